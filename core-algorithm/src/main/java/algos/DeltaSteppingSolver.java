@@ -0,0 +1,280 @@
+package algos;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import graph.Graph;
+import graph.Graph.Edge;
+import graph.MemoryFootprint;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Delta-Stepping (Meyer &amp; Sanders) paralelo, um-para-todos.
+ *
+ * As arestas de cada nó são separadas em leves (w <= delta) e pesadas. Cada
+ * balde i guarda os nós com dist em [i*delta, (i+1)*delta); as arestas leves
+ * do balde atual são relaxadas em fases paralelas até o balde esvaziar e só
+ * então as pesadas dos nós finalizados. As relaxações usam min atômico
+ * (CAS) e cada thread acumula num buffer próprio os nós que melhorou; os
+ * buffers são despejados nos baldes entre as fases.
+ *
+ * O grafo é convertido uma vez para CSR e reaproveitado enquanto a mesma
+ * instância de Graph for usada e seus pesos não mudarem. Uma instância não
+ * deve ser compartilhada entre consultas simultâneas.
+ *
+ * Trabalho (WorkCounters): arestas examinadas, relaxamentos que baixaram
+ * dist, inserções e retiradas dos baldes e nós finalizados (uma vez por
+ * balde). As threads não tocam nos contadores: tudo é somado entre as fases.
+ */
+public class DeltaSteppingSolver {
+
+    private static final long INF = Long.MAX_VALUE;
+
+    private final ForkJoinPool pool;
+    private final int configuredDelta; // <= 0: automático
+
+    // CSR com as arestas leves antes das pesadas em cada nó
+    private Graph cachedGraph;
+    private long cachedVersion;
+    private int[] first;
+    private int[] lightEnd;
+    private int[] head;
+    private int[] weight;
+    private int delta;
+    private int maxWeight;
+
+    private AtomicLongArray dist;
+    private final ThreadLocal<IntArrayList> requests = new ThreadLocal<>();
+    private final Queue<IntArrayList> allRequests = new ConcurrentLinkedQueue<>();
+
+    public DeltaSteppingSolver() {
+        this(ForkJoinPool.commonPool(), 0);
+    }
+
+    /** @param delta largura do balde; use 0 para escolher pela distribuição de pesos */
+    public DeltaSteppingSolver(ForkJoinPool pool, int delta) {
+        this.pool = pool;
+        this.configuredDelta = delta;
+    }
+
+    public double[] compute(Graph graph, int sourceNode) {
+        return compute(graph, sourceNode, new WorkCounters());
+    }
+
+    /** Soma o trabalho da execução em counters. */
+    public double[] compute(Graph graph, int sourceNode, WorkCounters counters) {
+        prepare(graph);
+        int n = graph.getNodeCount();
+
+        dist = new AtomicLongArray(n + 2);
+        for (int v = 0; v < n + 2; v++) dist.set(v, INF);
+        dist.set(sourceNode, 0);
+
+        // Baldes cíclicos: a partir do balde i só se alcança até i + maxWeight/delta
+        int bucketCount = maxWeight / delta + 2;
+        IntArrayList[] buckets = new IntArrayList[bucketCount];
+        for (int b = 0; b < bucketCount; b++) buckets[b] = new IntArrayList();
+        buckets[0].add(sourceNode);
+        long pending = 1;
+        counters.heapPushes++;
+
+        int[] stamp = new int[n + 2];
+        int phase = 0;
+        long current = 0;
+
+        while (pending > 0) {
+            IntArrayList bucket = buckets[(int) (current % bucketCount)];
+            if (bucket.isEmpty()) {
+                current++;
+                continue;
+            }
+
+            IntArrayList settled = new IntArrayList();
+            while (!bucket.isEmpty()) {
+                // Retira o balde inteiro, descartando entradas velhas e repetidas
+                phase++;
+                IntArrayList frontier = new IntArrayList(bucket.size());
+                for (int i = 0; i < bucket.size(); i++) {
+                    int v = bucket.getInt(i);
+                    if (stamp[v] != phase && dist.get(v) / delta == current) {
+                        stamp[v] = phase;
+                        frontier.add(v);
+                    }
+                }
+                pending -= bucket.size();
+                counters.heapPops += bucket.size();
+                bucket.clear();
+
+                int[] nodes = frontier.toIntArray();
+                settled.addAll(frontier);
+                counters.relaxations += relaxAll(nodes, true);
+                pending += flush(buckets, counters);
+                counters.workspace(pending);
+            }
+
+            int[] nodes = Arrays.stream(settled.toIntArray()).distinct().toArray();
+            counters.settled += nodes.length;
+            counters.relaxations += relaxAll(nodes, false);
+            pending += flush(buckets, counters);
+            counters.workspace(pending);
+            current++;
+        }
+
+        double[] result = new double[n + 2];
+        for (int v = 0; v < n + 2; v++) {
+            long d = dist.get(v);
+            result[v] = d == INF ? Double.MAX_VALUE : d;
+        }
+        return result;
+    }
+
+    /** Relaxa as arestas leves (ou pesadas) dos nós em paralelo; devolve quantas foram examinadas. */
+    private long relaxAll(int[] nodes, boolean light) {
+        if (nodes.length == 0) return 0;
+        long edges = 0;
+        for (int u : nodes) edges += light ? lightEnd[u] - first[u] : first[u + 1] - lightEnd[u];
+        try {
+            pool.submit(() -> IntStream.range(0, nodes.length).parallel()
+                    .forEach(i -> relaxNode(nodes[i], light))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Delta-Stepping interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no Delta-Stepping", e.getCause());
+        }
+        return edges;
+    }
+
+    private void relaxNode(int u, boolean light) {
+        long du = dist.get(u);
+        int from = light ? first[u] : lightEnd[u];
+        int to = light ? lightEnd[u] : first[u + 1];
+        IntArrayList buffer = null;
+
+        for (int e = from; e < to; e++) {
+            int v = head[e];
+            long nd = du + weight[e];
+            if (relaxMin(v, nd)) {
+                if (buffer == null) buffer = requestBuffer();
+                buffer.add(v);
+            }
+        }
+    }
+
+    /** Min atômico: true se este relaxamento baixou dist[v]. */
+    private boolean relaxMin(int v, long nd) {
+        long old = dist.get(v);
+        while (nd < old) {
+            if (dist.compareAndSet(v, old, nd)) return true;
+            old = dist.get(v);
+        }
+        return false;
+    }
+
+    private IntArrayList requestBuffer() {
+        IntArrayList buffer = requests.get();
+        if (buffer == null) {
+            buffer = new IntArrayList();
+            requests.set(buffer);
+            allRequests.add(buffer);
+        }
+        return buffer;
+    }
+
+    /** flushRequests, contando cada nó melhorado como uma inserção num balde. */
+    private long flush(IntArrayList[] buckets, WorkCounters counters) {
+        long added = flushRequests(buckets);
+        counters.improvements += added;
+        counters.heapPushes += added;
+        return added;
+    }
+
+    /** Despeja os buffers das threads nos baldes (sequencial, entre fases). */
+    private long flushRequests(IntArrayList[] buckets) {
+        long added = 0;
+        for (IntArrayList buffer : allRequests) {
+            for (int i = 0; i < buffer.size(); i++) {
+                int v = buffer.getInt(i);
+                buckets[(int) ((dist.get(v) / delta) % buckets.length)].add(v);
+            }
+            added += buffer.size();
+            buffer.clear();
+        }
+        return added;
+    }
+
+    private void prepare(Graph graph) {
+        if (graph == cachedGraph && graph.getVersion() == cachedVersion) return;
+        this.cachedVersion = graph.getVersion();
+
+        int n = graph.getNodeCount();
+        Map<Integer, List<Edge>> adjacency = graph.getAdjacencyList();
+        this.delta = configuredDelta > 0 ? configuredDelta : chooseDelta(graph);
+
+        first = new int[n + 2];
+        lightEnd = new int[n + 2];
+        for (int v = 1; v <= n; v++) {
+            List<Edge> edges = adjacency.get(v);
+            first[v + 1] = first[v] + (edges == null ? 0 : edges.size());
+        }
+
+        head = new int[first[n + 1]];
+        weight = new int[first[n + 1]];
+        maxWeight = 0;
+        for (int v = 1; v <= n; v++) {
+            List<Edge> edges = adjacency.get(v);
+            int light = first[v];
+            int heavy = first[v + 1];
+            if (edges != null) {
+                for (Edge e : edges) {
+                    int slot = e.weight <= delta ? light++ : --heavy;
+                    head[slot] = e.target;
+                    weight[slot] = e.weight;
+                    maxWeight = Math.max(maxWeight, e.weight);
+                }
+            }
+            lightEnd[v] = light;
+        }
+        this.cachedGraph = graph;
+    }
+
+    /**
+     * Delta automático: peso médio das arestas positivas. Com delta menor há
+     * fases demais (pouco trabalho por sincronização); muito maior e o balde
+     * vira quase Bellman-Ford. Arestas de peso 0 (ciclos do grafo
+     * transformado) são sempre leves.
+     */
+    static int chooseDelta(Graph graph) {
+        long sum = 0;
+        long positive = 0;
+        for (List<Edge> list : graph.getAdjacencyList().values()) {
+            for (Edge e : list) {
+                if (e.weight > 0) {
+                    sum += e.weight;
+                    positive++;
+                }
+            }
+        }
+        if (positive == 0) return 1;
+        return (int) Math.max(1, Math.round((double) sum / positive));
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    /** Bytes do CSR em cache e das distâncias atômicas (zero antes da primeira consulta). */
+    public long getMemoryBytes() {
+        long bytes = MemoryFootprint.of(first) + MemoryFootprint.of(lightEnd) + MemoryFootprint.of(head)
+                + MemoryFootprint.of(weight);
+        if (dist != null) bytes += MemoryFootprint.array(dist.length(), 8);
+        return bytes;
+    }
+}
@@ -1,6 +1,9 @@
 package algos;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.PriorityQueue;
 
 import graph.Graph;
@@ -8,31 +11,53 @@ import graph.Graph.Edge;
 
 public class DijkstraSolver {
 
+	private final WorkCounters counters;
+	private int[] parent;
+
+	public DijkstraSolver() {
+		this(new WorkCounters());
+	}
+
+	/** Soma o trabalho das consultas em counters. */
+	public DijkstraSolver(WorkCounters counters) {
+		this.counters = counters;
+	}
+
 	public double compute(Graph graph, int sourceNode, int targetNode) {
 		int n = graph.getNodeCount();
 		double[] dist = new double[n + 1];
 		Arrays.fill(dist, Double.MAX_VALUE);
 		dist[sourceNode] = 0;
+		parent = new int[n + 1];
+		Arrays.fill(parent, -1);
 
 		PriorityQueue<NodeDist> pq = new PriorityQueue<>();
 		pq.add(new NodeDist(sourceNode, 0));
+		counters.heapPushes++;
 
 		while (!pq.isEmpty()) {
 			NodeDist current = pq.poll();
+			counters.heapPops++;
 			int u = current.node;
 
 			if (u == targetNode)
 				return dist[u]; // Otimização: paramos ao achar o destino
 			if (current.dist > dist[u])
 				continue;
+			counters.settled++;
 
 			if (graph.getAdjacencyList().get(u) != null) {
 				for (Edge e : graph.getAdjacencyList().get(u)) {
 					int v = e.target;
 					double newDist = dist[u] + e.weight;
+					counters.relaxations++;
 					if (newDist < dist[v]) {
 						dist[v] = newDist;
+						parent[v] = u;
 						pq.add(new NodeDist(v, newDist));
+						counters.improvements++;
+						counters.heapPushes++;
+						counters.workspace(pq.size());
 					}
 				}
 			}
@@ -40,6 +65,25 @@ public class DijkstraSolver {
 		return dist[targetNode];
 	}
 
+	/** Caminho da origem até targetNode na última execução (vazio se não foi alcançado). */
+	public List<Integer> getPath(int targetNode) {
+		List<Integer> path = new ArrayList<>();
+		if (parent == null)
+			return path;
+
+		int curr = targetNode;
+		while (curr != -1) {
+			path.add(curr);
+			curr = parent[curr];
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	public WorkCounters getCounters() {
+		return counters;
+	}
+
 	private static class NodeDist implements Comparable<NodeDist> {
 		int node;
 		double dist;
@@ -0,0 +1,170 @@
+package algos;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import algos.ch.ChManyToMany;
+import graph.CompactGraph;
+import graph.Graph;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+import structures.WorkspacePool;
+
+/**
+ * Matriz de distâncias N x M (origens x destinos), devolvida como int[] em
+ * ordem de linha: distancia(i, j) = matrix[i * M + j], ou UNREACHABLE.
+ *
+ * Sem CH: uma busca por origem, em paralelo, sobre o CSR do grafo. As
+ * áreas de trabalho (arrays de tamanho n resetados só nos nós tocados) são
+ * reaproveitadas por uma lista livre e a busca para assim que todos os
+ * destinos forem finalizados. O CSR é refeito quando os pesos do grafo
+ * mudam (versão). Com CH: algoritmo de baldes many-to-many (ChManyToMany),
+ * que quem chama guarda junto com a CH para as áreas de busca servirem a
+ * todos os pedidos.
+ */
+public class DistanceMatrix {
+
+    public static final int UNREACHABLE = -1;
+
+    private final ForkJoinPool pool;
+
+    private Graph cachedGraph;
+    private long cachedVersion;
+    private CompactGraph compact;
+    private WorkspacePool<Workspace> workspaces;
+
+    public DistanceMatrix(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int[] compute(Graph graph, int[] sources, int[] targets) {
+        CompactGraph g = prepare(graph);
+        WorkspacePool<Workspace> ws = workspaces;
+        validate(g.n, sources);
+        validate(g.n, targets);
+
+        int m = targets.length;
+        int[] matrix = new int[cells(sources, targets)];
+        run(() -> IntStream.range(0, sources.length).parallel().forEach(i -> {
+            Workspace workspace = ws.borrow();
+            workspace.row(g, sources[i], targets, matrix, i * m);
+            ws.giveBack(workspace);
+        }));
+        return matrix;
+    }
+
+    /** Versão com CH (baldes): bem mais rápida para muitos pares em grafos grandes. */
+    public int[] compute(ChManyToMany buckets, int[] sources, int[] targets) {
+        validate(buckets.getNodeCount(), sources);
+        validate(buckets.getNodeCount(), targets);
+        cells(sources, targets);
+        return buckets.compute(sources, targets);
+    }
+
+    private synchronized CompactGraph prepare(Graph graph) {
+        if (graph != cachedGraph || graph.getVersion() != cachedVersion) {
+            cachedVersion = graph.getVersion();
+            compact = CompactGraph.from(graph);
+            final int size = compact.n + 2;
+            if (workspaces != null) workspaces.clear(); // Tamanho ou grafo antigo
+            workspaces = new WorkspacePool<>(() -> new Workspace(size));
+            cachedGraph = graph;
+        }
+        return compact;
+    }
+
+    /** Solta as áreas de trabalho livres: a versão do grafo saiu de uso. */
+    public synchronized void clearWorkspaces() {
+        if (workspaces != null) workspaces.clear();
+    }
+
+    private void run(Runnable task) {
+        try {
+            pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo da matriz interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no cálculo da matriz", e.getCause());
+        }
+    }
+
+    /** Tamanho do resultado; IllegalArgumentException se não cabe num array. */
+    private static int cells(int[] sources, int[] targets) {
+        long cells = (long) sources.length * targets.length;
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Matriz grande demais: " + sources.length + " x " + targets.length);
+        }
+        return (int) cells;
+    }
+
+    private static void validate(int n, int[] nodes) {
+        for (int v : nodes) {
+            if (v < 1 || v > n) throw new IllegalArgumentException("Nó inexistente: " + v);
+        }
+    }
+
+    /** Dijkstra com arrays reaproveitados e parada quando todos os destinos saem da fila. */
+    private static class Workspace {
+        final long[] dist;
+        final int[] targetStamp;
+        final IntArrayList touched = new IntArrayList();
+        final LongHeapPriorityQueue heap = new LongHeapPriorityQueue();
+        int stamp;
+
+        Workspace(int size) {
+            dist = new long[size];
+            targetStamp = new int[size];
+            Arrays.fill(dist, Long.MAX_VALUE);
+        }
+
+        void row(CompactGraph g, int source, int[] targets, int[] matrix, int offset) {
+            stamp++;
+            int pendingTargets = 0;
+            for (int t : targets) {
+                if (targetStamp[t] != stamp) {
+                    targetStamp[t] = stamp;
+                    pendingTargets++;
+                }
+            }
+
+            dist[source] = 0;
+            touched.add(source);
+            heap.enqueue(source);
+
+            while (!heap.isEmpty() && pendingTargets > 0) {
+                long item = heap.dequeueLong();
+                long d = item >>> 32;
+                int u = (int) item;
+                if (d > dist[u]) continue;
+                if (targetStamp[u] == stamp) {
+                    targetStamp[u] = 0; // finalizado
+                    pendingTargets--;
+                }
+
+                for (int e = g.first[u]; e < g.first[u + 1]; e++) {
+                    int v = g.head[e];
+                    long nd = d + g.weight[e];
+                    // Chave empacotada (dist << 32 | nó): distâncias precisam caber em int
+                    if (nd < dist[v] && nd < Integer.MAX_VALUE) {
+                        if (dist[v] == Long.MAX_VALUE) touched.add(v);
+                        dist[v] = nd;
+                        heap.enqueue((nd << 32) | v);
+                    }
+                }
+            }
+
+            for (int j = 0; j < targets.length; j++) {
+                long d = dist[targets[j]];
+                matrix[offset + j] = d >= Integer.MAX_VALUE ? UNREACHABLE : (int) d;
+            }
+
+            // Limpa só o que foi tocado
+            for (int i = 0; i < touched.size(); i++) dist[touched.getInt(i)] = Long.MAX_VALUE;
+            touched.clear();
+            heap.clear();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package algos;
+
+import java.util.Arrays;
+
+import algos.engine.PathResult;
+import graph.DynamicGraph;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+import structures.WorkspacePool;
+
+/**
+ * Rotas (distância e caminho) de uma origem para vários destinos com uma
+ * única busca: Dijkstra com pais sobre o CSR do DynamicGraph, parando quando
+ * todos os destinos são finalizados. Como o DynamicGraph é atualizado no
+ * lugar pelo trânsito, não há CSR para refazer.
+ *
+ * Como na DistanceMatrix, as áreas de trabalho (arrays de tamanho n
+ * resetados só nos nós tocados) ficam numa lista livre, uma por chamada
+ * simultânea, então route pode ser chamado em paralelo para origens
+ * diferentes.
+ */
+public class OneToManyRouter {
+
+    private final DynamicGraph graph;
+    private final WorkspacePool<Workspace> workspaces;
+
+    public OneToManyRouter(DynamicGraph graph) {
+        this.graph = graph;
+        final int size = graph.getNodeCount() + 2;
+        this.workspaces = new WorkspacePool<>(() -> new Workspace(size));
+    }
+
+    /** result[j] = rota source -> targets[j] (distância Double.MAX_VALUE e caminho vazio se inalcançável). */
+    public PathResult[] route(int source, int[] targets) {
+        int n = graph.getNodeCount();
+        if (source < 1 || source > n) throw new IllegalArgumentException("Nó inexistente: " + source);
+        for (int t : targets) {
+            if (t < 1 || t > n) throw new IllegalArgumentException("Nó inexistente: " + t);
+        }
+        Workspace workspace = workspaces.borrow();
+        PathResult[] results = workspace.run(graph, source, targets);
+        workspaces.giveBack(workspace);
+        return results;
+    }
+
+    /** Solta as áreas de trabalho livres: a versão do grafo saiu de uso. */
+    public void clearWorkspaces() {
+        workspaces.clear();
+    }
+
+    private static class Workspace {
+        final long[] dist;
+        final int[] parentEdge;
+        final int[] targetStamp;
+        final IntArrayList touched = new IntArrayList();
+        final IntArrayList path = new IntArrayList();
+        final LongHeapPriorityQueue heap = new LongHeapPriorityQueue();
+        int stamp;
+
+        Workspace(int size) {
+            dist = new long[size];
+            parentEdge = new int[size];
+            targetStamp = new int[size];
+            Arrays.fill(dist, Long.MAX_VALUE);
+            Arrays.fill(parentEdge, -1);
+        }
+
+        PathResult[] run(DynamicGraph g, int source, int[] targets) {
+            stamp++;
+            int pendingTargets = 0;
+            for (int t : targets) {
+                if (targetStamp[t] != stamp) {
+                    targetStamp[t] = stamp;
+                    pendingTargets++;
+                }
+            }
+
+            dist[source] = 0;
+            touched.add(source);
+            heap.enqueue(source);
+
+            while (!heap.isEmpty() && pendingTargets > 0) {
+                long item = heap.dequeueLong();
+                long d = item >>> 32;
+                int u = (int) item;
+                if (d > dist[u]) continue;
+                if (targetStamp[u] == stamp) {
+                    targetStamp[u] = 0; // finalizado
+                    pendingTargets--;
+                }
+
+                for (int e = g.first(u); e < g.end(u); e++) {
+                    int v = g.head(e);
+                    long nd = d + g.weight(e);
+                    // Chave empacotada (dist << 32 | nó): distâncias precisam caber em int
+                    if (nd < dist[v] && nd < Integer.MAX_VALUE) {
+                        if (dist[v] == Long.MAX_VALUE) touched.add(v);
+                        dist[v] = nd;
+                        parentEdge[v] = e;
+                        heap.enqueue((nd << 32) | v);
+                    }
+                }
+            }
+
+            PathResult[] results = new PathResult[targets.length];
+            for (int j = 0; j < targets.length; j++) {
+                results[j] = extract(g, source, targets[j]);
+            }
+
+            // Limpa só o que foi tocado
+            for (int i = 0; i < touched.size(); i++) {
+                int v = touched.getInt(i);
+                dist[v] = Long.MAX_VALUE;
+                parentEdge[v] = -1;
+            }
+            touched.clear();
+            heap.clear();
+            return results;
+        }
+
+        private PathResult extract(DynamicGraph g, int source, int target) {
+            if (dist[target] == Long.MAX_VALUE) return new PathResult(Double.MAX_VALUE, new int[0]);
+            path.clear();
+            for (int v = target; v != source; v = g.tail(parentEdge[v])) path.add(v);
+            path.add(source);
+
+            int[] nodes = new int[path.size()];
+            for (int i = 0; i < nodes.length; i++) nodes[i] = path.getInt(nodes.length - 1 - i);
+            return new PathResult(dist[target], nodes);
+        }
+    }
+}
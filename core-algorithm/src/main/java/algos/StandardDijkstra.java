@@ -1,6 +1,8 @@
 package algos;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.PriorityQueue;
 
@@ -9,32 +11,110 @@ import graph.Graph.Edge;
 import structures.HeapItem;
 
 public class StandardDijkstra {
-    
+
+    private final WorkCounters counters;
+    private int[] nearestSource;
+    private int[] parent;
+
+    public StandardDijkstra() {
+        this(new WorkCounters());
+    }
+
+    /** Soma o trabalho das execuções em counters. */
+    public StandardDijkstra(WorkCounters counters) {
+        this.counters = counters;
+    }
+
     public double[] compute(Graph graph, int sourceNode) {
+        return run(graph, new int[] { sourceNode }, null, null);
+    }
+
+    /**
+     * Multi-origem (ex: "depósito mais próximo"): todas as origens entram na
+     * fila com sua distância inicial (initialOffsets pode ser null). Depois,
+     * getNearestSource() dá, para cada nó, o índice da origem mais próxima.
+     */
+    public double[] compute(Graph graph, int[] sources, long[] initialOffsets) {
+        if (initialOffsets != null && initialOffsets.length != sources.length) {
+            throw new IllegalArgumentException("initialOffsets deve ter o mesmo tamanho de sources");
+        }
+        this.nearestSource = new int[graph.getNodeCount() + 2];
+        Arrays.fill(nearestSource, -1);
+        return run(graph, sources, initialOffsets, nearestSource);
+    }
+
+    private double[] run(Graph graph, int[] sources, long[] offsets, int[] origin) {
         int n = graph.getNodeCount();
         double[] dist = new double[n + 2];
         Arrays.fill(dist, Double.MAX_VALUE);
-        dist[sourceNode] = 0;
-        
+        this.parent = new int[n + 2];
+        Arrays.fill(parent, -1);
+
         PriorityQueue<HeapItem> pq = new PriorityQueue<>();
-        pq.add(new HeapItem(sourceNode, 0));
-        
+        for (int i = 0; i < sources.length; i++) {
+            int s = sources[i];
+            double offset = offsets == null ? 0 : offsets[i];
+            if (offset < dist[s]) {
+                dist[s] = offset;
+                if (origin != null) origin[s] = i;
+                pq.add(new HeapItem(s, offset));
+                counters.heapPushes++;
+            }
+        }
+
         while(!pq.isEmpty()) {
             HeapItem item = pq.poll();
+            counters.heapPops++;
             int u = item.nodeId;
-            
+
             if (item.distance > dist[u]) continue;
-            
+            counters.settled++;
+
             List<Edge> edges = graph.getAdjacencyList().get(u);
             if (edges != null) {
                 for (Edge e : edges) {
+                    counters.relaxations++;
                     if (dist[u] + e.weight < dist[e.target]) {
+                        counters.improvements++;
+                        counters.heapPushes++;
                         dist[e.target] = dist[u] + e.weight;
+                        parent[e.target] = u;
+                        if (origin != null) origin[e.target] = origin[u];
                         pq.add(new HeapItem(e.target, dist[e.target]));
+                        counters.workspace(pq.size());
                     }
                 }
             }
         }
         return dist;
     }
-}
\ No newline at end of file
+
+    /** Caminho da origem (mais próxima) até targetNode na última execução. */
+    public List<Integer> getPath(int targetNode) {
+        List<Integer> path = new ArrayList<>();
+        if (parent == null) return path;
+
+        int curr = targetNode;
+        while (curr != -1) {
+            path.add(curr);
+            curr = parent[curr];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    public WorkCounters getCounters() {
+        return counters;
+    }
+
+    /**
+     * Índice (no array sources) da origem mais próxima de cada nó, -1 se
+     * inalcançável. Só disponível após compute multi-origem.
+     */
+    public int[] getNearestSource() {
+        if (nearestSource == null) {
+            throw new IllegalStateException("Rótulos só existem após compute(graph, sources, offsets)");
+        }
+        return nearestSource;
+    }
+}
@@ -0,0 +1,43 @@
+package algos;
+
+/**
+ * Trabalho feito por uma (ou várias, somadas) execuções de um solver: mostra
+ * se uma otimização realmente diminuiu o trabalho ou só mudou o tempo. Não é
+ * thread-safe; cada consulta usa o seu e depois eles são somados com add.
+ */
+public class WorkCounters {
+
+    public long relaxations;    // Arestas examinadas
+    public long improvements;   // Relaxamentos que baixaram dist
+    public long heapPushes;     // Inserções (e itens de batchPrepend) nas filas de prioridade
+    public long heapPops;       // Itens retirados das filas
+    public long settled;        // Nós finalizados/expandidos
+    public long recursionCalls; // Chamadas do bmssp (Duan)
+    public long baseCaseCalls;  // Chamadas do BaseCase, o Dijkstra limitado do nível 0 (Duan)
+    public int maxDepth;        // Profundidade máxima da recursão do bmssp (Duan)
+    public long peakWorkspace;  // Maior fila de prioridade vista na execução (itens)
+
+    public void add(WorkCounters other) {
+        relaxations += other.relaxations;
+        improvements += other.improvements;
+        heapPushes += other.heapPushes;
+        heapPops += other.heapPops;
+        settled += other.settled;
+        recursionCalls += other.recursionCalls;
+        baseCaseCalls += other.baseCaseCalls;
+        maxDepth = Math.max(maxDepth, other.maxDepth);
+        peakWorkspace = Math.max(peakWorkspace, other.peakWorkspace);
+    }
+
+    /** Registra o tamanho atual da fila (peakWorkspace guarda o máximo). */
+    public void workspace(long size) {
+        if (size > peakWorkspace) peakWorkspace = size;
+    }
+
+    @Override
+    public String toString() {
+        return "relaxations=" + relaxations + ", improvements=" + improvements + ", heapPushes=" + heapPushes
+                + ", heapPops=" + heapPops + ", settled=" + settled + ", recursionCalls=" + recursionCalls
+                + ", baseCaseCalls=" + baseCaseCalls + ", maxDepth=" + maxDepth + ", peakWorkspace=" + peakWorkspace;
+    }
+}
@@ -0,0 +1,242 @@
+package algos.alt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import algos.StandardDijkstra;
+import graph.Graph;
+import graph.Graph.Edge;
+import graph.GraphTransformer;
+import io.LoadProgress;
+
+/**
+ * Pré-processamento do ALT: escolhe os landmarks e calcula as tabelas
+ * d(L, v) / d(v, L) com uma busca para frente e outra no grafo transposto.
+ *
+ * Usa o StandardDijkstra (o DuanSolver guarda estatísticas estáticas e não é
+ * seguro para rodar em paralelo). As buscas independentes rodam num
+ * ForkJoinPool; a escolha do próximo landmark depende dos anteriores e
+ * por isso segue sequencial.
+ */
+public class AltPreprocessor {
+
+    public enum Strategy {
+        /** Próximo landmark = nó mais distante do conjunto já escolhido. */
+        FARTHEST,
+        /** "Avoid" (Goldberg &amp; Werneck): evita regiões já bem cobertas. */
+        AVOID
+    }
+
+    public static final int DEFAULT_LANDMARKS = 16;
+
+    private static final int AVOID_ROOT_ATTEMPTS = 8;
+
+    private final int landmarkCount;
+    private final Strategy strategy;
+    private final long seed;
+    private final int parallelism;
+
+    public AltPreprocessor() {
+        this(DEFAULT_LANDMARKS, Strategy.FARTHEST, 42L, Runtime.getRuntime().availableProcessors());
+    }
+
+    public AltPreprocessor(int landmarkCount, Strategy strategy, long seed, int parallelism) {
+        if (landmarkCount < 1) throw new IllegalArgumentException("landmarkCount deve ser >= 1");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism deve ser >= 1");
+        this.landmarkCount = landmarkCount;
+        this.strategy = strategy;
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    public LandmarkTable build(Graph graph) {
+        return build(graph, new LoadProgress());
+    }
+
+    /** Como build(graph), avisando progress a cada landmark escolhido. */
+    public LandmarkTable build(Graph graph, LoadProgress progress) {
+        int n = graph.getNodeCount();
+        int k = Math.min(landmarkCount, n);
+        Graph reverse = new GraphTransformer().reverse(graph);
+        LandmarkTable table = new LandmarkTable(n, k);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            if (strategy == Strategy.FARTHEST) {
+                selectFarthest(graph, reverse, table, pool, progress);
+            } else {
+                selectAvoid(graph, reverse, table, pool, progress);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return table;
+    }
+
+    private void selectFarthest(Graph graph, Graph reverse, LandmarkTable table, ForkJoinPool pool,
+            LoadProgress progress) {
+        int n = graph.getNodeCount();
+        Random rand = new Random(seed);
+        StandardDijkstra dijkstra = new StandardDijkstra();
+        List<Future<?>> pending = new ArrayList<>();
+        boolean[] isLandmark = new boolean[n + 2];
+
+        // Menor distância de cada nó até o conjunto de landmarks já escolhido
+        double[] minDist = dijkstra.compute(graph, 1 + rand.nextInt(n));
+
+        for (int i = 0; i < table.getLandmarkCount(); i++) {
+            int landmark = argMaxFinite(minDist, n);
+            while (landmark == -1 || isLandmark[landmark]) landmark = 1 + rand.nextInt(n); // tudo já coberto
+            isLandmark[landmark] = true;
+            table.setLandmark(i, landmark);
+
+            // A busca reversa não é usada na seleção: vai para o pool
+            pending.add(submitBackward(pool, reverse, table, i, landmark));
+
+            double[] forward = dijkstra.compute(graph, landmark);
+            table.fillFromLandmark(i, forward);
+
+            for (int v = 1; v <= n; v++) {
+                if (i == 0 || forward[v] < minDist[v]) minDist[v] = forward[v];
+            }
+            minDist[landmark] = 0;
+            progress.advance();
+        }
+        await(pending);
+    }
+
+    private void selectAvoid(Graph graph, Graph reverse, LandmarkTable table, ForkJoinPool pool,
+            LoadProgress progress) {
+        int n = graph.getNodeCount();
+        Random rand = new Random(seed);
+        StandardDijkstra dijkstra = new StandardDijkstra();
+        boolean[] isLandmark = new boolean[n + 2];
+
+        for (int i = 0; i < table.getLandmarkCount(); i++) {
+            int landmark = -1;
+            for (int attempt = 0; attempt < AVOID_ROOT_ATTEMPTS && landmark == -1; attempt++) {
+                int root = 1 + rand.nextInt(n);
+                landmark = avoidCandidate(graph, dijkstra.compute(graph, root), root, table, i, isLandmark);
+                progress.advance();
+            }
+            while (landmark == -1 || isLandmark[landmark]) landmark = 1 + rand.nextInt(n);
+
+            isLandmark[landmark] = true;
+            table.setLandmark(i, landmark);
+
+            // As duas buscas do novo landmark são independentes entre si
+            List<Future<?>> pending = new ArrayList<>();
+            pending.add(submitBackward(pool, reverse, table, i, landmark));
+            final int index = i;
+            final int l = landmark;
+            pending.add(pool.submit(() -> table.fillFromLandmark(index, new StandardDijkstra().compute(graph, l))));
+            await(pending);
+            progress.advance();
+        }
+    }
+
+    /**
+     * Um passo do "avoid": monta a árvore de caminhos mínimos a partir de root,
+     * pesa cada nó pelo quanto o limite atual erra (d(r,v) - lb(r,v)), zera
+     * subárvores que já contêm landmark e desce pelo filho mais "pesado" até
+     * uma folha.
+     */
+    private int avoidCandidate(Graph graph, double[] dist, int root, LandmarkTable table, int chosen,
+            boolean[] isLandmark) {
+        int n = graph.getNodeCount();
+        int[] parent = new int[n + 2];
+        int[] order = tightTreeOrder(graph, dist, root, parent);
+
+        long[] size = new long[n + 2];
+        boolean[] covered = new boolean[n + 2];
+        for (int v : order) {
+            long error = (long) dist[v] - table.lowerBound(root, v, chosen);
+            size[v] = Math.max(0, error);
+            covered[v] = isLandmark[v];
+        }
+
+        // Ordem reversa da BFS: filhos antes dos pais
+        for (int i = order.length - 1; i >= 0; i--) {
+            int v = order[i];
+            if (covered[v]) size[v] = 0;
+            int p = parent[v];
+            if (p != -1) {
+                size[p] += size[v];
+                if (covered[v]) covered[p] = true;
+            }
+        }
+        if (size[root] == 0) return -1;
+
+        int current = root;
+        while (true) {
+            int best = -1;
+            List<Edge> edges = graph.getAdjacencyList().get(current);
+            if (edges != null) {
+                for (Edge e : edges) {
+                    int c = e.target;
+                    if (parent[c] == current && size[c] > 0 && (best == -1 || size[c] > size[best])) best = c;
+                }
+            }
+            if (best == -1) return current;
+            current = best;
+        }
+    }
+
+    /**
+     * Árvore de caminhos mínimos por BFS nas arestas "justas" (dist[u] + w == dist[v]).
+     * Ao contrário de derivar o pai só pelo dist, a BFS nunca fecha ciclos nos
+     * ciclos de peso 0 do grafo transformado. Retorna os nós na ordem da BFS.
+     */
+    private int[] tightTreeOrder(Graph graph, double[] dist, int root, int[] parent) {
+        Arrays.fill(parent, -1);
+        boolean[] visited = new boolean[parent.length];
+        int[] order = new int[graph.getNodeCount()];
+        int head = 0;
+        int tail = 0;
+
+        order[tail++] = root;
+        visited[root] = true;
+        while (head < tail) {
+            int u = order[head++];
+            List<Edge> edges = graph.getAdjacencyList().get(u);
+            if (edges == null) continue;
+            for (Edge e : edges) {
+                int v = e.target;
+                if (!visited[v] && dist[u] + e.weight == dist[v]) {
+                    visited[v] = true;
+                    parent[v] = u;
+                    order[tail++] = v;
+                }
+            }
+        }
+        return Arrays.copyOf(order, tail);
+    }
+
+    private Future<?> submitBackward(ForkJoinPool pool, Graph reverse, LandmarkTable table, int index, int landmark) {
+        return pool.submit(() -> table.fillToLandmark(index, new StandardDijkstra().compute(reverse, landmark)));
+    }
+
+    private static int argMaxFinite(double[] dist, int n) {
+        int best = -1;
+        for (int v = 1; v <= n; v++) {
+            if (dist[v] != Double.MAX_VALUE && dist[v] > 0 && (best == -1 || dist[v] > dist[best])) best = v;
+        }
+        return best;
+    }
+
+    private static void await(List<Future<?>> futures) {
+        try {
+            for (Future<?> f : futures) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pré-processamento ALT interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha numa busca do pré-processamento ALT", e.getCause());
+        }
+    }
+}
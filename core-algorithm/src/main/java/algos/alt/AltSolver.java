@@ -0,0 +1,103 @@
+package algos.alt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import algos.WorkCounters;
+import graph.Graph;
+import graph.Graph.Edge;
+import structures.HeapItem;
+
+/**
+ * Consulta ponto-a-ponto A* guiada pelos limites inferiores dos landmarks.
+ * A heurística max-de-landmarks é consistente, então cada nó é finalizado
+ * uma única vez, como no Dijkstra.
+ */
+public class AltSolver {
+
+    private final LandmarkTable landmarks;
+    private final WorkCounters counters;
+
+    private int[] parent;
+    private int settledCount;
+
+    public AltSolver(LandmarkTable landmarks) {
+        this(landmarks, new WorkCounters());
+    }
+
+    /** Soma o trabalho das consultas em counters. */
+    public AltSolver(LandmarkTable landmarks, WorkCounters counters) {
+        this.landmarks = landmarks;
+        this.counters = counters;
+    }
+
+    public double compute(Graph graph, int sourceNode, int targetNode) {
+        int n = graph.getNodeCount();
+        if (n != landmarks.getNodeCount()) {
+            throw new IllegalArgumentException("Tabela de landmarks foi gerada para outro grafo");
+        }
+
+        double[] dist = new double[n + 2];
+        Arrays.fill(dist, Double.MAX_VALUE);
+        this.parent = new int[n + 2];
+        Arrays.fill(parent, -1);
+        boolean[] settled = new boolean[n + 2];
+        this.settledCount = 0;
+
+        dist[sourceNode] = 0;
+        PriorityQueue<HeapItem> pq = new PriorityQueue<>();
+        pq.add(new HeapItem(sourceNode, landmarks.lowerBound(sourceNode, targetNode)));
+        counters.heapPushes++;
+
+        while (!pq.isEmpty()) {
+            int u = pq.poll().nodeId;
+            counters.heapPops++;
+            if (settled[u]) continue;
+            settled[u] = true;
+            settledCount++;
+            counters.settled++;
+
+            if (u == targetNode) return dist[u];
+
+            List<Edge> edges = graph.getAdjacencyList().get(u);
+            if (edges == null) continue;
+
+            for (Edge e : edges) {
+                int v = e.target;
+                double newDist = dist[u] + e.weight;
+                counters.relaxations++;
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    parent[v] = u;
+                    counters.improvements++;
+                    counters.heapPushes++;
+                    // Prioridade = g(v) + h(v)
+                    pq.add(new HeapItem(v, newDist + landmarks.lowerBound(v, targetNode)));
+                    counters.workspace(pq.size());
+                }
+            }
+        }
+        return dist[targetNode];
+    }
+
+    public List<Integer> getPath(int targetNode) {
+        List<Integer> path = new ArrayList<>();
+        if (parent == null) return path;
+
+        int curr = targetNode;
+        while (curr != -1) {
+            path.add(curr);
+            curr = parent[curr];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /** Nós finalizados na última consulta (para comparar com o Dijkstra). */
+    public int getSettledCount() {
+        return settledCount;
+    }
+}
@@ -0,0 +1,148 @@
+package algos.alt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import graph.MemoryFootprint;
+
+/**
+ * Tabelas de distância dos landmarks do ALT (A*, Landmarks, Triangle inequality).
+ *
+ * As distâncias são guardadas como int (os pesos DIMACS já são inteiros) em
+ * layout intercalado: todas as distâncias de um nó v ficam contíguas em
+ * [v * k, v * k + k), o que deixa o cálculo do limite inferior em uma única
+ * linha de cache por nó durante o A*.
+ */
+public class LandmarkTable {
+
+    /** Marca de nó inalcançável (a partir do/até o landmark). */
+    public static final int INF = Integer.MAX_VALUE;
+
+    private static final int MAGIC = 0x414C5431; // "ALT1"
+
+    private final int n;
+    private final int[] landmarks;
+    private final int[] fromLandmark; // d(L, v)
+    private final int[] toLandmark;   // d(v, L)
+
+    public LandmarkTable(int n, int landmarkCount) {
+        this(n, new int[landmarkCount], new int[(n + 1) * landmarkCount], new int[(n + 1) * landmarkCount]);
+    }
+
+    private LandmarkTable(int n, int[] landmarks, int[] fromLandmark, int[] toLandmark) {
+        this.n = n;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Limite inferior para d(v, t) usando a desigualdade triangular nos dois
+     * sentidos: d(L,t) - d(L,v) e d(v,L) - d(t,L), máximo entre os landmarks.
+     */
+    public int lowerBound(int v, int t) {
+        return lowerBound(v, t, landmarks.length);
+    }
+
+    int lowerBound(int v, int t, int count) {
+        int k = landmarks.length;
+        int bv = v * k;
+        int bt = t * k;
+        int best = 0;
+
+        for (int i = 0; i < count; i++) {
+            int lv = fromLandmark[bv + i];
+            int lt = fromLandmark[bt + i];
+            if (lv != INF && lt != INF && lt - lv > best) best = lt - lv;
+
+            int vl = toLandmark[bv + i];
+            int tl = toLandmark[bt + i];
+            if (vl != INF && tl != INF && vl - tl > best) best = vl - tl;
+        }
+        return best;
+    }
+
+    void setLandmark(int index, int node) {
+        landmarks[index] = node;
+    }
+
+    void fillFromLandmark(int index, double[] dist) {
+        fill(fromLandmark, index, dist);
+    }
+
+    void fillToLandmark(int index, double[] dist) {
+        fill(toLandmark, index, dist);
+    }
+
+    private void fill(int[] table, int index, double[] dist) {
+        int k = landmarks.length;
+        for (int v = 0; v <= n; v++) {
+            double d = v < dist.length ? dist[v] : Double.MAX_VALUE;
+            // Distâncias que não cabem em int são tratadas como "sem informação"
+            table[v * k + index] = d >= INF ? INF : (int) d;
+        }
+    }
+
+    public int getFromLandmark(int index, int v) {
+        return fromLandmark[v * landmarks.length + index];
+    }
+
+    public int getToLandmark(int index, int v) {
+        return toLandmark[v * landmarks.length + index];
+    }
+
+    public int[] getLandmarks() {
+        return landmarks;
+    }
+
+    public int getLandmarkCount() {
+        return landmarks.length;
+    }
+
+    public int getNodeCount() {
+        return n;
+    }
+
+    /** Bytes das distâncias de e para cada landmark. */
+    public long getMemoryBytes() {
+        return MemoryFootprint.of(landmarks) + MemoryFootprint.of(fromLandmark) + MemoryFootprint.of(toLandmark);
+    }
+
+    public void save(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(n);
+            out.writeInt(landmarks.length);
+            for (int l : landmarks) out.writeInt(l);
+            for (int d : fromLandmark) out.writeInt(d);
+            for (int d : toLandmark) out.writeInt(d);
+        }
+    }
+
+    public static LandmarkTable load(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Arquivo de landmarks inválido: " + path);
+            }
+            int n = in.readInt();
+            int k = in.readInt();
+
+            int[] landmarks = new int[k];
+            for (int i = 0; i < k; i++) landmarks[i] = in.readInt();
+
+            int[] from = new int[(n + 1) * k];
+            for (int i = 0; i < from.length; i++) from[i] = in.readInt();
+            int[] to = new int[(n + 1) * k];
+            for (int i = 0; i < to.length; i++) to[i] = in.readInt();
+
+            return new LandmarkTable(n, landmarks, from, to);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package algos.ch;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+import structures.WorkspacePool;
+
+/**
+ * Matriz de distâncias many-to-many sobre a CH, pelo algoritmo de baldes
+ * (Knopp et al.): uma busca reversa para cima por destino deixa (destino,
+ * distância) num balde em cada nó visitado; depois uma busca para cima por
+ * origem varre os baldes dos nós que alcança. O custo é O(N + M) buscas
+ * pequenas em vez de N buscas completas.
+ *
+ * Resultado no mesmo formato da DistanceMatrix (int[] por linha, -1 se inalcançável).
+ */
+public class ChManyToMany {
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final ContractionHierarchy ch;
+    private final ForkJoinPool pool;
+    private final WorkspacePool<UpwardSearch> searches;
+
+    public ChManyToMany(ContractionHierarchy ch, ForkJoinPool pool) {
+        this.ch = ch;
+        this.pool = pool;
+        this.searches = new WorkspacePool<>(() -> new UpwardSearch(ch.n + 1));
+    }
+
+    public int getNodeCount() {
+        return ch.getNodeCount();
+    }
+
+    public int[] compute(int[] sources, int[] targets) {
+        int m = targets.length;
+
+        // 1. Espaço de busca reverso de cada destino (pares nó << 32 | distância)
+        long[][] spaces = new long[m][];
+        run(() -> IntStream.range(0, m).parallel()
+                .forEach(j -> spaces[j] = search(targets[j], false)));
+
+        // 2. Baldes em CSR: para cada nó, os destinos que o alcançam "de cima"
+        int[] bucketFirst = new int[ch.n + 2];
+        for (long[] space : spaces) {
+            for (long entry : space) bucketFirst[(int) (entry >>> 32) + 1]++;
+        }
+        for (int v = 0; v <= ch.n; v++) bucketFirst[v + 1] += bucketFirst[v];
+
+        int[] bucketTarget = new int[bucketFirst[ch.n + 1]];
+        int[] bucketDist = new int[bucketTarget.length];
+        int[] fill = Arrays.copyOf(bucketFirst, ch.n + 1);
+        for (int j = 0; j < m; j++) {
+            for (long entry : spaces[j]) {
+                int slot = fill[(int) (entry >>> 32)]++;
+                bucketTarget[slot] = j;
+                bucketDist[slot] = (int) entry;
+            }
+        }
+
+        // 3. Busca para cima de cada origem varrendo os baldes
+        int[] matrix = new int[sources.length * m];
+        run(() -> IntStream.range(0, sources.length).parallel().forEach(i -> {
+            long[] best = new long[m];
+            Arrays.fill(best, Long.MAX_VALUE);
+            for (long entry : search(sources[i], true)) {
+                int v = (int) (entry >>> 32);
+                int d = (int) entry;
+                for (int b = bucketFirst[v]; b < bucketFirst[v + 1]; b++) {
+                    long candidate = (long) d + bucketDist[b];
+                    if (candidate < best[bucketTarget[b]]) best[bucketTarget[b]] = candidate;
+                }
+            }
+            for (int j = 0; j < m; j++) {
+                matrix[i * m + j] = best[j] >= INF ? -1 : (int) best[j];
+            }
+        }));
+        return matrix;
+    }
+
+    private long[] search(int start, boolean forward) {
+        UpwardSearch search = searches.borrow();
+        long[] settled = search.run(start, forward);
+        searches.giveBack(search);
+        return settled;
+    }
+
+    /** Solta as áreas de busca livres: a CH (ou a versão do grafo) saiu de uso. */
+    public void clearWorkspaces() {
+        searches.clear();
+    }
+
+    private void run(Runnable task) {
+        try {
+            pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo many-to-many interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no cálculo many-to-many", e.getCause());
+        }
+    }
+
+    /** Busca completa só para cima (sem destino), com arrays reaproveitados entre buscas. */
+    private class UpwardSearch {
+        final int[] dist;
+        final IntArrayList touched = new IntArrayList();
+        final LongHeapPriorityQueue heap = new LongHeapPriorityQueue();
+
+        UpwardSearch(int size) {
+            dist = new int[size];
+            Arrays.fill(dist, INF);
+        }
+
+        long[] run(int start, boolean forward) {
+            int[] first = forward ? ch.fwdFirst : ch.bwdFirst;
+            int[] head = forward ? ch.fwdHead : ch.bwdHead;
+            int[] weight = forward ? ch.fwdWeight : ch.bwdWeight;
+
+            LongArrayList settled = new LongArrayList();
+            dist[start] = 0;
+            touched.add(start);
+            heap.enqueue(start);
+
+            while (!heap.isEmpty()) {
+                long item = heap.dequeueLong();
+                int d = (int) (item >>> 32);
+                int u = (int) item;
+                if (d > dist[u]) continue;
+                settled.add(((long) u << 32) | d);
+
+                for (int e = first[u]; e < first[u + 1]; e++) {
+                    int v = head[e];
+                    long nd = (long) d + weight[e];
+                    if (nd < dist[v]) {
+                        if (dist[v] == INF) touched.add(v);
+                        dist[v] = (int) nd;
+                        heap.enqueue((nd << 32) | v);
+                    }
+                }
+            }
+
+            for (int i = 0; i < touched.size(); i++) dist[touched.getInt(i)] = INF;
+            touched.clear();
+            return settled.toLongArray();
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package algos.ch;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import graph.Graph;
+import graph.Graph.Edge;
+import io.LoadProgress;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+
+/**
+ * Ordenação e contração de nós das Contraction Hierarchies.
+ *
+ * A contração é feita em rodadas: a cada rodada escolhemos um conjunto
+ * independente de nós (mínimos locais de prioridade entre os vizinhos),
+ * calculamos os atalhos de todos em paralelo com buscas de testemunha
+ * (witness search) e só então aplicamos as mudanças no grafo, em sequência.
+ * Nós não adjacentes podem ser contraídos juntos sem perder distâncias.
+ *
+ * Prioridade = 4 * diferença de arestas + 2 * vizinhos já contraídos + nível.
+ */
+public class ChPreprocessor {
+
+    /**
+     * Limites de nós finalizados por busca de testemunha: a simulação (usada só
+     * para a prioridade) é mais barata que a contração de verdade. Um atalho a
+     * mais por busca interrompida não quebra a corretude.
+     */
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+    private static final int CONTRACTION_SETTLE_LIMIT = 500;
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final int parallelism;
+
+    private int n;
+    private EdgeList[] out;
+    private EdgeList[] in;
+    private boolean[] contracted;
+    private int[] priority;
+    private int[] deletedNeighbors;
+    private int[] level;
+    private ThreadLocal<Workspace> workspaces;
+
+    public ChPreprocessor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ChPreprocessor(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism deve ser >= 1");
+        this.parallelism = parallelism;
+    }
+
+    public ContractionHierarchy build(Graph graph) {
+        return build(graph, new LoadProgress());
+    }
+
+    /** Como build(graph), avisando progress a cada rodada de contração. */
+    public ContractionHierarchy build(Graph graph, LoadProgress progress) {
+        this.n = graph.getNodeCount();
+        final int size = n + 1;
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(size));
+        initDynamicGraph(graph);
+
+        int[] rank = new int[n + 1];
+        Arrays.fill(rank, -1);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int[] all = IntStream.rangeClosed(1, n).toArray();
+            runParallel(pool, () -> Arrays.stream(all).parallel()
+                    .forEach(v -> priority[v] = computePriority(v)));
+
+            int[] remaining = all;
+
+            int nextRank = 0;
+            while (remaining.length > 0) {
+                int[] batch = Arrays.stream(remaining).filter(this::isLocalMinimum).toArray();
+
+                // Marcamos o lote antes das buscas: uma testemunha nunca pode passar por
+                // outro nó contraído na mesma rodada (senão dois nós podem "se cobrir"
+                // mutuamente e a distância some)
+                for (int v : batch) contracted[v] = true;
+
+                // 1. Atalhos de todo o lote em paralelo (só leitura do grafo)
+                int[][] shortcuts = new int[batch.length][];
+                runParallel(pool, () -> IntStream.range(0, batch.length).parallel()
+                        .forEach(i -> shortcuts[i] = findShortcuts(batch[i], true).toIntArray()));
+
+                // 2. Aplica a contração em sequência
+                IntArrayList touched = new IntArrayList();
+                for (int i = 0; i < batch.length; i++) {
+                    int v = batch[i];
+                    rank[v] = nextRank++;
+                    contract(v, shortcuts[i], touched);
+                }
+
+                // 3. Atualiza a prioridade dos vizinhos afetados
+                int[] neighbors = Arrays.stream(touched.toIntArray()).distinct().toArray();
+                runParallel(pool, () -> Arrays.stream(neighbors).parallel()
+                        .forEach(v -> priority[v] = computePriority(v)));
+
+                remaining = Arrays.stream(remaining).filter(v -> rank[v] == -1).toArray();
+                progress.advance();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        return toHierarchy(rank);
+    }
+
+    private void initDynamicGraph(Graph graph) {
+        out = new EdgeList[n + 1];
+        in = new EdgeList[n + 1];
+        for (int v = 0; v <= n; v++) {
+            out[v] = new EdgeList();
+            in[v] = new EdgeList();
+        }
+        contracted = new boolean[n + 1];
+        priority = new int[n + 1];
+        deletedNeighbors = new int[n + 1];
+        level = new int[n + 1];
+
+        for (int u = 1; u <= n; u++) {
+            List<Edge> edges = graph.getAdjacencyList().get(u);
+            if (edges == null) continue;
+            for (Edge e : edges) {
+                if (e.target == u) continue; // laços (ciclos unitários do transformador) não servem para CH
+                out[u].addOrDecrease(e.target, e.weight, -1);
+                in[e.target].addOrDecrease(u, e.weight, -1);
+            }
+        }
+    }
+
+    private boolean isLocalMinimum(int v) {
+        return isBelowAll(v, out[v]) && isBelowAll(v, in[v]);
+    }
+
+    private boolean isBelowAll(int v, EdgeList edges) {
+        for (int i = 0; i < edges.size; i++) {
+            int w = edges.node[i];
+            if (priority[w] < priority[v] || (priority[w] == priority[v] && w < v)) return false;
+        }
+        return true;
+    }
+
+    private int computePriority(int v) {
+        int shortcuts = findShortcuts(v, false).size() / 3;
+        int edgeDifference = shortcuts - out[v].size - in[v].size;
+        return 4 * edgeDifference + 2 * deletedNeighbors[v] + level[v];
+    }
+
+    /**
+     * Simula a contração de v: para cada par (u -> v -> w) sem caminho de
+     * testemunha de custo <= w(u,v) + w(v,w), gera o atalho u -> w.
+     * Retorna triplas (u, w, peso). Só lê o grafo dinâmico.
+     */
+    private IntArrayList findShortcuts(int v, boolean collect) {
+        IntArrayList result = new IntArrayList();
+        EdgeList ins = in[v];
+        EdgeList outs = out[v];
+        if (ins.size == 0 || outs.size == 0) return result;
+
+        int maxOut = 0;
+        for (int j = 0; j < outs.size; j++) maxOut = Math.max(maxOut, outs.weight[j]);
+
+        Workspace ws = workspaces.get();
+        for (int i = 0; i < ins.size; i++) {
+            int u = ins.node[i];
+            int wu = ins.weight[i];
+
+            long limit = (long) wu + maxOut;
+            ws.search(u, v, limit > INF ? INF : (int) limit, outs,
+                    collect ? CONTRACTION_SETTLE_LIMIT : SIMULATION_SETTLE_LIMIT);
+
+            for (int j = 0; j < outs.size; j++) {
+                int w = outs.node[j];
+                if (w == u) continue;
+                long via = (long) wu + outs.weight[j];
+                if (via >= INF) continue;
+                if (ws.dist[w] > via) {
+                    result.add(u);
+                    result.add(w);
+                    result.add((int) via);
+                    if (!collect && result.size() > 3 * (ins.size + outs.size) * 4) {
+                        ws.reset();
+                        return result; // já é caro o suficiente para a prioridade
+                    }
+                }
+            }
+            ws.reset();
+        }
+        return result;
+    }
+
+    private void contract(int v, int[] shortcuts, IntArrayList touched) {
+        for (int i = 0; i < shortcuts.length; i += 3) {
+            int u = shortcuts[i];
+            int w = shortcuts[i + 1];
+            int weight = shortcuts[i + 2];
+            out[u].addOrDecrease(w, weight, v);
+            in[w].addOrDecrease(u, weight, v);
+        }
+
+        // As listas de v ficam congeladas: são as arestas "para cima" dele na CH
+        for (int i = 0; i < out[v].size; i++) {
+            int w = out[v].node[i];
+            in[w].remove(v);
+            touch(w, v, touched);
+        }
+        for (int i = 0; i < in[v].size; i++) {
+            int u = in[v].node[i];
+            out[u].remove(v);
+            touch(u, v, touched);
+        }
+    }
+
+    private void touch(int neighbor, int v, IntArrayList touched) {
+        deletedNeighbors[neighbor]++;
+        level[neighbor] = Math.max(level[neighbor], level[v] + 1);
+        touched.add(neighbor);
+    }
+
+    private ContractionHierarchy toHierarchy(int[] rank) {
+        int[] fwdFirst = new int[n + 2];
+        int[] bwdFirst = new int[n + 2];
+        for (int v = 1; v <= n; v++) {
+            fwdFirst[v + 1] = fwdFirst[v] + out[v].size;
+            bwdFirst[v + 1] = bwdFirst[v] + in[v].size;
+        }
+        int fwdCount = fwdFirst[n + 1];
+        int bwdCount = bwdFirst[n + 1];
+        int[] fwdHead = new int[fwdCount], fwdWeight = new int[fwdCount], fwdMiddle = new int[fwdCount];
+        int[] bwdHead = new int[bwdCount], bwdWeight = new int[bwdCount], bwdMiddle = new int[bwdCount];
+
+        for (int v = 1; v <= n; v++) {
+            copy(out[v], fwdFirst[v], fwdHead, fwdWeight, fwdMiddle);
+            copy(in[v], bwdFirst[v], bwdHead, bwdWeight, bwdMiddle);
+        }
+        return new ContractionHierarchy(n, rank, fwdFirst, fwdHead, fwdWeight, fwdMiddle,
+                bwdFirst, bwdHead, bwdWeight, bwdMiddle);
+    }
+
+    private static void copy(EdgeList edges, int offset, int[] head, int[] weight, int[] middle) {
+        System.arraycopy(edges.node, 0, head, offset, edges.size);
+        System.arraycopy(edges.weight, 0, weight, offset, edges.size);
+        System.arraycopy(edges.middle, 0, middle, offset, edges.size);
+    }
+
+    private static void runParallel(ForkJoinPool pool, Runnable task) {
+        try {
+            pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Contração interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na contração da CH", e.getCause());
+        }
+    }
+
+    /** Lista de adjacência mutável (uma por nó e por sentido). */
+    private static class EdgeList {
+        int[] node = new int[2];
+        int[] weight = new int[2];
+        int[] middle = new int[2];
+        int size;
+
+        void addOrDecrease(int target, int w, int mid) {
+            for (int i = 0; i < size; i++) {
+                if (node[i] == target) {
+                    if (w < weight[i]) {
+                        weight[i] = w;
+                        middle[i] = mid;
+                    }
+                    return;
+                }
+            }
+            if (size == node.length) {
+                int capacity = size * 2;
+                node = Arrays.copyOf(node, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                middle = Arrays.copyOf(middle, capacity);
+            }
+            node[size] = target;
+            weight[size] = w;
+            middle[size] = mid;
+            size++;
+        }
+
+        void remove(int target) {
+            for (int i = 0; i < size; i++) {
+                if (node[i] == target) {
+                    size--;
+                    node[i] = node[size];
+                    weight[i] = weight[size];
+                    middle[i] = middle[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Área de trabalho por thread das buscas de testemunha. */
+    private class Workspace {
+        final int[] dist;
+        final boolean[] isTarget;
+        final IntArrayList touched = new IntArrayList();
+        final LongHeapPriorityQueue heap = new LongHeapPriorityQueue();
+
+        Workspace(int size) {
+            dist = new int[size];
+            isTarget = new boolean[size];
+            Arrays.fill(dist, INF);
+        }
+
+        /**
+         * Dijkstra limitado a partir de source, ignorando o nó em contração e os
+         * já contraídos. Para assim que todos os alvos (saídas do nó) forem finalizados.
+         */
+        void search(int source, int ignored, int limit, EdgeList targets, int settleLimit) {
+            int pendingTargets = 0;
+            for (int j = 0; j < targets.size; j++) {
+                int w = targets.node[j];
+                if (!isTarget[w]) {
+                    isTarget[w] = true;
+                    pendingTargets++;
+                }
+            }
+
+            dist[source] = 0;
+            touched.add(source);
+            heap.enqueue(source);
+
+            int settled = 0;
+            while (!heap.isEmpty() && settled < settleLimit && pendingTargets > 0) {
+                long item = heap.dequeueLong();
+                int d = (int) (item >>> 32);
+                int u = (int) item;
+                if (d > dist[u]) continue;
+                if (d > limit) break;
+                settled++;
+                if (isTarget[u]) {
+                    isTarget[u] = false;
+                    pendingTargets--;
+                }
+
+                EdgeList edges = out[u];
+                for (int i = 0; i < edges.size; i++) {
+                    int v = edges.node[i];
+                    if (v == ignored || contracted[v]) continue;
+                    long nd = (long) d + edges.weight[i];
+                    if (nd < dist[v] && nd <= limit) {
+                        if (dist[v] == INF) touched.add(v);
+                        dist[v] = (int) nd;
+                        heap.enqueue((nd << 32) | v);
+                    }
+                }
+            }
+            heap.clear();
+            for (int j = 0; j < targets.size; j++) isTarget[targets.node[j]] = false;
+        }
+
+        void reset() {
+            for (int i = 0; i < touched.size(); i++) dist[touched.getInt(i)] = INF;
+            touched.clear();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package algos.ch;
+
+import java.util.Arrays;
+
+import algos.WorkCounters;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+
+/**
+ * Consulta bidirecional "só para cima" sobre a ContractionHierarchy, com
+ * stall-on-demand. Os arrays de trabalho têm tamanho n e são reaproveitados
+ * entre consultas (só os nós tocados são resetados), então uma instância NÃO
+ * é thread-safe: use uma por thread.
+ */
+public class ChQuery {
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final ContractionHierarchy ch;
+
+    private final int[] distF;
+    private final int[] distB;
+    private final int[] parentF; // índice da aresta fwd usada para chegar ao nó
+    private final int[] parentB; // índice da aresta bwd usada para chegar ao nó
+    private final int[] predF;
+    private final int[] predB;
+    private final IntArrayList touchedF = new IntArrayList();
+    private final IntArrayList touchedB = new IntArrayList();
+    private final LongHeapPriorityQueue heapF = new LongHeapPriorityQueue();
+    private final LongHeapPriorityQueue heapB = new LongHeapPriorityQueue();
+
+    private int source = -1;
+    private int target = -1;
+    private int meetingNode = -1;
+    private int settledCount;
+    private WorkCounters counters;
+
+    public ChQuery(ContractionHierarchy ch) {
+        this.ch = ch;
+        int size = ch.n + 1;
+        this.distF = new int[size];
+        this.distB = new int[size];
+        this.parentF = new int[size];
+        this.parentB = new int[size];
+        this.predF = new int[size];
+        this.predB = new int[size];
+        Arrays.fill(distF, INF);
+        Arrays.fill(distB, INF);
+    }
+
+    /** Distância de s até t, ou Double.MAX_VALUE se inalcançável (mesma convenção dos outros solvers). */
+    public double compute(int sourceNode, int targetNode) {
+        return compute(sourceNode, targetNode, new WorkCounters());
+    }
+
+    /** Como compute(s, t), somando o trabalho da consulta em counters. */
+    public double compute(int sourceNode, int targetNode, WorkCounters counters) {
+        this.counters = counters;
+        reset();
+        this.source = sourceNode;
+        this.target = targetNode;
+        this.meetingNode = -1;
+        this.settledCount = 0;
+
+        visit(distF, touchedF, heapF, parentF, predF, sourceNode, 0, -1, -1);
+        visit(distB, touchedB, heapB, parentB, predB, targetNode, 0, -1, -1);
+
+        long best = INF;
+        boolean forwardDone = false;
+        boolean backwardDone = false;
+
+        while (!forwardDone || !backwardDone) {
+            boolean forward;
+            if (forwardDone) forward = false;
+            else if (backwardDone) forward = true;
+            else forward = heapF.firstLong() <= heapB.firstLong();
+
+            LongHeapPriorityQueue heap = forward ? heapF : heapB;
+            long item = heap.dequeueLong();
+            counters.heapPops++;
+            int d = (int) (item >>> 32);
+            int u = (int) item;
+
+            int[] dist = forward ? distF : distB;
+            if (d <= dist[u]) {
+                if (d >= best) {
+                    // Nada mais deste lado pode melhorar o melhor encontro
+                    heap.clear();
+                } else {
+                    settledCount++;
+                    counters.settled++;
+                    int[] other = forward ? distB : distF;
+                    if (other[u] != INF && (long) d + other[u] < best) {
+                        best = (long) d + other[u];
+                        meetingNode = u;
+                    }
+                    if (forward) relaxForward(u, d);
+                    else relaxBackward(u, d);
+                }
+            }
+
+            if (heapF.isEmpty()) forwardDone = true;
+            if (heapB.isEmpty()) backwardDone = true;
+        }
+
+        return meetingNode == -1 ? Double.MAX_VALUE : best;
+    }
+
+    private void relaxForward(int u, int d) {
+        // Stall-on-demand: se algum vizinho de rank maior chega em u mais barato, u não expande
+        for (int e = ch.bwdFirst[u]; e < ch.bwdFirst[u + 1]; e++) {
+            int v = ch.bwdHead[e];
+            if (distF[v] != INF && (long) distF[v] + ch.bwdWeight[e] < d) return;
+        }
+        for (int e = ch.fwdFirst[u]; e < ch.fwdFirst[u + 1]; e++) {
+            long nd = (long) d + ch.fwdWeight[e];
+            int v = ch.fwdHead[e];
+            counters.relaxations++;
+            if (nd < distF[v]) visit(distF, touchedF, heapF, parentF, predF, v, (int) nd, e, u);
+        }
+    }
+
+    private void relaxBackward(int u, int d) {
+        for (int e = ch.fwdFirst[u]; e < ch.fwdFirst[u + 1]; e++) {
+            int v = ch.fwdHead[e];
+            if (distB[v] != INF && (long) distB[v] + ch.fwdWeight[e] < d) return;
+        }
+        for (int e = ch.bwdFirst[u]; e < ch.bwdFirst[u + 1]; e++) {
+            long nd = (long) d + ch.bwdWeight[e];
+            int v = ch.bwdHead[e];
+            counters.relaxations++;
+            if (nd < distB[v]) visit(distB, touchedB, heapB, parentB, predB, v, (int) nd, e, u);
+        }
+    }
+
+    private void visit(int[] dist, IntArrayList touched, LongHeapPriorityQueue heap,
+            int[] parent, int[] pred, int v, int d, int edge, int from) {
+        counters.improvements++;
+        counters.heapPushes++;
+        if (dist[v] == INF) touched.add(v);
+        dist[v] = d;
+        parent[v] = edge;
+        pred[v] = from;
+        heap.enqueue(((long) d << 32) | v);
+        counters.workspace(heapF.size() + heapB.size());
+    }
+
+    /**
+     * Caminho da última consulta já com os atalhos desempacotados, em IDs do
+     * grafo de entrada (origem ... destino). Vazio se não há caminho.
+     */
+    public int[] getPath() {
+        if (meetingNode == -1) return new int[0];
+
+        IntArrayList path = new IntArrayList();
+        path.add(source);
+
+        // Metade da origem: sobe do encontro até s, depois desempacota na ordem certa
+        IntArrayList up = new IntArrayList();
+        for (int v = meetingNode; v != source; v = predF[v]) up.add(v);
+        for (int i = up.size() - 1; i >= 0; i--) {
+            int v = up.getInt(i);
+            int e = parentF[v];
+            unpack(predF[v], v, ch.fwdMiddle[e], path);
+        }
+
+        // Metade do destino: do encontro descendo até t
+        for (int v = meetingNode; v != target; v = predB[v]) {
+            int e = parentB[v];
+            unpack(v, predB[v], ch.bwdMiddle[e], path);
+        }
+        return path.toIntArray();
+    }
+
+    /** Acrescenta em path os nós depois de u até w (inclusive) da aresta u -> w. */
+    private void unpack(int u, int w, int middle, IntArrayList path) {
+        if (middle == -1) {
+            path.add(w);
+            return;
+        }
+        // u -> middle está na lista bwd de middle; middle -> w na lista fwd de middle
+        unpack(u, middle, ch.bwdMiddle[findEdge(ch.bwdFirst, ch.bwdHead, middle, u)], path);
+        unpack(middle, w, ch.fwdMiddle[findEdge(ch.fwdFirst, ch.fwdHead, middle, w)], path);
+    }
+
+    private static int findEdge(int[] first, int[] head, int node, int neighbor) {
+        for (int e = first[node]; e < first[node + 1]; e++) {
+            if (head[e] == neighbor) return e;
+        }
+        throw new IllegalStateException("Atalho inconsistente na CH: " + node + " -> " + neighbor);
+    }
+
+    /** Nós expandidos na última consulta (somando os dois lados). */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    private void reset() {
+        for (int i = 0; i < touchedF.size(); i++) distF[touchedF.getInt(i)] = INF;
+        for (int i = 0; i < touchedB.size(); i++) distB[touchedB.getInt(i)] = INF;
+        touchedF.clear();
+        touchedB.clear();
+        heapF.clear();
+        heapB.clear();
+    }
+}
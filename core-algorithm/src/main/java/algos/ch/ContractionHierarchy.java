@@ -0,0 +1,125 @@
+package algos.ch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import graph.MemoryFootprint;
+
+/**
+ * Grafo de Contraction Hierarchies já contraído, em formato CSR.
+ *
+ * Os IDs de nó são os mesmos do grafo de entrada (não são renumerados pelo
+ * rank), então o caminho desempacotado já sai com os IDs originais.
+ *
+ * - "fwd": em u, arestas u -> v com rank[v] > rank[u] (busca a partir da origem)
+ * - "bwd": em u, arestas v -> u com rank[v] > rank[u] (busca reversa a partir do destino)
+ *
+ * middle[e] é o nó contraído que originou o atalho, ou -1 para aresta original.
+ */
+public class ContractionHierarchy {
+
+    private static final int MAGIC = 0x43483031; // "CH01"
+
+    final int n;
+    final int[] rank;
+
+    final int[] fwdFirst;
+    final int[] fwdHead;
+    final int[] fwdWeight;
+    final int[] fwdMiddle;
+
+    final int[] bwdFirst;
+    final int[] bwdHead;
+    final int[] bwdWeight;
+    final int[] bwdMiddle;
+
+    ContractionHierarchy(int n, int[] rank,
+            int[] fwdFirst, int[] fwdHead, int[] fwdWeight, int[] fwdMiddle,
+            int[] bwdFirst, int[] bwdHead, int[] bwdWeight, int[] bwdMiddle) {
+        this.n = n;
+        this.rank = rank;
+        this.fwdFirst = fwdFirst;
+        this.fwdHead = fwdHead;
+        this.fwdWeight = fwdWeight;
+        this.fwdMiddle = fwdMiddle;
+        this.bwdFirst = bwdFirst;
+        this.bwdHead = bwdHead;
+        this.bwdWeight = bwdWeight;
+        this.bwdMiddle = bwdMiddle;
+    }
+
+    public int getNodeCount() {
+        return n;
+    }
+
+    public int getRank(int node) {
+        return rank[node];
+    }
+
+    /** Total de arestas (originais + atalhos) nos dois grafos de busca. */
+    public int getEdgeCount() {
+        return fwdHead.length + bwdHead.length;
+    }
+
+    /** Bytes dos ranks e dos dois grafos de busca (com o nó do meio de cada atalho). */
+    public long getMemoryBytes() {
+        return MemoryFootprint.of(rank)
+                + MemoryFootprint.of(fwdFirst) + MemoryFootprint.of(fwdHead) + MemoryFootprint.of(fwdWeight)
+                + MemoryFootprint.of(fwdMiddle)
+                + MemoryFootprint.of(bwdFirst) + MemoryFootprint.of(bwdHead) + MemoryFootprint.of(bwdWeight)
+                + MemoryFootprint.of(bwdMiddle);
+    }
+
+    public int getShortcutCount() {
+        int count = 0;
+        for (int m : fwdMiddle) if (m != -1) count++;
+        for (int m : bwdMiddle) if (m != -1) count++;
+        return count;
+    }
+
+    public void save(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(n);
+            writeArray(out, rank);
+            writeArray(out, fwdFirst);
+            writeArray(out, fwdHead);
+            writeArray(out, fwdWeight);
+            writeArray(out, fwdMiddle);
+            writeArray(out, bwdFirst);
+            writeArray(out, bwdHead);
+            writeArray(out, bwdWeight);
+            writeArray(out, bwdMiddle);
+        }
+    }
+
+    public static ContractionHierarchy load(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Arquivo de CH inválido: " + path);
+            }
+            int n = in.readInt();
+            return new ContractionHierarchy(n, readArray(in),
+                    readArray(in), readArray(in), readArray(in), readArray(in),
+                    readArray(in), readArray(in), readArray(in), readArray(in));
+        }
+    }
+
+    private static void writeArray(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int v : values) out.writeInt(v);
+    }
+
+    private static int[] readArray(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) values[i] = in.readInt();
+        return values;
+    }
+}
@@ -14,6 +14,22 @@ public class BaseCaseAlgorithm {
     }
 
     public BmsspResult execute(double B, IntSet S) {
+        DuanEvents.BaseCase event = new DuanEvents.BaseCase();
+        event.begin();
+        BmsspResult result = baseCase(B, S);
+        event.end();
+        if (event.shouldCommit()) {
+            event.sSize = S.size();
+            event.uSize = result.U.size();
+            event.bound = B;
+            event.newBound = result.newBound;
+            event.commit();
+        }
+        return result;
+    }
+
+    private BmsspResult baseCase(double B, IntSet S) {
+        ctx.counters.baseCaseCalls++;
         IntSet U0 = new IntOpenHashSet(S);
         
         IntHeapPriorityQueue pq = new IntHeapPriorityQueue(new IntComparator() {
@@ -26,17 +42,21 @@ public class BaseCaseAlgorithm {
         IntIterator sIterator = S.iterator();
         while (sIterator.hasNext()) {
             pq.enqueue(sIterator.nextInt());
+            ctx.counters.heapPushes++;
         }
 
         int expansionCount = 0; 
         
         while (!pq.isEmpty() && expansionCount < ctx.k + 1) {
             int u = pq.dequeueInt();
+            ctx.counters.heapPops++;
             
             if (ctx.dist[u] >= B) {
                 pq.enqueue(u); // Devolve para capturar no final
+                ctx.counters.heapPushes++;
                 break;
             }
+            ctx.counters.settled++;
             
             if (!U0.contains(u)) {
                 U0.add(u);
@@ -49,11 +69,15 @@ public class BaseCaseAlgorithm {
                     int v = edge.target;
                     double newDist = ctx.dist[u] + edge.weight;
                     boolean strictlyImproved = newDist < ctx.dist[v];
+                    ctx.counters.relaxations++;
 
                     if (newDist <= ctx.dist[v] && newDist < B) {
-                        ctx.dist[v] = newDist;
-                        ctx.parent[v] = u;
-                        if (strictlyImproved) pq.enqueue(v); 
+                        ctx.relax(u, v, newDist);
+                        if (strictlyImproved) {
+                            pq.enqueue(v);
+                            ctx.counters.heapPushes++;
+                            ctx.counters.workspace(pq.size());
+                        }
                     }
                 }
             }
@@ -1,6 +1,9 @@
 package algos.duan;
 
+import algos.WorkCounters;
 import graph.Graph;
+import graph.MemoryFootprint;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import java.util.Arrays;
 
 /**
@@ -16,28 +19,107 @@ public class DuanContext {
     public final double[] dist;
     public final int[] parent;
     
+    // Multi-origem: índice (em sources) da origem mais próxima de cada nó. Null com origem única.
+    public final int[] origin;
+    
+    // Trabalho da execução (o DuanSolver troca pelo seu)
+    public WorkCounters counters = new WorkCounters();
+
+    // Nós cuja dist saiu de INF: permite reaproveitar o contexto limpando só eles
+    private final IntArrayList touched = new IntArrayList();
+    
     public static final double INF = Double.MAX_VALUE;
 
     public DuanContext(Graph graph, int sourceNode) {
+        this(graph, new int[] { sourceNode }, null, false);
+    }
+
+    /**
+     * Várias origens, cada uma com uma distância inicial (ex: tempo de
+     * preparo no depósito). offsets == null equivale a tudo zero.
+     */
+    public DuanContext(Graph graph, int[] sources, long[] offsets) {
+        this(graph, sources, offsets, true);
+    }
+
+    private DuanContext(Graph graph, int[] sources, long[] offsets, boolean trackOrigin) {
         this.graph = graph;
         this.n = graph.getNodeCount();
         
         // Inicialização de arrays
         this.dist = new double[n + 2]; 
         Arrays.fill(dist, INF);
-        dist[sourceNode] = 0;
 
         this.parent = new int[n + 2];
         Arrays.fill(parent, -1);
 
+        this.origin = trackOrigin ? new int[n + 2] : null;
+        if (origin != null) Arrays.fill(origin, -1);
+
+        seed(sources, offsets);
+
         // Cálculo dos parâmetros teóricos (Section 1.1)
         double logN = Math.log(n) / Math.log(2);
         this.k = (int) Math.max(2, Math.pow(logN, 1.0/3.0)); 
         this.t = (int) Math.max(2, Math.pow(logN, 2.0/3.0));
     }
     
+    private void seed(int[] sources, long[] offsets) {
+        for (int i = 0; i < sources.length; i++) {
+            int s = sources[i];
+            double offset = offsets == null ? 0 : offsets[i];
+            if (offset < dist[s]) {
+                if (dist[s] == INF) touched.add(s);
+                dist[s] = offset;
+                if (origin != null) origin[s] = i;
+            }
+        }
+    }
+
+    /**
+     * Prepara o contexto para uma nova origem desfazendo só os nós tocados na
+     * execução anterior. Numa busca limitada (isócrona) o custo fica
+     * proporcional à área alcançada, e não a n.
+     */
+    public void reset(int sourceNode) {
+        for (int i = 0; i < touched.size(); i++) {
+            int v = touched.getInt(i);
+            dist[v] = INF;
+            parent[v] = -1;
+            if (origin != null) origin[v] = -1;
+        }
+        touched.clear();
+        seed(new int[] { sourceNode }, null);
+    }
+
+    /**
+     * Relaxamento u -> v aceito: atualiza dist, pai e (multi-origem) o rótulo de origem.
+     * Os sub-algoritmos aceitam empate (<=, Remark 3.4), mas pai e origem só
+     * mudam com melhora estrita: com empate, os ciclos de peso 0 do grafo
+     * transformado viravam ciclos de pais e o getPath não chegava à origem.
+     */
+    public void relax(int u, int v, double newDist) {
+        if (newDist >= dist[v]) return;
+        counters.improvements++;
+        if (dist[v] == INF) touched.add(v);
+        dist[v] = newDist;
+        parent[v] = u;
+        if (origin != null) origin[v] = origin[u];
+    }
+
     public int getMaxLevel() {
          double logN = Math.log(n) / Math.log(2);
          return (int) Math.ceil(logN / (double)t) + 1;
     }
+
+    /**
+     * Bytes dos arrays de um contexto para um grafo de n nós: dist, parent e,
+     * com várias origens, origin. O touched e os conjuntos da recursão crescem
+     * com a área alcançada e ficam de fora (o MemoryBenchmark mede o pico).
+     */
+    public static long estimateBytes(int n, boolean multiSource) {
+        long bytes = MemoryFootprint.array(n + 2, 8) + MemoryFootprint.array(n + 2, 4);
+        if (multiSource) bytes += MemoryFootprint.array(n + 2, 4);
+        return bytes;
+    }
 }
\ No newline at end of file
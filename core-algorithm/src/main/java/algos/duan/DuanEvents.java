@@ -0,0 +1,102 @@
+package algos.duan;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import structures.HeapEvents;
+
+/**
+ * Eventos do Java Flight Recorder do Duan: cada bmssp (com o nível), cada
+ * FindPivots e cada BaseCase, para achar em produção qual nível ou qual pull
+ * deixa uma consulta lenta. Só são gravados com uma gravação ativa e acima
+ * do threshold (padrão 1 ms, ajustável na gravação); desligados, custam um
+ * shouldCommit() por chamada.
+ */
+public final class DuanEvents {
+
+    /** Todos os eventos do Duan, inclusive os da fila (para habilitar numa gravação). */
+    public static final String[] NAMES = { Bmssp.NAME, Pivots.NAME, BaseCase.NAME, HeapEvents.Pull.NAME,
+            HeapEvents.BatchPrepend.NAME };
+
+    private DuanEvents() {
+    }
+
+    @Name(Bmssp.NAME)
+    @Label("Duan bmssp")
+    @Category({ "Duan SSSP" })
+    @Description("Uma chamada do bmssp (inclui as chamadas filhas)")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class Bmssp extends Event {
+        public static final String NAME = "duan.Bmssp";
+
+        @Label("Nível")
+        public int level;
+
+        @Label("|S|")
+        public int sSize;
+
+        @Label("|U|")
+        public int uSize;
+
+        @Label("M")
+        public long m;
+
+        @Label("Limite B")
+        public double bound;
+
+        @Label("Novo limite B'")
+        public double newBound;
+
+        @Label("Pulls")
+        public int pulls;
+    }
+
+    @Name(Pivots.NAME)
+    @Label("Duan FindPivots")
+    @Category({ "Duan SSSP" })
+    @Description("Os k passos de Bellman-Ford do FindPivots")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class Pivots extends Event {
+        public static final String NAME = "duan.Pivots";
+
+        @Label("|S|")
+        public int sSize;
+
+        @Label("|W|")
+        public int wSize;
+
+        @Label("|P|")
+        public int pSize;
+
+        @Label("Limite B")
+        public double bound;
+    }
+
+    @Name(BaseCase.NAME)
+    @Label("Duan BaseCase")
+    @Category({ "Duan SSSP" })
+    @Description("O Dijkstra limitado do nível 0")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class BaseCase extends Event {
+        public static final String NAME = "duan.BaseCase";
+
+        @Label("|S|")
+        public int sSize;
+
+        @Label("|U|")
+        public int uSize;
+
+        @Label("Limite B")
+        public double bound;
+
+        @Label("Novo limite B'")
+        public double newBound;
+    }
+}
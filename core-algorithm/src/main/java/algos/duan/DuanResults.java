@@ -25,4 +25,15 @@ public class DuanResults {
             this.W = W;
         }
     }
+
+    /** Resultado esparso de uma busca limitada: só os nós com dist < B. */
+    public static class BoundedResult {
+        public final int[] nodes;
+        public final double[] distances;
+        
+        public BoundedResult(int[] nodes, double[] distances) {
+            this.nodes = nodes;
+            this.distances = distances;
+        }
+    }
 }
\ No newline at end of file
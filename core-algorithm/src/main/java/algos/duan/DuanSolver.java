@@ -1,6 +1,7 @@
 package algos.duan;
 
 import java.util.*;
+import algos.WorkCounters;
 import graph.Graph;
 import graph.Graph.Edge;
 import structures.*;
@@ -9,6 +10,7 @@ import it.unimi.dsi.fastutil.ints.*;
 
 public class DuanSolver {
 
+    private final WorkCounters counters;
     private DuanContext ctx;
     private FindPivotsAlgorithm algo1;
     private BaseCaseAlgorithm algo2;
@@ -19,21 +21,84 @@ public class DuanSolver {
     public static long timeRelax = 0;
     public static long timeBatch = 0;
     public static int calls = 0;
+    public static boolean profile = true; // Imprime o DUAN PROFILING a cada execução
+
+    public DuanSolver() {
+        this(new WorkCounters());
+    }
+
+    /** Soma o trabalho das execuções em counters (relaxamentos, fila, chamadas do bmssp). */
+    public DuanSolver(WorkCounters counters) {
+        this.counters = counters;
+    }
 
     public double[] compute(Graph graph, int sourceNode) {
-        this.ctx = new DuanContext(graph, sourceNode);
+        return run(new DuanContext(graph, sourceNode), new int[] { sourceNode });
+    }
+
+    /**
+     * Multi-origem: uma única execução com S = todas as origens (o bmssp já
+     * recebe um conjunto). initialOffsets (pode ser null) soma uma distância
+     * inicial a cada origem. Depois, getNearestSource() dá a origem mais
+     * próxima de cada nó (rotulação de Voronoi).
+     */
+    public double[] compute(Graph graph, int[] sources, long[] initialOffsets) {
+        if (initialOffsets != null && initialOffsets.length != sources.length) {
+            throw new IllegalArgumentException("initialOffsets deve ter o mesmo tamanho de sources");
+        }
+        return run(new DuanContext(graph, sources, initialOffsets), sources);
+    }
+
+    /**
+     * Isócrona: todos os nós com dist < bound a partir de source. O limite B
+     * desce pela recursão (Pivots, BaseCase e o relaxamento só avançam abaixo
+     * dele) e o resultado sai do U do nível de cima, sem varrer o array dist.
+     * O contexto é reaproveitado entre chamadas sobre o mesmo grafo e
+     * resetado só nos nós tocados, então o custo acompanha a área alcançada.
+     */
+    public BoundedResult computeBounded(Graph graph, int sourceNode, double bound) {
+        if (ctx == null || ctx.graph != graph || ctx.origin != null) {
+            ctx = new DuanContext(graph, sourceNode);
+        } else {
+            ctx.reset(sourceNode);
+        }
+        BmsspResult res = run(ctx, new int[] { sourceNode }, bound);
+
+        IntSet reached = new IntOpenHashSet(res.U);
+        reached.add(sourceNode);
+        IntArrayList nodes = new IntArrayList(reached.size());
+        IntIterator it = reached.iterator();
+        while (it.hasNext()) {
+            int v = it.nextInt();
+            if (ctx.dist[v] < bound) nodes.add(v);
+        }
+
+        int[] ids = nodes.toIntArray();
+        double[] distances = new double[ids.length];
+        for (int i = 0; i < ids.length; i++) distances[i] = ctx.dist[ids[i]];
+        return new BoundedResult(ids, distances);
+    }
+
+    private double[] run(DuanContext context, int[] sources) {
+        run(context, sources, DuanContext.INF);
+        return ctx.dist;
+    }
+
+    private BmsspResult run(DuanContext context, int[] sources, double bound) {
+        this.ctx = context;
+        ctx.counters = counters;
         this.algo1 = new FindPivotsAlgorithm(ctx);
         this.algo2 = new BaseCaseAlgorithm(ctx);
         
         timePivots = 0; timePull = 0; timeRelax = 0; timeBatch = 0; calls = 0;
         
-        IntSet sourceSet = new IntOpenHashSet();
-        sourceSet.add(sourceNode);
+        IntSet sourceSet = new IntOpenHashSet(sources);
 
         long start = System.nanoTime();
-        bmssp(ctx.getMaxLevel(), DuanContext.INF, sourceSet);
+        BmsspResult result = bmssp(ctx.getMaxLevel(), bound, sourceSet);
         long end = System.nanoTime();
         
+        if (!profile) return result;
         System.out.println("--- DUAN PROFILING ---");
         System.out.println("Total Time: " + (end - start)/1e6 + " ms");
         System.out.println("Pivots (Algo1): " + timePivots/1e6 + " ms");
@@ -43,29 +108,62 @@ public class DuanSolver {
         System.out.println("Recursion Calls: " + calls);
         System.out.println("----------------------");
 
-        return ctx.dist;
+        return result;
     }
     
+    public WorkCounters getCounters() {
+        return counters;
+    }
+
+    /**
+     * Índice (no array sources) da origem mais próxima de cada nó, -1 se
+     * inalcançável. Só disponível após compute multi-origem.
+     */
+    public int[] getNearestSource() {
+        if (ctx == null || ctx.origin == null) {
+            throw new IllegalStateException("Rótulos só existem após compute(graph, sources, offsets)");
+        }
+        return ctx.origin;
+    }
+
     public List<Integer> getPath(int targetNode) {
-        // ... (Mesma implementação anterior)
-        List<Integer> path = new ArrayList<>();
+        IntArrayList path = new IntArrayList();
+        getPath(targetNode, path);
+        return new ArrayList<>(path);
+    }
+
+    /**
+     * Caminho até targetNode escrito em out (limpo antes), sem boxing: sobe
+     * pelos pais e inverte no próprio buffer. Devolve o tamanho.
+     */
+    public int getPath(int targetNode, IntArrayList out) {
+        out.clear();
         int curr = targetNode;
-        int safetyCount = 0;
         int maxSteps = ctx.n + 1000; 
-        while (curr != -1) {
-            path.add(curr);
+        while (curr != -1 && out.size() <= maxSteps) {
+            out.add(curr);
             curr = ctx.parent[curr];
-            safetyCount++;
-            if (safetyCount > maxSteps) break;
         }
-        Collections.reverse(path);
-        return path;
+
+        int[] a = out.elements();
+        for (int i = 0, j = out.size() - 1; i < j; i++, j--) {
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+        return out.size();
     }
 
     private BmsspResult bmssp(int level, double B, IntSet S) {
         calls++;
+        ctx.counters.recursionCalls++;
+        ctx.counters.maxDepth = Math.max(ctx.counters.maxDepth, ctx.getMaxLevel() - level + 1);
         if (level == 0) return algo2.execute(B, S);
 
+        DuanEvents.Bmssp event = new DuanEvents.Bmssp();
+        event.begin();
+        int pulls = 0;
+
         long t0 = System.nanoTime();
         PivotsResult pivots = algo1.execute(B, S);
         timePivots += (System.nanoTime() - t0);
@@ -81,6 +179,7 @@ public class DuanSolver {
         while(pIterator.hasNext()) {
             int p = pIterator.nextInt();
             D.insert(p, ctx.dist[p]);
+            ctx.counters.heapPushes++;
         }
 
         double B_prime_prev; 
@@ -95,7 +194,10 @@ public class DuanSolver {
              IntIterator sIt = S.iterator();
              while(sIt.hasNext()) {
                  int s = sIt.nextInt();
-                 if (!P.contains(s)) D.insert(s, ctx.dist[s]);
+                 if (!P.contains(s)) {
+                     D.insert(s, ctx.dist[s]);
+                     ctx.counters.heapPushes++;
+                 }
              }
         } else {
              double minP = DuanContext.INF;
@@ -110,8 +212,11 @@ public class DuanSolver {
         while (!D.isEmpty() && U.size() < limitSize) {
             
             t0 = System.nanoTime();
+            ctx.counters.workspace(D.size());
             DuanHeap.PullResult pullRes = D.pull();
             timePull += (System.nanoTime() - t0);
+            pulls++;
+            ctx.counters.heapPops += pullRes.items.size();
             
             double B_i = pullRes.newBound;
             
@@ -139,6 +244,7 @@ public class DuanSolver {
                     // Se não foi finalizado e é promissor, volta pro Heap
                     if (!U.contains(node) && ctx.dist[node] < B) {
                         D.insert(node, ctx.dist[node]);
+                        ctx.counters.heapPushes++;
                     }
                 }
             }
@@ -154,15 +260,16 @@ public class DuanSolver {
                 for (Edge edge : edges) {
                     int v = edge.target;
                     double newW = ctx.dist[u] + edge.weight;
+                    ctx.counters.relaxations++;
 
                     if (newW <= ctx.dist[v]) {
-                        ctx.dist[v] = newW;
-                        ctx.parent[v] = u;
+                        ctx.relax(u, v, newW);
                         
                         if (U.contains(v)) continue;
 
                         if (newW >= B_i && newW < B) {
-                            D.insert(v, newW); 
+                            D.insert(v, newW);
+                            ctx.counters.heapPushes++;
                         } else if (newW < B_i) { 
                             K.add(new HeapItem(v, newW)); 
                         }
@@ -179,7 +286,10 @@ public class DuanSolver {
                     K.add(new HeapItem(x, ctx.dist[x]));
                 }
             }
-            if (!K.isEmpty()) D.batchPrepend(K);
+            if (!K.isEmpty()) {
+                D.batchPrepend(K);
+                ctx.counters.heapPushes += K.size();
+            }
             timeBatch += (System.nanoTime() - t0);
             
             B_prime_prev = B_i_prime;
@@ -204,6 +314,18 @@ public class DuanSolver {
             if (!U.contains(w)) myFrontier.add(w);
         }
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.level = level;
+            event.sSize = S.size();
+            event.uSize = U.size();
+            event.m = M;
+            event.bound = B;
+            event.newBound = finalBound;
+            event.pulls = pulls;
+            event.commit();
+        }
+
         return new BmsspResult(finalBound, U, myFrontier);
     }
 }
\ No newline at end of file
@@ -18,6 +18,21 @@ public class FindPivotsAlgorithm {
     }
 
     public PivotsResult execute(double B, IntSet S) {
+        DuanEvents.Pivots event = new DuanEvents.Pivots();
+        event.begin();
+        PivotsResult result = findPivots(B, S);
+        event.end();
+        if (event.shouldCommit()) {
+            event.sSize = S.size();
+            event.wSize = result.W.size();
+            event.pSize = result.P.size();
+            event.bound = B;
+            event.commit();
+        }
+        return result;
+    }
+
+    private PivotsResult findPivots(double B, IntSet S) {
         // Usa IntOpenHashSet para evitar boxing de Integer
         IntSet W = new IntOpenHashSet(S);
         IntSet currentLayer = new IntOpenHashSet(S);
@@ -35,11 +50,11 @@ public class FindPivotsAlgorithm {
 
                 for (Edge edge : edges) {
                     int v = edge.target;
+                    ctx.counters.relaxations++;
                     
                     // [CORREÇÃO PAPER - Remark 3.4] (Mantida)
                     if (ctx.dist[u] + edge.weight <= ctx.dist[v]) { 
-                        ctx.dist[v] = ctx.dist[u] + edge.weight;
-                        ctx.parent[v] = u; 
+                        ctx.relax(u, v, ctx.dist[u] + edge.weight);
                         tempPred.put(v, u); 
                         
                         if (ctx.dist[v] < B) {
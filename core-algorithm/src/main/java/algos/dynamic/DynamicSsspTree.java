@@ -0,0 +1,171 @@
+package algos.dynamic;
+
+import java.util.Arrays;
+
+import graph.DynamicGraph;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+
+/**
+ * Árvore de caminhos mínimos de uma origem que se conserta sozinha quando
+ * pesos mudam (estilo Ramalingam &amp; Reps, com a árvore de pais):
+ *
+ * - Aumento numa aresta da árvore: só a subárvore abaixo dela é afetada.
+ *   Esses nós perdem o rótulo e recebem o melhor candidato vindo de um
+ *   vizinho de entrada não afetado.
+ * - Redução: se melhora o destino, ele entra na fila.
+ *
+ * Um Dijkstra a partir dessas sementes corrige o resto; aumentos em arestas
+ * fora da árvore não custam nada. Várias mudanças são tratadas num único
+ * reparo (update recebe o lote).
+ *
+ * Distâncias em int (como no CSR); Integer.MAX_VALUE = inalcançável. Por
+ * nó ficam só dist e a aresta do pai (8 bytes), para caber muitas árvores no
+ * SptCache; os nós afetados e a fila de um reparo só existem durante ele.
+ */
+public class DynamicSsspTree {
+
+    public static final int INF = Integer.MAX_VALUE;
+
+    private final DynamicGraph graph;
+    private final int source;
+    private final int[] dist;
+    private final int[] parentEdge; // aresta usada para chegar ao nó (-1 na origem / inalcançável)
+
+    // Nós afetados no reparo atual
+    private final IntOpenHashSet affectedSet = new IntOpenHashSet();
+
+    private final LongHeapPriorityQueue heap = new LongHeapPriorityQueue();
+
+    public DynamicSsspTree(DynamicGraph graph, int source) {
+        this.graph = graph;
+        this.source = source;
+        int size = graph.getNodeCount() + 2;
+        this.dist = new int[size];
+        this.parentEdge = new int[size];
+        Arrays.fill(dist, INF);
+        Arrays.fill(parentEdge, -1);
+
+        dist[source] = 0;
+        heap.enqueue(source);
+        propagate();
+    }
+
+    /**
+     * Repara a árvore depois que as arestas edges[i] mudaram de oldWeights[i]
+     * para o peso atual no grafo. Devolve quantos nós foram finalizados de
+     * novo (o trabalho do reparo, comparável a n de uma recomputação).
+     */
+    public synchronized int update(int[] edges, int[] oldWeights) {
+        affectedSet.clear();
+        IntArrayList affected = new IntArrayList();
+
+        // 1. Aumentos em arestas da árvore: marca as subárvores
+        for (int i = 0; i < edges.length; i++) {
+            int e = edges[i];
+            int v = graph.head(e);
+            if (graph.weight(e) > oldWeights[i] && parentEdge[v] == e && !affectedSet.contains(v)) {
+                collectSubtree(v, affected);
+            }
+        }
+
+        // 2. Afetados perdem o rótulo e pegam o melhor vizinho de entrada não afetado
+        for (int i = 0; i < affected.size(); i++) {
+            int v = affected.getInt(i);
+            dist[v] = INF;
+            parentEdge[v] = -1;
+        }
+        for (int i = 0; i < affected.size(); i++) {
+            int v = affected.getInt(i);
+            for (int j = graph.inFirst(v); j < graph.inEnd(v); j++) {
+                int e = graph.inEdge(j);
+                int u = graph.tail(e);
+                if (!affectedSet.contains(u)) relax(u, e);
+            }
+        }
+
+        // 3. Reduções: o destino melhora direto
+        for (int i = 0; i < edges.length; i++) {
+            int e = edges[i];
+            if (graph.weight(e) < oldWeights[i]) relax(graph.tail(e), e);
+        }
+
+        // 4. Dijkstra a partir das sementes
+        int settled = propagate();
+        affectedSet.clear();
+        affectedSet.trim();
+        return settled;
+    }
+
+    private void collectSubtree(int root, IntArrayList affected) {
+        int start = affected.size();
+        affectedSet.add(root);
+        affected.add(root);
+        for (int i = start; i < affected.size(); i++) {
+            int u = affected.getInt(i);
+            for (int e = graph.first(u); e < graph.end(u); e++) {
+                int v = graph.head(e);
+                if (parentEdge[v] == e && affectedSet.add(v)) {
+                    affected.add(v);
+                }
+            }
+        }
+    }
+
+    private boolean relax(int u, int e) {
+        if (dist[u] == INF) return false;
+        long nd = (long) dist[u] + graph.weight(e);
+        int v = graph.head(e);
+        if (nd >= dist[v]) return false;
+        dist[v] = (int) nd;
+        parentEdge[v] = e;
+        heap.enqueue((nd << 32) | v);
+        return true;
+    }
+
+    /** Dijkstra com chaves empacotadas (dist << 32 | nó) a partir do que está na fila. */
+    private int propagate() {
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            long item = heap.dequeueLong();
+            int d = (int) (item >>> 32);
+            int u = (int) item;
+            if (d > dist[u]) continue;
+            settled++;
+            for (int e = graph.first(u); e < graph.end(u); e++) {
+                relax(u, e);
+            }
+        }
+        // A fila cresce até o tamanho do reparo (ou de n na construção): entre reparos
+        // a árvore guarda só dist e pais, como conta o getMemoryBytes
+        heap.trim();
+        return settled;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /** Distância até target (Double.MAX_VALUE se inalcançável, como nos solvers). */
+    public synchronized double distance(int target) {
+        return dist[target] == INF ? Double.MAX_VALUE : dist[target];
+    }
+
+    /** Caminho source ... target pelos pais, vazio se inalcançável. */
+    public synchronized int[] path(int target) {
+        if (dist[target] == INF) return new int[0];
+        IntArrayList path = new IntArrayList();
+        for (int v = target; v != source; v = graph.tail(parentEdge[v])) path.add(v);
+        path.add(source);
+
+        int[] result = new int[path.size()];
+        for (int i = 0; i < result.length; i++) result[i] = path.getInt(result.length - 1 - i);
+        return result;
+    }
+
+    /** Bytes dos arrays da árvore (dist e pais); fila e afetados ficam vazios entre reparos. */
+    public long getMemoryBytes() {
+        return 2L * 4 * dist.length;
+    }
+}
@@ -0,0 +1,133 @@
+package algos.dynamic;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+/**
+ * Cache de árvores de caminhos mínimos completas por origem (depósitos,
+ * centros de distribuição). Com a árvore pronta, qualquer rota daquela origem
+ * é só subir pelos pais.
+ *
+ * - Admissão por frequência: a origem só ganha árvore depois de admitAfter
+ *   consultas (construir a árvore custa um SSSP inteiro, não vale para
+ *   origens vistas uma vez só).
+ * - Despejo LRU pelo orçamento em bytes (DynamicSsspTree.getMemoryBytes).
+ * - Contadores de acertos, faltas, árvores criadas e despejadas.
+ *
+ * Não constrói as árvores: quem usa chama get, isHot e put (assim a
+ * construção pode rodar sob outro lock, ex: o do trânsito).
+ */
+public class SptCache {
+
+    private static final int MAX_TRACKED_SOURCES = 100_000;
+
+    private final long maxBytes;
+    private final int admitAfter;
+
+    private final LinkedHashMap<Integer, DynamicSsspTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private final Int2IntOpenHashMap sourceHits = new Int2IntOpenHashMap();
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long builds;
+    private long evictions;
+
+    public SptCache(long maxBytes, int admitAfter) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("Orçamento deve ser positivo: " + maxBytes);
+        this.maxBytes = maxBytes;
+        this.admitAfter = Math.max(1, admitAfter);
+    }
+
+    /** Árvore da origem (e conta acerto), ou null (conta falta e a consulta). */
+    public synchronized DynamicSsspTree get(int source) {
+        DynamicSsspTree tree = trees.get(source);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+        misses++;
+        if (sourceHits.size() > MAX_TRACKED_SOURCES) sourceHits.clear();
+        sourceHits.addTo(source, 1);
+        return null;
+    }
+
+    /** A origem já foi consultada vezes suficientes para merecer árvore? */
+    public synchronized boolean isHot(int source) {
+        return sourceHits.get(source) >= admitAfter;
+    }
+
+    /** Árvore da origem sem mexer nos contadores (ex: conferir de novo antes de construir). */
+    public synchronized DynamicSsspTree peek(int source) {
+        return trees.get(source);
+    }
+
+    /**
+     * Guarda a árvore e despeja as menos usadas até caber no orçamento.
+     * Devolve false se a árvore sozinha já passa do orçamento (não entra).
+     */
+    public synchronized boolean put(int source, DynamicSsspTree tree) {
+        long size = tree.getMemoryBytes();
+        if (size > maxBytes) return false;
+
+        DynamicSsspTree old = trees.put(source, tree);
+        if (old != null) bytes -= old.getMemoryBytes();
+        bytes += size;
+        builds++;
+        sourceHits.remove(source);
+
+        Iterator<Map.Entry<Integer, DynamicSsspTree>> it = trees.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Integer, DynamicSsspTree> eldest = it.next();
+            if (eldest.getKey() == source) continue;
+            bytes -= eldest.getValue().getMemoryBytes();
+            it.remove();
+            evictions++;
+        }
+        return true;
+    }
+
+    /** Cópia das árvores guardadas (para o reparo do trânsito). */
+    public synchronized List<DynamicSsspTree> trees() {
+        return new ArrayList<>(trees.values());
+    }
+
+    public synchronized void clear() {
+        trees.clear();
+        sourceHits.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getBuilds() {
+        return builds;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+}
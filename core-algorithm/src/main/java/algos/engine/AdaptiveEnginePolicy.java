@@ -0,0 +1,101 @@
+package algos.engine;
+
+import graph.Graph;
+import graph.Node;
+
+/**
+ * Escolha automática de motor ("engine=auto").
+ *
+ * Ponto-a-ponto: o Dijkstra com parada no destino finaliza mais ou menos os
+ * nós dentro do círculo de raio dist(s, t), ou seja densidade * pi * r^2. Se
+ * essa estimativa fica abaixo de localSearchLimit, ele ganha de qualquer
+ * técnica com pré-processamento (sem custo fixo); acima disso vale a
+ * primeira disponível entre CH, ALT, Dijkstra e Duan.
+ *
+ * Um-para-todos: Delta-Stepping quando há mais de um núcleo, senão Dijkstra.
+ */
+public class AdaptiveEnginePolicy {
+
+    public static final String AUTO = "auto";
+    public static final int DEFAULT_LOCAL_SEARCH_LIMIT = 5000;
+
+    private static final String[] ROUTE_PREFERENCE = {
+            ChEngine.NAME, AltEngine.NAME, DijkstraEngine.NAME, DuanEngine.NAME };
+
+    private final EngineRegistry registry;
+    private final Graph graph;
+    private final int localSearchLimit;
+    private final double density; // nós por grau² (longitude já corrigida pela latitude)
+
+    public AdaptiveEnginePolicy(EngineRegistry registry, Graph graph) {
+        this(registry, graph, DEFAULT_LOCAL_SEARCH_LIMIT);
+    }
+
+    public AdaptiveEnginePolicy(EngineRegistry registry, Graph graph, int localSearchLimit) {
+        this.registry = registry;
+        this.graph = graph;
+        this.localSearchLimit = localSearchLimit;
+        this.density = computeDensity(graph);
+    }
+
+    /**
+     * Motor pedido pelo nome, ou escolhido pela política se name for null ou
+     * "auto". IllegalArgumentException se o nome não existe ou o motor não
+     * monta caminhos (ex: delta-stepping, só um-para-todos).
+     */
+    public ShortestPathEngine forRoute(String name, int source, int target) {
+        if (name != null && !name.equals(AUTO)) {
+            ShortestPathEngine engine = registry.get(name);
+            if (!engine.supportsPath())
+                throw new IllegalArgumentException("Engine " + name + " não calcula rotas ponto-a-ponto");
+            return engine;
+        }
+
+        ShortestPathEngine dijkstra = registry.find(DijkstraEngine.NAME);
+        if (dijkstra != null && estimateSettled(source, target) <= localSearchLimit) {
+            return dijkstra;
+        }
+        for (String candidate : ROUTE_PREFERENCE) {
+            ShortestPathEngine engine = registry.find(candidate);
+            if (engine != null && engine.supportsPath()) {
+                return engine;
+            }
+        }
+        throw new IllegalStateException("Nenhuma engine ponto-a-ponto registrada");
+    }
+
+    public ShortestPathEngine forOneToAll(String name) {
+        if (name != null && !name.equals(AUTO)) return registry.get(name);
+
+        ShortestPathEngine engine = null;
+        if (Runtime.getRuntime().availableProcessors() > 1) engine = registry.find(DeltaSteppingEngine.NAME);
+        if (engine == null) engine = registry.find(DijkstraEngine.NAME);
+        return engine != null ? engine : registry.get(DuanEngine.NAME);
+    }
+
+    /** Nós que um Dijkstra de s até t deve finalizar (círculo de raio |s - t|). */
+    public double estimateSettled(int source, int target) {
+        Node s = graph.getNodes().get(source);
+        Node t = graph.getNodes().get(target);
+        if (s == null || t == null || density == 0) return Double.MAX_VALUE;
+
+        double cos = Math.cos(Math.toRadians((s.latitude + t.latitude) / 2));
+        double dx = (s.longitude - t.longitude) * cos;
+        double dy = s.latitude - t.latitude;
+        return density * Math.PI * (dx * dx + dy * dy);
+    }
+
+    private static double computeDensity(Graph graph) {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (Node node : graph.getNodes().values()) {
+            minLat = Math.min(minLat, node.latitude);
+            maxLat = Math.max(maxLat, node.latitude);
+            minLon = Math.min(minLon, node.longitude);
+            maxLon = Math.max(maxLon, node.longitude);
+        }
+        double cos = Math.cos(Math.toRadians((minLat + maxLat) / 2));
+        double area = (maxLat - minLat) * (maxLon - minLon) * cos;
+        return area > 0 ? graph.getNodeCount() / area : 0;
+    }
+}
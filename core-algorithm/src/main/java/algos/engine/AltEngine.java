@@ -0,0 +1,62 @@
+package algos.engine;
+
+import algos.WorkCounters;
+import algos.alt.AltSolver;
+import algos.alt.LandmarkTable;
+import graph.Graph;
+
+/** A* com landmarks (ALT): ponto-a-ponto apenas. */
+public class AltEngine implements ShortestPathEngine {
+
+    public static final String NAME = "alt";
+
+    private final Graph graph;
+    private final LandmarkTable landmarks;
+
+    public AltEngine(Graph graph, LandmarkTable landmarks) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(int source, int target) {
+        return distance(source, target, new WorkCounters());
+    }
+
+    @Override
+    public double distance(int source, int target, WorkCounters counters) {
+        return new AltSolver(landmarks, counters).compute(graph, source, target);
+    }
+
+    @Override
+    public PathResult route(int source, int target) {
+        return route(source, target, new WorkCounters());
+    }
+
+    @Override
+    public PathResult route(int source, int target, WorkCounters counters) {
+        AltSolver solver = new AltSolver(landmarks, counters);
+        double distance = solver.compute(graph, source, target);
+        return PathResult.of(distance, solver.getPath(target));
+    }
+
+    @Override
+    public double[] oneToAll(int source) {
+        throw new UnsupportedOperationException("alt é só ponto-a-ponto");
+    }
+
+    @Override
+    public boolean supportsPath() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsOneToAll() {
+        return false;
+    }
+}
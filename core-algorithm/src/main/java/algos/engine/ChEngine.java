@@ -0,0 +1,70 @@
+package algos.engine;
+
+import algos.WorkCounters;
+import algos.ch.ChQuery;
+import algos.ch.ContractionHierarchy;
+import structures.WorkspacePool;
+
+/** Contraction Hierarchies: ponto-a-ponto, com uma ChQuery (arrays de tamanho n) por consulta simultânea. */
+public class ChEngine implements ShortestPathEngine {
+
+    public static final String NAME = "ch";
+
+    private final WorkspacePool<ChQuery> queries;
+
+    public ChEngine(ContractionHierarchy hierarchy) {
+        this.queries = new WorkspacePool<>(() -> new ChQuery(hierarchy));
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(int source, int target) {
+        return distance(source, target, new WorkCounters());
+    }
+
+    @Override
+    public double distance(int source, int target, WorkCounters counters) {
+        ChQuery query = queries.borrow();
+        double distance = query.compute(source, target, counters);
+        queries.giveBack(query);
+        return distance;
+    }
+
+    @Override
+    public PathResult route(int source, int target) {
+        return route(source, target, new WorkCounters());
+    }
+
+    @Override
+    public PathResult route(int source, int target, WorkCounters counters) {
+        ChQuery query = queries.borrow();
+        double distance = query.compute(source, target, counters);
+        PathResult result = new PathResult(distance, query.getPath()); // Atalhos já desempacotados
+        queries.giveBack(query);
+        return result;
+    }
+
+    @Override
+    public double[] oneToAll(int source) {
+        throw new UnsupportedOperationException("ch é só ponto-a-ponto");
+    }
+
+    /** Solta as ChQuery livres (e a referência delas à CH): a versão do grafo saiu de uso. */
+    public void clearWorkspaces() {
+        queries.clear();
+    }
+
+    @Override
+    public boolean supportsPath() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsOneToAll() {
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package algos.engine;
+
+import algos.DeltaSteppingSolver;
+import algos.WorkCounters;
+import graph.Graph;
+
+/**
+ * Delta-Stepping paralelo. Só distâncias (não guarda pais), e o solver
+ * mantém estado entre fases, então as consultas são serializadas.
+ */
+public class DeltaSteppingEngine implements ShortestPathEngine {
+
+    public static final String NAME = "delta-stepping";
+
+    private final Graph graph;
+    private final DeltaSteppingSolver solver;
+
+    public DeltaSteppingEngine(Graph graph, DeltaSteppingSolver solver) {
+        this.graph = graph;
+        this.solver = solver;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(int source, int target) {
+        return oneToAll(source)[target];
+    }
+
+    @Override
+    public double distance(int source, int target, WorkCounters counters) {
+        return oneToAll(source, counters)[target];
+    }
+
+    @Override
+    public PathResult route(int source, int target) {
+        throw new UnsupportedOperationException("delta-stepping não reconstrói caminhos");
+    }
+
+    @Override
+    public double[] oneToAll(int source) {
+        return oneToAll(source, new WorkCounters());
+    }
+
+    @Override
+    public synchronized double[] oneToAll(int source, WorkCounters counters) {
+        return solver.compute(graph, source, counters);
+    }
+
+    @Override
+    public boolean supportsPath() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsOneToAll() {
+        return true;
+    }
+}
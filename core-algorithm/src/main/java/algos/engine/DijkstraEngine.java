@@ -0,0 +1,65 @@
+package algos.engine;
+
+import algos.DijkstraSolver;
+import algos.StandardDijkstra;
+import algos.WorkCounters;
+import graph.Graph;
+
+/** Dijkstra clássico: parada no destino para distance() e route(), árvore completa para oneToAll(). */
+public class DijkstraEngine implements ShortestPathEngine {
+
+    public static final String NAME = "dijkstra";
+
+    private final Graph graph;
+
+    public DijkstraEngine(Graph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(int source, int target) {
+        return distance(source, target, new WorkCounters());
+    }
+
+    @Override
+    public double distance(int source, int target, WorkCounters counters) {
+        return new DijkstraSolver(counters).compute(graph, source, target);
+    }
+
+    @Override
+    public PathResult route(int source, int target) {
+        return route(source, target, new WorkCounters());
+    }
+
+    @Override
+    public PathResult route(int source, int target, WorkCounters counters) {
+        DijkstraSolver solver = new DijkstraSolver(counters);
+        double distance = solver.compute(graph, source, target);
+        return PathResult.of(distance, solver.getPath(target));
+    }
+
+    @Override
+    public double[] oneToAll(int source) {
+        return oneToAll(source, new WorkCounters());
+    }
+
+    @Override
+    public double[] oneToAll(int source, WorkCounters counters) {
+        return new StandardDijkstra(counters).compute(graph, source);
+    }
+
+    @Override
+    public boolean supportsPath() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsOneToAll() {
+        return true;
+    }
+}
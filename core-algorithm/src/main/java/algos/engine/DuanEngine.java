@@ -0,0 +1,72 @@
+package algos.engine;
+
+import algos.WorkCounters;
+import algos.duan.DuanSolver;
+import graph.Graph;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Duan et al. (bmssp) sobre o grafo de grau constante. Um-para-todos por
+ * natureza: distance() e route() calculam a árvore inteira e leem o destino.
+ */
+public class DuanEngine implements ShortestPathEngine {
+
+    public static final String NAME = "duan";
+
+    private final Graph graph;
+
+    public DuanEngine(Graph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(int source, int target) {
+        return oneToAll(source)[target];
+    }
+
+    @Override
+    public double distance(int source, int target, WorkCounters counters) {
+        return oneToAll(source, counters)[target];
+    }
+
+    @Override
+    public PathResult route(int source, int target) {
+        return route(source, target, new WorkCounters());
+    }
+
+    @Override
+    public PathResult route(int source, int target, WorkCounters counters) {
+        DuanSolver solver = new DuanSolver(counters); // Não é thread-safe: um por consulta
+        double[] dist = solver.compute(graph, source);
+        if (dist[target] == Double.MAX_VALUE) return new PathResult(dist[target], new int[0]);
+
+        IntArrayList path = new IntArrayList();
+        solver.getPath(target, path);
+        return new PathResult(dist[target], path.toIntArray());
+    }
+
+    @Override
+    public double[] oneToAll(int source) {
+        return oneToAll(source, new WorkCounters());
+    }
+
+    @Override
+    public double[] oneToAll(int source, WorkCounters counters) {
+        return new DuanSolver(counters).compute(graph, source);
+    }
+
+    @Override
+    public boolean supportsPath() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsOneToAll() {
+        return true;
+    }
+}
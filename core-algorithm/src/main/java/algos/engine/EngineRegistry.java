@@ -0,0 +1,45 @@
+package algos.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Motores disponíveis, por nome (na ordem de registro). */
+public class EngineRegistry {
+
+    private final Map<String, ShortestPathEngine> engines = new LinkedHashMap<>();
+
+    public synchronized void register(ShortestPathEngine engine) {
+        engines.put(engine.getName(), engine);
+    }
+
+    /** Tira o motor do registro (ex: pré-processamento invalidado por mudança de pesos). */
+    public synchronized void unregister(String name) {
+        engines.remove(name);
+    }
+
+    public synchronized boolean contains(String name) {
+        return engines.containsKey(name);
+    }
+
+    /**
+     * Motor pelo nome, ou null se não está registrado. Numa leitura só: o
+     * trânsito pode tirar CH e ALT entre um contains e um get.
+     */
+    public synchronized ShortestPathEngine find(String name) {
+        return engines.get(name);
+    }
+
+    public synchronized ShortestPathEngine get(String name) {
+        ShortestPathEngine engine = engines.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine desconhecida: " + name + " (disponíveis: " + engines.keySet() + ")");
+        }
+        return engine;
+    }
+
+    public synchronized List<String> getNames() {
+        return new ArrayList<>(engines.keySet());
+    }
+}
@@ -0,0 +1,22 @@
+package algos.engine;
+
+import java.util.List;
+
+/** Resultado de uma consulta ponto-a-ponto: distância e nós do caminho (vazio se inalcançável). */
+public class PathResult {
+
+    public final double distance;
+    public final int[] path;
+
+    public PathResult(double distance, int[] path) {
+        this.distance = distance;
+        this.path = path;
+    }
+
+    static PathResult of(double distance, List<Integer> path) {
+        if (distance == Double.MAX_VALUE) return new PathResult(distance, new int[0]);
+        int[] nodes = new int[path.size()];
+        for (int i = 0; i < nodes.length; i++) nodes[i] = path.get(i);
+        return new PathResult(distance, nodes);
+    }
+}
@@ -0,0 +1,46 @@
+package algos.engine;
+
+import algos.WorkCounters;
+
+/**
+ * Interface comum dos motores de caminho mínimo (Dijkstra, Duan, ALT, CH,
+ * Delta-Stepping). Cada motor já nasce ligado ao grafo (e ao pré-processamento
+ * que usa), então as consultas recebem só IDs de nós. Implementações devem
+ * aceitar consultas simultâneas.
+ *
+ * Distâncias seguem a convenção dos solvers: Double.MAX_VALUE = inalcançável.
+ */
+public interface ShortestPathEngine {
+
+    /** Nome usado no registro e no parâmetro "engine" da API. */
+    String getName();
+
+    /** Distância s -> t sem montar o caminho. */
+    double distance(int source, int target);
+
+    /** Distância e caminho s -> t. Lança UnsupportedOperationException se !supportsPath(). */
+    PathResult route(int source, int target);
+
+    /** Distâncias da origem para todos (índice = ID do nó). Lança UnsupportedOperationException se !supportsOneToAll(). */
+    double[] oneToAll(int source);
+
+    /**
+     * Variantes que somam o trabalho da consulta (relaxamentos, fila, ...) em
+     * counters. Motores sem contadores só calculam e deixam counters como está.
+     */
+    default double distance(int source, int target, WorkCounters counters) {
+        return distance(source, target);
+    }
+
+    default PathResult route(int source, int target, WorkCounters counters) {
+        return route(source, target);
+    }
+
+    default double[] oneToAll(int source, WorkCounters counters) {
+        return oneToAll(source);
+    }
+
+    boolean supportsPath();
+
+    boolean supportsOneToAll();
+}
@@ -0,0 +1,287 @@
+package gen;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import io.GraphSnapshot;
+
+/**
+ * Grafos sintéticos para estudos de escala (de 10^4 a 10^8 nós, bem além dos
+ * arquivos DIMACS reais), em três topologias:
+ *
+ * - grid: malha viária (grade com vias arteriais e ruas locais faltando);
+ * - geometric: grafo geométrico aleatório (pontos no plano ligados a todos
+ *   os vizinhos dentro de um raio), parecido com redes de sensores/estradas
+ *   sem hierarquia;
+ * - powerLaw: graus em lei de potência (modelo de Chung-Lu), com hubs, bem
+ *   diferente de malha viária.
+ *
+ * Sai direto no formato primitivo (GraphSnapshot: CSR + coordenadas, IDs 1..n),
+ * sem passar pelo Graph de objetos; toGraph() converte para os solvers e
+ * save() grava o snapshot binário (que o GraphService carrega como região).
+ *
+ * Tudo é derivado da seed por hash (posição, presença e peso de cada aresta
+ * dependem só da seed e do índice), então a geração roda em paralelo e o
+ * resultado é o mesmo com qualquer número de threads.
+ */
+public class GraphGenerator {
+
+    private static final int MAX_EDGES = Integer.MAX_VALUE - 8; // Maior array Java
+    private static final long STEP = 1000;                      // Micrograus entre vizinhos da grade (~100 m)
+    private static final long BASE_LAT = 40_000_000L;            // Canto da área gerada (micrograus)
+    private static final long BASE_LON = -74_000_000L;
+
+    // Sais do hash: cada uso da seed tem o seu, para não correlacionar
+    private static final long SALT_PRESENT = 1;
+    private static final long SALT_WEIGHT = 2;
+    private static final long SALT_X = 3;
+    private static final long SALT_Y = 4;
+    private static final long SALT_SOURCE = 5;
+    private static final long SALT_TARGET = 6;
+
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    public GraphGenerator(long seed) {
+        this(seed, ForkJoinPool.commonPool());
+    }
+
+    public GraphGenerator(long seed, ForkJoinPool pool) {
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    /**
+     * Grade width x height parecida com malha viária: vias arteriais a cada 8
+     * linhas/colunas (sempre presentes, pesos 20..39), ruas locais com 75% de
+     * chance (pesos 100..199), mão dupla.
+     */
+    public GraphSnapshot grid(int width, int height) {
+        long nodes = (long) width * height;
+        if (width < 1 || height < 1 || nodes > MAX_EDGES / 4)
+            throw new IllegalArgumentException("Grade inválida: " + width + " x " + height);
+        int n = (int) nodes;
+        long[] rawLat = new long[n + 1];
+        long[] rawLon = new long[n + 1];
+        run(() -> IntStream.rangeClosed(1, n).parallel().forEach(u -> {
+            rawLat[u] = BASE_LAT + (u - 1) / width * STEP;
+            rawLon[u] = BASE_LON + (u - 1) % width * STEP;
+        }));
+
+        // Aresta horizontal (x, y) -> (x + 1, y) tem índice y * width + x; a vertical, n + y * width + x
+        return build(n, rawLat, rawLon, (u, sink) -> {
+            int x = (u - 1) % width;
+            int y = (u - 1) / width;
+            long right = (long) y * width + x;
+            long down = n + right;
+            if (x + 1 < width && gridEdge(right, y % 8 == 0))
+                sink.edge(u + 1, gridWeight(right, y % 8 == 0));
+            if (x > 0 && gridEdge(right - 1, y % 8 == 0))
+                sink.edge(u - 1, gridWeight(right - 1, y % 8 == 0));
+            if (y + 1 < height && gridEdge(down, x % 8 == 0))
+                sink.edge(u + width, gridWeight(down, x % 8 == 0));
+            if (y > 0 && gridEdge(down - width, x % 8 == 0))
+                sink.edge(u - width, gridWeight(down - width, x % 8 == 0));
+        });
+    }
+
+    private boolean gridEdge(long edge, boolean arterial) {
+        return arterial || unit(SALT_PRESENT, edge) < 0.75;
+    }
+
+    private int gridWeight(long edge, boolean arterial) {
+        int base = arterial ? 20 : 100;
+        return base + (int) (unit(SALT_WEIGHT, edge) * base);
+    }
+
+    /**
+     * n pontos uniformes num quadrado (~STEP entre vizinhos, como a grade),
+     * cada um ligado nos dois sentidos a todos a menos de um raio escolhido
+     * para dar avgDegree vizinhos em média; peso = distância / 10. Os IDs
+     * seguem as células do plano (nós próximos têm IDs próximos, como nos
+     * arquivos reais). Com avgDegree baixo (< ~5) o grafo se parte em muitas
+     * componentes.
+     */
+    public GraphSnapshot geometric(int n, double avgDegree) {
+        if (n < 1 || avgDegree <= 0 || n * avgDegree > MAX_EDGES)
+            throw new IllegalArgumentException("Parâmetros inválidos: n=" + n + ", grau médio " + avgDegree);
+        long side = (long) Math.ceil(Math.sqrt(n)) * STEP;
+        double radius = side * Math.sqrt(avgDegree / (Math.PI * n));
+        long radius2 = (long) (radius * radius);
+        int cells = (int) Math.max(1, Math.min(side / Math.max(1, radius), Math.sqrt(n))); // Células por lado (largura >= raio)
+
+        // Pontos por índice de geração; depois ordenados por célula (counting sort estável)
+        int[] cellOf = new int[n];
+        run(() -> IntStream.range(0, n).parallel().forEach(i -> {
+            long x = (long) (unit(SALT_X, i) * side);
+            long y = (long) (unit(SALT_Y, i) * side);
+            cellOf[i] = cell(y, side, cells) * cells + cell(x, side, cells);
+        }));
+        int[] cellStart = new int[cells * cells + 1]; // Nós da célula c: IDs (cellStart[c], cellStart[c + 1]]
+        for (int i = 0; i < n; i++)
+            cellStart[cellOf[i] + 1]++;
+        for (int c = 0; c < cells * cells; c++)
+            cellStart[c + 1] += cellStart[c];
+        int[] next = cellStart.clone();
+        long[] rawLat = new long[n + 1];
+        long[] rawLon = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            int id = ++next[cellOf[i]];
+            rawLat[id] = BASE_LAT + (long) (unit(SALT_Y, i) * side);
+            rawLon[id] = BASE_LON + (long) (unit(SALT_X, i) * side);
+        }
+
+        return build(n, rawLat, rawLon, (u, sink) -> {
+            int cx = cell(rawLon[u] - BASE_LON, side, cells);
+            int cy = cell(rawLat[u] - BASE_LAT, side, cells);
+            for (int y = Math.max(0, cy - 1); y <= Math.min(cells - 1, cy + 1); y++) {
+                for (int x = Math.max(0, cx - 1); x <= Math.min(cells - 1, cx + 1); x++) {
+                    int c = y * cells + x;
+                    for (int v = cellStart[c] + 1; v <= cellStart[c + 1]; v++) {
+                        long dLat = rawLat[v] - rawLat[u];
+                        long dLon = rawLon[v] - rawLon[u];
+                        long d2 = dLat * dLat + dLon * dLon;
+                        if (v != u && d2 <= radius2)
+                            sink.edge(v, (int) Math.max(1, Math.round(Math.sqrt(d2) / 10)));
+                    }
+                }
+            }
+        });
+    }
+
+    private static int cell(long coordinate, long side, int cells) {
+        return (int) Math.min(cells - 1, coordinate * cells / side);
+    }
+
+    /**
+     * Grafo de Chung-Lu: o nó i tem peso (i + 1)^(-1 / (exponent - 1)) e cada
+     * uma das n * avgDegree / 2 arestas liga dois nós sorteados com
+     * probabilidade proporcional ao peso, então os graus seguem uma lei de
+     * potência com esse expoente (2 < exponent < 3 é o típico de redes
+     * sociais/web). Mão dupla, pesos uniformes 1..100, laços descartados; nós
+     * de peso baixo podem ficar isolados.
+     */
+    public GraphSnapshot powerLaw(int n, double avgDegree, double exponent) {
+        long edges = Math.round(n * avgDegree / 2);
+        if (n < 2 || avgDegree <= 0 || exponent <= 1 || 2 * edges > MAX_EDGES)
+            throw new IllegalArgumentException("Parâmetros inválidos: n=" + n + ", grau médio " + avgDegree
+                    + ", expoente " + exponent);
+        int m = (int) edges;
+
+        // Peso acumulado, para sortear nós por busca binária
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += Math.pow(i + 1, -1 / (exponent - 1));
+            cumulative[i] = total;
+        }
+        final double sum = total;
+
+        int[] source = new int[m];
+        int[] target = new int[m];
+        run(() -> IntStream.range(0, m).parallel().forEach(k -> {
+            source[k] = 1 + sample(cumulative, unit(SALT_SOURCE, k) * sum);
+            target[k] = 1 + sample(cumulative, unit(SALT_TARGET, k) * sum);
+        }));
+
+        long side = (long) Math.ceil(Math.sqrt(n)) * STEP;
+        long[] rawLat = new long[n + 1];
+        long[] rawLon = new long[n + 1];
+        run(() -> IntStream.rangeClosed(1, n).parallel().forEach(u -> {
+            rawLat[u] = BASE_LAT + (long) (unit(SALT_Y, u) * side);
+            rawLon[u] = BASE_LON + (long) (unit(SALT_X, u) * side);
+        }));
+
+        // CSR a partir da lista de arestas, na ordem das arestas (determinístico)
+        int[] first = new int[n + 2];
+        for (int k = 0; k < m; k++) {
+            if (source[k] == target[k]) continue;
+            first[source[k] + 1]++;
+            first[target[k] + 1]++;
+        }
+        for (int u = 1; u <= n; u++)
+            first[u + 1] += first[u];
+        int[] next = first.clone();
+        int[] head = new int[first[n + 1]];
+        int[] weight = new int[first[n + 1]];
+        for (int k = 0; k < m; k++) {
+            int a = source[k];
+            int b = target[k];
+            if (a == b) continue;
+            int w = 1 + (int) (unit(SALT_WEIGHT, k) * 100);
+            head[next[a]] = b;
+            weight[next[a]++] = w;
+            head[next[b]] = a;
+            weight[next[b]++] = w;
+        }
+        return new GraphSnapshot(n, rawLat, rawLon, first, head, weight);
+    }
+
+    /** Menor i com cumulative[i] > value. */
+    private static int sample(double[] cumulative, double value) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > value) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+
+    /** Arestas de saída de u, sempre na mesma ordem (chamado duas vezes: contagem e preenchimento). */
+    private interface Neighbors {
+        void forEach(int u, EdgeSink sink);
+    }
+
+    private interface EdgeSink {
+        void edge(int v, int weight);
+    }
+
+    /** Monta o CSR em duas passadas paralelas por nó: graus e, depois do prefixo, as arestas. */
+    private GraphSnapshot build(int n, long[] rawLat, long[] rawLon, Neighbors neighbors) {
+        int[] first = new int[n + 2];
+        run(() -> IntStream.rangeClosed(1, n).parallel().forEach(u -> {
+            int[] degree = { 0 };
+            neighbors.forEach(u, (v, w) -> degree[0]++);
+            first[u + 1] = degree[0];
+        }));
+        for (int u = 1; u <= n; u++) {
+            long end = (long) first[u] + first[u + 1];
+            if (end > MAX_EDGES) throw new IllegalArgumentException("Grafo grande demais: mais de " + MAX_EDGES + " arestas");
+            first[u + 1] = (int) end;
+        }
+
+        int[] head = new int[first[n + 1]];
+        int[] weight = new int[first[n + 1]];
+        run(() -> IntStream.rangeClosed(1, n).parallel().forEach(u -> {
+            int[] e = { first[u] };
+            neighbors.forEach(u, (v, w) -> {
+                head[e[0]] = v;
+                weight[e[0]++] = w;
+            });
+        }));
+        return new GraphSnapshot(n, rawLat, rawLon, first, head, weight);
+    }
+
+    /** Número em [0, 1) que depende só da seed, do sal e do índice (SplitMix64). */
+    private double unit(long salt, long index) {
+        long z = seed + salt * 0xD1B54A32D192ED03L + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private void run(Runnable task) {
+        try {
+            pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração do grafo interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na geração do grafo", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package geo;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Polígonos em volta de um conjunto de pontos (ex: nós de uma isócrona).
+ * Os pontos vêm em dois arrays x/y (longitude/latitude) e o resultado são os
+ * índices dos vértices do polígono, em ordem anti-horária.
+ */
+public class Hull {
+
+    /** Fecho convexo pelo monotone chain de Andrew, O(n log n). */
+    public static int[] convex(double[] x, double[] y) {
+        int n = x.length;
+        if (n < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> x[a] != x[b] ? Double.compare(x[a], x[b]) : Double.compare(y[a], y[b]));
+
+        int[] hull = new int[2 * n];
+        int k = 0;
+        // Parte de baixo
+        for (int i = 0; i < n; i++) {
+            int p = order[i];
+            while (k >= 2 && cross(x, y, hull[k - 2], hull[k - 1], p) <= 0) k--;
+            hull[k++] = p;
+        }
+        // Parte de cima
+        for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+            int p = order[i];
+            while (k >= lower && cross(x, y, hull[k - 2], hull[k - 1], p) <= 0) k--;
+            hull[k++] = p;
+        }
+        return Arrays.copyOf(hull, k - 1); // o último repete o primeiro
+    }
+
+    /**
+     * Fecho côncavo (Park &amp; Oh, 2012): parte do convexo e vai "cavando" cada
+     * aresta longa, trocando (a, b) por (a, p, b) com o ponto interno p mais
+     * próximo dela, enquanto comprimento(a, b) / distância(p, a ou b) passar
+     * de threshold, as novas arestas não cruzarem o polígono e nenhum ponto
+     * ficar de fora (dentro do triângulo a, p, b). Valores
+     * menores de threshold dão polígonos mais justos (2 é um bom começo).
+     *
+     * Custo O(n + h) por aresta testada e no máximo ~2n testes, O(n²) no
+     * total: quem chama limita n (a API agrupa numa grade que engrossa até
+     * caber em alguns milhares de pontos).
+     */
+    public static int[] concave(double[] x, double[] y, double threshold) {
+        int[] convex = convex(x, y);
+        if (convex.length < 3) return convex;
+
+        IntArrayList hull = new IntArrayList(convex);
+        boolean[] onHull = new boolean[x.length];
+        for (int p : convex) onHull[p] = true;
+
+        int i = 0;
+        while (i < hull.size()) {
+            int h = hull.size();
+            int prev = hull.getInt((i + h - 1) % h);
+            int a = hull.getInt(i);
+            int b = hull.getInt((i + 1) % h);
+            int next = hull.getInt((i + 2) % h);
+            double edge = Math.hypot(x[b] - x[a], y[b] - y[a]);
+
+            // Candidato: o ponto mais próximo desta aresta que não esteja mais
+            // perto das vizinhas (senão a "cava" só anda colada nos vértices)
+            int best = -1;
+            double bestDist = Double.MAX_VALUE;
+            for (int p = 0; p < x.length; p++) {
+                if (onHull[p]) continue;
+                double d = segmentDistance(x, y, a, b, p);
+                if (d < bestDist && d < segmentDistance(x, y, prev, a, p)
+                        && d < segmentDistance(x, y, b, next, p)) {
+                    bestDist = d;
+                    best = p;
+                }
+            }
+
+            if (best >= 0) {
+                double near = Math.min(Math.hypot(x[best] - x[a], y[best] - y[a]),
+                        Math.hypot(x[best] - x[b], y[best] - y[b]));
+                if (near > 0 && edge / near > threshold
+                        && !crossesHull(x, y, hull, i, a, best) && !crossesHull(x, y, hull, i, best, b)
+                        && !leavesPointsOut(x, y, onHull, a, best, b)) {
+                    hull.add(i + 1, best);
+                    onHull[best] = true;
+                    continue; // testa de novo a aresta (a, p)
+                }
+            }
+            i++;
+        }
+        return hull.toIntArray();
+    }
+
+    private static double cross(double[] x, double[] y, int o, int a, int b) {
+        return (x[a] - x[o]) * (y[b] - y[o]) - (y[a] - y[o]) * (x[b] - x[o]);
+    }
+
+    private static double segmentDistance(double[] x, double[] y, int a, int b, int p) {
+        double dx = x[b] - x[a];
+        double dy = y[b] - y[a];
+        double len2 = dx * dx + dy * dy;
+        double t = len2 == 0 ? 0 : ((x[p] - x[a]) * dx + (y[p] - y[a]) * dy) / len2;
+        t = Math.max(0, Math.min(1, t));
+        return Math.hypot(x[a] + t * dx - x[p], y[a] + t * dy - y[p]);
+    }
+
+    /** A nova aresta (u, v), que substitui a aresta "skip" do polígono, cruza alguma outra? */
+    private static boolean crossesHull(double[] x, double[] y, IntArrayList hull, int skip, int u, int v) {
+        int h = hull.size();
+        for (int j = 0; j < h; j++) {
+            if (j == skip) continue;
+            int c = hull.getInt(j);
+            int d = hull.getInt((j + 1) % h);
+            if (c == u || c == v || d == u || d == v) continue; // arestas vizinhas
+            if (segmentsIntersect(x, y, u, v, c, d)) return true;
+        }
+        return false;
+    }
+
+    /** Algum ponto interno cairia fora do polígono ao trocar (a, b) por (a, p, b)? */
+    private static boolean leavesPointsOut(double[] x, double[] y, boolean[] onHull, int a, int p, int b) {
+        for (int q = 0; q < x.length; q++) {
+            if (onHull[q] || q == p) continue;
+            // Com o polígono anti-horário, (a, p, b) gira no sentido horário: dentro = tudo < 0
+            if (cross(x, y, a, p, q) < 0 && cross(x, y, p, b, q) < 0 && cross(x, y, b, a, q) < 0) return true;
+        }
+        return false;
+    }
+
+    private static boolean segmentsIntersect(double[] x, double[] y, int a, int b, int c, int d) {
+        double d1 = cross(x, y, c, d, a);
+        double d2 = cross(x, y, c, d, b);
+        double d3 = cross(x, y, a, b, c);
+        double d4 = cross(x, y, a, b, d);
+        return ((d1 > 0) != (d2 > 0)) && ((d3 > 0) != (d4 > 0));
+    }
+}
@@ -0,0 +1,69 @@
+package geo;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Formatos compactos para caminhos (latitude/longitude em graus), em vez
+ * de uma lista de objetos JSON:
+ *
+ * - polyline: o "Encoded Polyline Algorithm" do Google (texto ASCII), com
+ *   precisão 5 (padrão das bibliotecas de mapa) ou 6 (a do DIMACS);
+ * - binário: cada ponto em micrograus (graus * 1e6, como no .co), delta
+ *   para o anterior, zigzag e varint (7 bits por byte). Começa pelo número
+ *   de pontos (varint).
+ *
+ * Nos dois, pontos próximos viram poucos bytes.
+ */
+public class PathEncoding {
+
+    public static String polyline(double[] lat, double[] lon, int precision) {
+        double factor = Math.pow(10, precision);
+        StringBuilder out = new StringBuilder(lat.length * 8);
+        long prevLat = 0, prevLon = 0;
+        for (int i = 0; i < lat.length; i++) {
+            long la = Math.round(lat[i] * factor);
+            long lo = Math.round(lon[i] * factor);
+            appendPolyline(out, la - prevLat);
+            appendPolyline(out, lo - prevLon);
+            prevLat = la;
+            prevLon = lo;
+        }
+        return out.toString();
+    }
+
+    private static void appendPolyline(StringBuilder out, long delta) {
+        long v = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (v >= 0x20) {
+            out.append((char) ((0x20 | (v & 0x1f)) + 63));
+            v >>= 5;
+        }
+        out.append((char) (v + 63));
+    }
+
+    public static byte[] varintDelta(double[] lat, double[] lon) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + lat.length * 4);
+        writeVarint(out, lat.length);
+        long prevLat = 0, prevLon = 0;
+        for (int i = 0; i < lat.length; i++) {
+            long la = Math.round(lat[i] * 1_000_000);
+            long lo = Math.round(lon[i] * 1_000_000);
+            writeVarint(out, zigzag(la - prevLat));
+            writeVarint(out, zigzag(lo - prevLon));
+            prevLat = la;
+            prevLon = lo;
+        }
+        return out.toByteArray();
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+}
@@ -0,0 +1,92 @@
+package geo;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Simplificação de linhas (ex: caminho de uma rota) para desenhar: mantém
+ * só os pontos que se afastam mais que a tolerância da reta entre os
+ * vizinhos mantidos. Pontos em latitude/longitude; distâncias em metros numa
+ * projeção equirretangular local (erro desprezível na escala de uma rota).
+ */
+public class Simplify {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final double METERS_PER_PIXEL_ZOOM0 = 156_543.03; // Web Mercator, no equador
+
+    /**
+     * Douglas–Peucker iterativo (pilha em vez de recursão: caminhos longos
+     * não estouram a pilha). Devolve os índices mantidos, em ordem, sempre
+     * com o primeiro e o último.
+     */
+    public static int[] douglasPeucker(double[] lat, double[] lon, double toleranceMeters) {
+        int n = lat.length;
+        if (n <= 2 || toleranceMeters <= 0) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        // Projeta uma vez: x/y em metros
+        double cos = Math.cos(Math.toRadians(lat[0]));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = lon[i] * METERS_PER_DEGREE * cos;
+            y[i] = lat[i] * METERS_PER_DEGREE;
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = keep[n - 1] = true;
+        double tolerance2 = toleranceMeters * toleranceMeters;
+        IntArrayList stack = new IntArrayList();
+        stack.add(0);
+        stack.add(n - 1);
+        while (!stack.isEmpty()) {
+            int last = stack.removeInt(stack.size() - 1);
+            int first = stack.removeInt(stack.size() - 1);
+
+            int farthest = -1;
+            double max = tolerance2;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistance2(x, y, first, last, i);
+                if (d > max) {
+                    max = d;
+                    farthest = i;
+                }
+            }
+            if (farthest != -1) {
+                keep[farthest] = true;
+                stack.add(first);
+                stack.add(farthest);
+                stack.add(farthest);
+                stack.add(last);
+            }
+        }
+
+        int[] kept = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) kept[count++] = i;
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    /** Tolerância de ~1 pixel no zoom do mapa (0 = mundo inteiro, 18 = rua) na latitude dada. */
+    public static double toleranceForZoom(int zoom, double latitude) {
+        return METERS_PER_PIXEL_ZOOM0 * Math.cos(Math.toRadians(latitude)) / (1L << Math.max(0, Math.min(zoom, 30)));
+    }
+
+    // Quadrado da distância de p ao segmento a-b
+    private static double segmentDistance2(double[] x, double[] y, int a, int b, int p) {
+        double dx = x[b] - x[a];
+        double dy = y[b] - y[a];
+        double len2 = dx * dx + dy * dy;
+        double t = len2 == 0 ? 0 : ((x[p] - x[a]) * dx + (y[p] - y[a]) * dy) / len2;
+        t = Math.max(0, Math.min(1, t));
+        double ex = x[a] + t * dx - x[p];
+        double ey = y[a] + t * dy - y[p];
+        return ex * ex + ey * ey;
+    }
+}
@@ -0,0 +1,64 @@
+package graph;
+
+import java.util.List;
+
+import graph.Graph.Edge;
+
+/**
+ * Visão compacta (CSR) do Graph: as arestas de v ficam em
+ * [first[v], first[v + 1]) dos arrays head/weight. Sem objetos por aresta e
+ * sem lookup em HashMap, é a forma usada pelos laços quentes que rodam
+ * muitas buscas sobre o mesmo grafo (matriz de distâncias, etc.).
+ *
+ * Mantém a mesma numeração de nós do Graph (IDs de 1 a n).
+ */
+public class CompactGraph {
+
+    public final int n;
+    public final int[] first;
+    public final int[] head;
+    public final int[] weight;
+
+    public CompactGraph(int n, int[] first, int[] head, int[] weight) {
+        this.n = n;
+        this.first = first;
+        this.head = head;
+        this.weight = weight;
+    }
+
+    public static CompactGraph from(Graph graph) {
+        int n = graph.getNodeCount();
+        int[] first = new int[n + 2];
+        for (int v = 1; v <= n; v++) {
+            List<Edge> edges = graph.getAdjacencyList().get(v);
+            first[v + 1] = first[v] + (edges == null ? 0 : edges.size());
+        }
+
+        int[] head = new int[first[n + 1]];
+        int[] weight = new int[first[n + 1]];
+        for (int v = 1; v <= n; v++) {
+            List<Edge> edges = graph.getAdjacencyList().get(v);
+            if (edges == null) continue;
+            int e = first[v];
+            for (Edge edge : edges) {
+                head[e] = edge.target;
+                weight[e] = edge.weight;
+                e++;
+            }
+        }
+        return new CompactGraph(n, first, head, weight);
+    }
+
+    public int getNodeCount() {
+        return n;
+    }
+
+    public int getEdgeCount() {
+        return head.length;
+    }
+
+    /** Bytes dos três arrays do CSR. */
+    public long getMemoryBytes() {
+        return MemoryFootprint.of(first) + MemoryFootprint.of(head) + MemoryFootprint.of(weight);
+    }
+}
@@ -0,0 +1,115 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Grafo com pesos atualizáveis (trânsito): o CSR do CompactGraph, cujo array
+ * de pesos é alterado no lugar, mais o CSR reverso (arestas de entrada de
+ * cada nó), usado pelo reparo incremental das árvores de caminhos mínimos.
+ *
+ * Cada mudança também é refletida no Graph original (setEdgeWeight), então
+ * os demais solvers enxergam os pesos novos e os caches CSR percebem a troca
+ * de versão.
+ */
+public class DynamicGraph {
+
+    private final Graph graph;
+    private final CompactGraph forward;
+
+    private final int[] tail;        // tail[e] = origem da aresta e
+    private final int[] inFirst;     // arestas que chegam em v: inEdge[inFirst[v] .. inFirst[v + 1])
+    private final int[] inEdge;      // índice da aresta no CSR direto
+
+    public DynamicGraph(Graph graph) {
+        this.graph = graph;
+        this.forward = CompactGraph.from(graph);
+        int n = forward.n;
+        int m = forward.getEdgeCount();
+
+        this.tail = new int[m];
+        this.inFirst = new int[n + 2];
+        for (int u = 1; u <= n; u++) {
+            for (int e = forward.first[u]; e < forward.first[u + 1]; e++) {
+                tail[e] = u;
+                inFirst[forward.head[e] + 1]++;
+            }
+        }
+        for (int v = 0; v <= n; v++) inFirst[v + 1] += inFirst[v];
+
+        this.inEdge = new int[m];
+        int[] fill = Arrays.copyOf(inFirst, n + 1);
+        for (int e = 0; e < m; e++) {
+            inEdge[fill[forward.head[e]]++] = e;
+        }
+    }
+
+    /** Índices das arestas from -> to (pode haver paralelas), vazio se não existe. */
+    public int[] findEdges(int from, int to) {
+        if (from < 1 || from > forward.n) return new int[0];
+        int count = 0;
+        for (int e = forward.first[from]; e < forward.first[from + 1]; e++) {
+            if (forward.head[e] == to) count++;
+        }
+        int[] edges = new int[count];
+        for (int e = forward.first[from], i = 0; e < forward.first[from + 1]; e++) {
+            if (forward.head[e] == to) edges[i++] = e;
+        }
+        return edges;
+    }
+
+    /** Troca o peso da aresta e (aqui e no Graph) e devolve o peso anterior. */
+    public synchronized int setWeight(int e, int weight) {
+        if (weight < 0) throw new IllegalArgumentException("Peso negativo: " + weight);
+        int old = forward.weight[e];
+        forward.weight[e] = weight;
+        int from = tail[e];
+        graph.setEdgeWeight(from, e - forward.first[from], weight);
+        return old;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /** Bytes do CSR direto e do reverso (o Graph de objetos não entra). */
+    public long getMemoryBytes() {
+        return forward.getMemoryBytes() + MemoryFootprint.of(tail) + MemoryFootprint.of(inFirst)
+                + MemoryFootprint.of(inEdge);
+    }
+
+    public int getNodeCount() {
+        return forward.n;
+    }
+
+    public int first(int v) {
+        return forward.first[v];
+    }
+
+    public int end(int v) {
+        return forward.first[v + 1];
+    }
+
+    public int head(int e) {
+        return forward.head[e];
+    }
+
+    public int tail(int e) {
+        return tail[e];
+    }
+
+    public int weight(int e) {
+        return forward.weight[e];
+    }
+
+    public int inFirst(int v) {
+        return inFirst[v];
+    }
+
+    public int inEnd(int v) {
+        return inFirst[v + 1];
+    }
+
+    public int inEdge(int i) {
+        return inEdge[i];
+    }
+}
@@ -13,6 +13,12 @@ public class Graph {
     // Usamos Map aqui para facilitar, mas no futuro array é mais rápido
     private final Map<Integer, List<Edge>> adjacencyList = new HashMap<>();
 
+    // Incrementado a cada mudança de peso: quem guarda cópias do grafo (CSR) compara para saber se está velho
+    private volatile long version;
+
+    private static final long NODE_BYTES = MemoryFootprint.align(MemoryFootprint.OBJECT_HEADER + 4 + 8 + 8);
+    private static final long EDGE_BYTES = MemoryFootprint.align(MemoryFootprint.OBJECT_HEADER + 4 + 4);
+
     public void addNode(Node node) {
         nodes.put(node.id, node);
         adjacencyList.putIfAbsent(node.id, new ArrayList<>());
@@ -25,6 +31,20 @@ public class Graph {
         }
     }
 
+    /**
+     * Troca o peso da aresta de posição index na lista de "from" (trânsito).
+     * Edge continua imutável: a aresta é substituída na lista.
+     */
+    public synchronized void setEdgeWeight(int from, int index, int weight) {
+        List<Edge> edges = adjacencyList.get(from);
+        edges.set(index, new Edge(edges.get(index).target, weight));
+        version++;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
     public int getNodeCount() {
         return nodes.size();
     }
@@ -32,6 +52,21 @@ public class Graph {
     public int getEdgeCount() {
         return adjacencyList.values().stream().mapToInt(List::size).sum();
     }
+
+    /**
+     * Memória estimada deste grafo de objetos (ver MemoryFootprint): por nó,
+     * duas entradas de HashMap com seus Integer, o Node e o ArrayList de
+     * arestas; por aresta, um Edge e a referência na lista.
+     */
+    public long getMemoryBytes() {
+        long n = nodes.size();
+        long boxed = Math.max(0, n - 127) * MemoryFootprint.BOXED_INT; // IDs 1..127 vêm do cache do Integer
+        long bytes = 2 * (MemoryFootprint.hashMap(n) + boxed) + n * NODE_BYTES;
+        for (List<Edge> edges : adjacencyList.values()) {
+            bytes += MemoryFootprint.arrayList(edges.size()) + edges.size() * EDGE_BYTES;
+        }
+        return bytes;
+    }
     
     // Classe interna para representar a aresta
     public static class Edge {
@@ -9,10 +9,10 @@ import graph.Graph.Edge;
 
 public class GraphTransformer {
 
-	// Mapeia: ID Original -> Lista de IDs Virtuais que compõem o ciclo
+	// Mapeia: ID Original -> IDs Virtuais que compõem o ciclo (em sequência)
 	// Isso será vital para depois "traduzir" a rota do Duan de volta para o mapa
-	// real.
-	private final Map<Integer, List<Integer>> virtualMapping = new HashMap<>();
+	// real. Arrays em vez de Map<Integer, List<Integer>>: tradução O(1) sem boxing.
+	private VirtualIdMap idMap;
 
 	/**
 	 * Transforma um grafo arbitrário em um grafo de grau constante (máx 2 in/out),
@@ -22,11 +22,21 @@ public class GraphTransformer {
 		Graph newGraph = new Graph();
 		int nextVirtualId = 1; // IDs virtuais começam do 1 incrementalmente
 
+		int originalCount = originalGraph.getNodeCount();
+		int virtualCount = 0;
+		for (int originalId = 1; originalId <= originalCount; originalId++) {
+			List<Edge> outgoing = originalGraph.getAdjacencyList().get(originalId);
+			virtualCount += (outgoing == null || outgoing.isEmpty()) ? 1 : outgoing.size();
+		}
+		int[] firstVirtual = new int[originalCount + 2];
+		int[] virtualToOriginal = new int[virtualCount + 1];
+
 		// Passo 1: Criar os Ciclos de Nós Virtuais
 		// Para cada nó do grafo original...
-		for (int originalId = 1; originalId <= originalGraph.getNodeCount(); originalId++) {
+		for (int originalId = 1; originalId <= originalCount; originalId++) {
 			List<Edge> outgoing = originalGraph.getAdjacencyList().getOrDefault(originalId, new ArrayList<>());
 			List<Integer> cycleIds = new ArrayList<>();
+			firstVirtual[originalId] = nextVirtualId;
 
 			// Se o nó original não tem saídas, criamos 1 nó virtual apenas para existir
 			if (outgoing.isEmpty()) {
@@ -55,8 +65,12 @@ public class GraphTransformer {
 			}
 
 			// Guardamos quais nós virtuais representam o nó original
-			virtualMapping.put(originalId, cycleIds);
+			for (int virtualId : cycleIds) {
+				virtualToOriginal[virtualId] = originalId;
+			}
 		}
+		firstVirtual[originalCount + 1] = nextVirtualId;
+		this.idMap = new VirtualIdMap(firstVirtual, virtualToOriginal);
 
 		// Passo 2: Reconectar as Arestas Originais (Agora entre ciclos) [cite: 67]
 		for (int originalU = 1; originalU <= originalGraph.getNodeCount(); originalU++) {
@@ -64,7 +78,7 @@ public class GraphTransformer {
 			if (edges == null)
 				continue;
 
-			List<Integer> uCycle = virtualMapping.get(originalU);
+			int uFirst = firstVirtual[originalU];
 
 			// Para cada aresta original (u -> v) com peso w
 			for (int i = 0; i < edges.size(); i++) {
@@ -73,14 +87,13 @@ public class GraphTransformer {
 				int weight = edge.weight;
 
 				// Pegamos o nó virtual específico do ciclo de U responsável por essa saída
-				int uVirtual = uCycle.get(i);
+				int uVirtual = uFirst + i;
 
 				// Pegamos QUALQUER nó virtual do ciclo de V para ser a entrada
 				// (Por simplicidade, pegamos o primeiro, pois o ciclo interno distribui com
 				// peso 0)
-				List<Integer> vCycle = virtualMapping.get(originalV);
-				if (vCycle != null && !vCycle.isEmpty()) {
-					int vVirtual = vCycle.get(0);
+				if (originalV >= 1 && originalV <= originalCount) {
+					int vVirtual = firstVirtual[originalV];
 
 					// Adiciona a aresta com o peso original [cite: 67]
 					newGraph.addEdge(uVirtual, vVirtual, weight);
@@ -91,7 +104,39 @@ public class GraphTransformer {
 		return newGraph;
 	}
 
+	/**
+	 * Cria o grafo transposto (todas as arestas invertidas), compartilhando os
+	 * mesmos objetos Node. Usado pelas buscas reversas (ex: tabelas do ALT).
+	 */
+	public Graph reverse(Graph graph) {
+		Graph reversed = new Graph();
+		for (Node node : graph.getNodes().values()) {
+			reversed.addNode(node);
+		}
+
+		for (Map.Entry<Integer, List<Edge>> entry : graph.getAdjacencyList().entrySet()) {
+			int u = entry.getKey();
+			for (Edge edge : entry.getValue()) {
+				reversed.addEdge(edge.target, u, edge.weight);
+			}
+		}
+		return reversed;
+	}
+
+	/** Tradução original <-> virtual da última transformação. */
+	public VirtualIdMap getIdMap() {
+		return idMap;
+	}
+
 	public Map<Integer, List<Integer>> getVirtualMapping() {
-		return virtualMapping;
+		Map<Integer, List<Integer>> mapping = new HashMap<>();
+		for (int originalId = 1; originalId <= idMap.getOriginalCount(); originalId++) {
+			List<Integer> cycleIds = new ArrayList<>();
+			for (int v = idMap.firstVirtual(originalId); v < idMap.endVirtual(originalId); v++) {
+				cycleIds.add(v);
+			}
+			mapping.put(originalId, cycleIds);
+		}
+		return mapping;
 	}
 }
\ No newline at end of file
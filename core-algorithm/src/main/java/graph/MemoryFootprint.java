@@ -0,0 +1,127 @@
+package graph;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+/**
+ * Contas de memória das representações do grafo, para dimensionar as
+ * máquinas por região. O layout é o da HotSpot 64 bits com compressed oops
+ * (heap < 32 GB): cabeçalho de objeto 12 bytes, de array 16, referência 4,
+ * tudo alinhado a 8. São estimativas a partir dos tamanhos (não percorrem o
+ * heap); o main.MemoryBenchmark confere contra o heap medido.
+ *
+ * Também mede o pico de heap de uma fase (carga, transformação) pelos
+ * MemoryPoolMXBean: inclui o lixo ainda não coletado, então é um teto.
+ */
+public final class MemoryFootprint {
+
+    public static final int OBJECT_HEADER = 12;
+    public static final int ARRAY_HEADER = 16;
+    public static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    /** Integer fora do cache de -128..127. */
+    public static final long BOXED_INT = align(OBJECT_HEADER + 4);
+    /** HashMap.Node: hash, chave, valor e próximo. */
+    private static final long HASH_MAP_NODE = align(OBJECT_HEADER + 4 + 3 * REFERENCE);
+    private static final long HASH_MAP = align(OBJECT_HEADER + 4 * 4 + 4 * REFERENCE);
+    private static final long ARRAY_LIST = align(OBJECT_HEADER + 2 * 4 + REFERENCE);
+
+    private MemoryFootprint() {
+    }
+
+    public static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    public static long array(long length, int elementBytes) {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    public static long of(int[] a) {
+        return a == null ? 0 : array(a.length, 4);
+    }
+
+    public static long of(long[] a) {
+        return a == null ? 0 : array(a.length, 8);
+    }
+
+    public static long of(double[] a) {
+        return a == null ? 0 : array(a.length, 8);
+    }
+
+    /** HashMap com entries entradas: o objeto, a tabela (potência de 2, carga 0,75) e um nó por entrada. */
+    public static long hashMap(long entries) {
+        if (entries == 0) return HASH_MAP;
+        long capacity = 16;
+        while (entries > capacity * 3 / 4) capacity <<= 1;
+        return HASH_MAP + array(capacity, REFERENCE) + entries * HASH_MAP_NODE;
+    }
+
+    /** ArrayList criado vazio com size elementos: a capacidade cresce de 10 em 1,5x. */
+    public static long arrayList(int size) {
+        if (size == 0) return ARRAY_LIST; // Ainda aponta para o array vazio compartilhado
+        int capacity = 10;
+        while (capacity < size) capacity += capacity >> 1;
+        return ARRAY_LIST + array(capacity, REFERENCE);
+    }
+
+    /** Uma linha do relatório: uma representação com seus tamanhos. */
+    public static class Entry {
+        public final String name;
+        public final long bytes;
+        public final long nodes;
+        public final long edges;
+
+        public Entry(String name, long bytes, long nodes, long edges) {
+            this.name = name;
+            this.bytes = bytes;
+            this.nodes = nodes;
+            this.edges = edges;
+        }
+
+        public double bytesPerNode() {
+            return nodes == 0 ? 0 : (double) bytes / nodes;
+        }
+
+        public double bytesPerEdge() {
+            return edges == 0 ? 0 : (double) bytes / edges;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %,16d bytes %10.1f B/nó %10.1f B/aresta", name, bytes, bytesPerNode(),
+                    bytesPerEdge());
+        }
+    }
+
+    /**
+     * Pico de heap de um trecho: zera o pico dos pools do heap, e peak()
+     * devolve quanto o uso subiu acima do início. Com outras threads
+     * alocando ao mesmo tempo, o número inclui o lixo delas.
+     */
+    public static class HeapPeak {
+        private final List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        private final long baseline;
+
+        public HeapPeak() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : pools) {
+                if (pool.getType() != MemoryType.HEAP) continue;
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+            this.baseline = used;
+        }
+
+        public long peak() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : pools) {
+                if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+            }
+            return Math.max(0, peak - baseline);
+        }
+    }
+}
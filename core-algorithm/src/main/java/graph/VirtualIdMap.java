@@ -0,0 +1,75 @@
+package graph;
+
+/**
+ * Tradução entre os IDs DIMACS (grafo original) e os nós virtuais do grafo
+ * de grau constante. O GraphTransformer numera os ciclos em sequência, então
+ * o ciclo do nó original u é o intervalo [firstVirtual[u], firstVirtual[u + 1])
+ * e as duas direções são um acesso a array.
+ */
+public class VirtualIdMap {
+
+    private final int[] firstVirtual;      // índice = ID original (1..n), com sentinela em n + 1
+    private final int[] virtualToOriginal; // índice = ID virtual
+
+    public VirtualIdMap(int[] firstVirtual, int[] virtualToOriginal) {
+        this.firstVirtual = firstVirtual;
+        this.virtualToOriginal = virtualToOriginal;
+    }
+
+    /**
+     * Nó virtual de entrada do ciclo (todas as arestas que chegam em u
+     * entram por ele; o resto do ciclo está a custo 0).
+     */
+    public int toVirtual(int originalId) {
+        if (originalId < 1 || originalId >= firstVirtual.length - 1) {
+            throw new IllegalArgumentException("Nó inexistente: " + originalId);
+        }
+        return firstVirtual[originalId];
+    }
+
+    public int toOriginal(int virtualId) {
+        return virtualToOriginal[virtualId];
+    }
+
+    public int firstVirtual(int originalId) {
+        return firstVirtual[originalId];
+    }
+
+    /** Um depois do último nó virtual do ciclo de originalId. */
+    public int endVirtual(int originalId) {
+        return firstVirtual[originalId + 1];
+    }
+
+    public int[] toVirtual(int[] originalIds) {
+        int[] virtual = new int[originalIds.length];
+        for (int i = 0; i < virtual.length; i++) virtual[i] = toVirtual(originalIds[i]);
+        return virtual;
+    }
+
+    /**
+     * Converte um caminho em IDs virtuais para IDs originais, trocando cada
+     * sequência de nós do mesmo ciclo por um único nó. Escreve em out (que
+     * pode ser o próprio path) e devolve quantos nós foram escritos.
+     */
+    public int collapse(int[] path, int length, int[] out) {
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            int original = virtualToOriginal[path[i]];
+            if (size == 0 || out[size - 1] != original) out[size++] = original;
+        }
+        return size;
+    }
+
+    public int getOriginalCount() {
+        return firstVirtual.length - 2;
+    }
+
+    public int getVirtualCount() {
+        return virtualToOriginal.length - 1;
+    }
+
+    /** Bytes dos dois arrays de tradução. */
+    public long getMemoryBytes() {
+        return MemoryFootprint.of(firstVirtual) + MemoryFootprint.of(virtualToOriginal);
+    }
+}
@@ -1,22 +1,71 @@
 package io;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import graph.Graph;
 import graph.Node;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 
 public class DimacsLoader {
 
+    // Bytes entre duas atualizações do progresso (não pesa na leitura)
+    private static final long PROGRESS_STEP = 1 << 20;
+
     public Graph load(String pathGr, String pathCo) throws IOException {
+        return load(pathGr, pathCo, new LoadProgress());
+    }
+
+    /**
+     * Lê .co e .gr ao mesmo tempo (uma thread cada; as arestas ficam em
+     * arrays até os nós existirem) e vai somando os bytes lidos em progress.
+     */
+    public Graph load(String pathGr, String pathCo, LoadProgress progress) throws IOException {
+        progress.addTotalBytes(new File(pathCo).length() + new File(pathGr).length());
+
+        FutureTask<Graph> coordinates = new FutureTask<>(() -> readCoordinates(pathCo, progress));
+        Thread coReader = new Thread(coordinates, "dimacs-co");
+        coReader.setDaemon(true);
+        coReader.start();
+
+        IntArrayList arcs = readArcs(pathGr, progress);
+
+        Graph graph;
+        try {
+            graph = coordinates.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException("Falha ao ler " + pathCo, e.getCause());
+        }
+
+        // 3. Arestas na ordem do arquivo (como antes)
+        for (int i = 0; i < arcs.size(); i += 3) {
+            graph.addEdge(arcs.getInt(i), arcs.getInt(i + 1), arcs.getInt(i + 2));
+        }
+        return graph;
+    }
+
+    private Graph readCoordinates(String pathCo, LoadProgress progress) throws IOException {
         Graph graph = new Graph();
-        
+
         System.out.println("Carregando coordenadas de: " + pathCo);
         // 1. Ler Coordenadas (.co)
         try (BufferedReader br = new BufferedReader(new FileReader(pathCo))) {
             String line;
+            long pending = 0;
             while ((line = br.readLine()) != null) {
+                pending += line.length() + 1;
+                if (pending >= PROGRESS_STEP) {
+                    progress.addBytesRead(pending);
+                    pending = 0;
+                }
                 line = line.trim();
                 if (line.startsWith("v ")) { 
                     // Formato: v ID Longitude Latitude
@@ -28,26 +77,41 @@ public class DimacsLoader {
                     graph.addNode(new Node(id, lat, lon));
                 }
             }
+            progress.addBytesRead(pending);
         }
+        return graph;
+    }
+
+    // Triplas (origem, destino, peso) seguidas
+    private IntArrayList readArcs(String pathGr, LoadProgress progress) throws IOException {
+        IntArrayList arcs = new IntArrayList();
 
         System.out.println("Carregando arestas de: " + pathGr);
         // 2. Ler Arestas/Pesos (.gr)
         try (BufferedReader br = new BufferedReader(new FileReader(pathGr))) {
             String line;
+            long pending = 0;
             while ((line = br.readLine()) != null) {
+                pending += line.length() + 1;
+                if (pending >= PROGRESS_STEP) {
+                    progress.addBytesRead(pending);
+                    pending = 0;
+                }
                 line = line.trim();
-                if (line.startsWith("a ")) {
+                if (line.startsWith("p ")) {
+                    // Formato: p sp Nós Arestas (já reserva o espaço)
+                    String[] parts = line.split("\\s+");
+                    arcs.ensureCapacity(3 * Integer.parseInt(parts[3]));
+                } else if (line.startsWith("a ")) {
                     // Formato: a Origem Destino Peso
                     String[] parts = line.split("\\s+");
-                    int u = Integer.parseInt(parts[1]);
-                    int v = Integer.parseInt(parts[2]);
-                    int w = Integer.parseInt(parts[3]);
-                    
-                    graph.addEdge(u, v, w);
+                    arcs.add(Integer.parseInt(parts[1]));
+                    arcs.add(Integer.parseInt(parts[2]));
+                    arcs.add(Integer.parseInt(parts[3]));
                 }
             }
+            progress.addBytesRead(pending);
         }
-        
-        return graph;
+        return arcs;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+package io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import graph.DynamicGraph;
+import graph.MemoryFootprint;
+import graph.Graph;
+import graph.Graph.Edge;
+import graph.Node;
+import graph.VirtualIdMap;
+
+/**
+ * Grafo original (antes do GraphTransformer) em binário: coordenadas no
+ * formato DIMACS (graus * 1e6) e as arestas em CSR, tudo por ID original
+ * (1..n). Carregar um snapshot é só copiar arrays de um arquivo mapeado
+ * em memória (big-endian, como o DataOutputStream grava), bem mais rápido
+ * que interpretar os .gr/.co em texto.
+ */
+public class GraphSnapshot {
+
+    private static final int MAGIC = 0x47525331; // "GRS1"
+
+    public final int n;
+    public final long[] rawLat;   // índice = ID original
+    public final long[] rawLon;
+    public final int[] first;     // arestas de u: [first[u], first[u + 1])
+    public final int[] head;
+    public final int[] weight;
+
+    public GraphSnapshot(int n, long[] rawLat, long[] rawLon, int[] first, int[] head, int[] weight) {
+        this.n = n;
+        this.rawLat = rawLat;
+        this.rawLon = rawLon;
+        this.first = first;
+        this.head = head;
+        this.weight = weight;
+    }
+
+    /** Snapshot de um grafo original (como sai do DimacsLoader). */
+    public static GraphSnapshot from(Graph graph) {
+        int n = graph.getNodeCount();
+        long[] rawLat = new long[n + 1];
+        long[] rawLon = new long[n + 1];
+        for (Node node : graph.getNodes().values()) {
+            rawLat[node.id] = Math.round(node.latitude * 1_000_000);
+            rawLon[node.id] = Math.round(node.longitude * 1_000_000);
+        }
+
+        int[] first = new int[n + 2];
+        for (int u = 1; u <= n; u++) {
+            List<Edge> edges = graph.getAdjacencyList().get(u);
+            first[u + 1] = first[u] + (edges == null ? 0 : edges.size());
+        }
+        int[] head = new int[first[n + 1]];
+        int[] weight = new int[first[n + 1]];
+        for (int u = 1; u <= n; u++) {
+            List<Edge> edges = graph.getAdjacencyList().get(u);
+            if (edges == null) continue;
+            int e = first[u];
+            for (Edge edge : edges) {
+                head[e] = edge.target;
+                weight[e] = edge.weight;
+                e++;
+            }
+        }
+        return new GraphSnapshot(n, rawLat, rawLon, first, head, weight);
+    }
+
+    /**
+     * Snapshot a partir do grafo transformado em uso (com os pesos atuais do
+     * trânsito). No GraphTransformer, cada nó virtual tem primeiro a aresta
+     * de peso 0 do ciclo e depois a sua aresta original.
+     */
+    public static GraphSnapshot from(DynamicGraph graph, VirtualIdMap idMap, double[] latitude, double[] longitude) {
+        int n = idMap.getOriginalCount();
+        long[] rawLat = new long[n + 1];
+        long[] rawLon = new long[n + 1];
+        int[] first = new int[n + 2];
+        for (int u = 1; u <= n; u++) {
+            rawLat[u] = Math.round(latitude[u] * 1_000_000);
+            rawLon[u] = Math.round(longitude[u] * 1_000_000);
+            int count = 0;
+            for (int v = idMap.firstVirtual(u); v < idMap.endVirtual(u); v++) {
+                if (graph.first(v) + 1 < graph.end(v)) count++;
+            }
+            first[u + 1] = first[u] + count;
+        }
+
+        int[] head = new int[first[n + 1]];
+        int[] weight = new int[first[n + 1]];
+        for (int u = 1, e = 0; u <= n; u++) {
+            for (int v = idMap.firstVirtual(u); v < idMap.endVirtual(u); v++) {
+                int original = graph.first(v) + 1;
+                if (original < graph.end(v)) {
+                    head[e] = idMap.toOriginal(graph.head(original));
+                    weight[e++] = graph.weight(original);
+                }
+            }
+        }
+        return new GraphSnapshot(n, rawLat, rawLon, first, head, weight);
+    }
+
+    /** Graph original (mesma forma do DimacsLoader), pronto para o GraphTransformer. */
+    public Graph toGraph() {
+        Graph graph = new Graph();
+        for (int u = 1; u <= n; u++) {
+            graph.addNode(new Node(u, rawLat[u], rawLon[u]));
+        }
+        for (int u = 1; u <= n; u++) {
+            for (int e = first[u]; e < first[u + 1]; e++) {
+                graph.addEdge(u, head[e], weight[e]);
+            }
+        }
+        return graph;
+    }
+
+    /** Bytes dos arrays (coordenadas e CSR). */
+    public long getMemoryBytes() {
+        return MemoryFootprint.of(rawLat) + MemoryFootprint.of(rawLon) + MemoryFootprint.of(first)
+                + MemoryFootprint.of(head) + MemoryFootprint.of(weight);
+    }
+
+    public void save(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(n);
+            writeArray(out, rawLat);
+            writeArray(out, rawLon);
+            writeArray(out, first);
+            writeArray(out, head);
+            writeArray(out, weight);
+        }
+    }
+
+    public static GraphSnapshot load(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long[] position = {0};
+            ByteBuffer header = map(channel, position, 8);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Snapshot de grafo inválido: " + path);
+            }
+            int n = header.getInt();
+            return new GraphSnapshot(n, readLongArray(channel, position), readLongArray(channel, position),
+                    readArray(channel, position), readArray(channel, position), readArray(channel, position));
+        }
+    }
+
+    private static void writeArray(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int v : values) out.writeInt(v);
+    }
+
+    private static void writeArray(DataOutputStream out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long v : values) out.writeLong(v);
+    }
+
+    // Cada array é mapeado à parte: um mapeamento só vai até 2 GB
+    private static ByteBuffer map(FileChannel channel, long[] position, long size) throws IOException {
+        if (position[0] + size > channel.size()) {
+            throw new IOException("Snapshot de grafo truncado");
+        }
+        ByteBuffer buffer = channel.map(MapMode.READ_ONLY, position[0], size);
+        position[0] += size;
+        return buffer;
+    }
+
+    private static int[] readArray(FileChannel channel, long[] position) throws IOException {
+        int[] values = new int[map(channel, position, 4).getInt()];
+        map(channel, position, 4L * values.length).asIntBuffer().get(values);
+        return values;
+    }
+
+    private static long[] readLongArray(FileChannel channel, long[] position) throws IOException {
+        long[] values = new long[map(channel, position, 4).getInt()];
+        map(channel, position, 8L * values.length).asLongBuffer().get(values);
+        return values;
+    }
+}
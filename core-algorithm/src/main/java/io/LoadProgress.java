@@ -0,0 +1,59 @@
+package io;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Andamento de uma carga de grafo, para quem acompanha de fora (status do
+ * admin, health check): fase atual e bytes lidos dos arquivos. Pode ser
+ * atualizado por várias threads (ex: .gr e .co lidos em paralelo).
+ * Etapas longas sem leitura (contração da CH, escolha dos landmarks) avisam
+ * que seguem vivas com advance().
+ */
+public class LoadProgress {
+
+    private volatile String phase = "aguardando";
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final long startedAt = System.currentTimeMillis();
+    private volatile long lastUpdate = startedAt;
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+        this.lastUpdate = System.currentTimeMillis();
+    }
+
+    /** Passo concluído dentro da fase atual (ex: uma rodada da contração da CH). */
+    public void advance() {
+        lastUpdate = System.currentTimeMillis();
+    }
+
+    public void addTotalBytes(long bytes) {
+        totalBytes.addAndGet(bytes);
+    }
+
+    public void addBytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+        lastUpdate = System.currentTimeMillis();
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /** Última mudança de fase, leitura ou passo (System.currentTimeMillis()): serve para ver se a carga travou. */
+    public long getLastUpdate() {
+        return lastUpdate;
+    }
+}
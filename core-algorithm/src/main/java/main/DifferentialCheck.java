@@ -0,0 +1,476 @@
+package main;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import algos.DeltaSteppingSolver;
+import algos.StandardDijkstra;
+import algos.WorkCounters;
+import algos.alt.AltPreprocessor;
+import algos.ch.ChPreprocessor;
+import algos.duan.DuanSolver;
+import algos.engine.AltEngine;
+import algos.engine.ChEngine;
+import algos.engine.DeltaSteppingEngine;
+import algos.engine.DijkstraEngine;
+import algos.engine.DuanEngine;
+import algos.engine.PathResult;
+import algos.engine.ShortestPathEngine;
+import gen.GraphGenerator;
+import graph.Graph;
+import graph.Graph.Edge;
+import graph.GraphTransformer;
+import graph.Node;
+import graph.VirtualIdMap;
+import io.GraphSnapshot;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Verificação diferencial de todos os motores em milhares de grafos
+ * aleatórios pequenos e médios: esparsos, com empates, com arestas e ciclos
+ * de peso 0 (como os que o GraphTransformer cria), desconexos, grades e lei
+ * de potência. Para cada caso, contra o StandardDijkstra:
+ *
+ * - distâncias de todos os nós (um-para-todos: Duan, Delta-Stepping);
+ * - árvore de pais do Dijkstra e do Duan (caminho de cada nó começa na
+ *   origem, usa arestas que existem e soma a distância certa);
+ * - distância e caminho de destinos sorteados (Dijkstra p2p, ALT, CH, e o
+ *   route() de cada motor).
+ *
+ * Um caso que falha é encolhido (remove arestas, simplifica pesos e tira nós
+ * soltos enquanto o mesmo motor continuar falhando) e impresso em DIMACS,
+ * pronto para virar um caso mínimo. No fim, o trabalho somado de cada motor
+ * (relaxamentos, operações de fila, chamadas do bmssp), para comparar antes e
+ * depois de uma otimização.
+ *
+ * Uso: DifferentialCheck [casos=500] [seed=1] [máximo de nós=200]
+ * Sai com código 1 se algum caso falhar.
+ */
+public class DifferentialCheck {
+
+    private static final String[] FAMILIES = { "sparse", "ties", "zero-weights", "disconnected", "grid", "power-law" };
+    private static final String REFERENCE = "dijkstra-tree";
+    private static final String DUAN_TREE = "duan-tree";
+    private static final String TRANSFORMER = "transformer";
+    private static final int SAMPLED_TARGETS = 12;
+    private static final int FULL_TREE_LIMIT = 5_000; // Acima disso, a árvore de pais é conferida por amostra
+
+    /** Um caso: grafo original como lista de arestas (IDs 1..n) e a origem. */
+    private static class Case {
+        final String family;
+        final int n;
+        final int[] from;
+        final int[] to;
+        final int[] weight;
+        final int source;
+
+        Case(String family, int n, int[] from, int[] to, int[] weight, int source) {
+            this.family = family;
+            this.n = n;
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.source = source;
+        }
+
+        int edgeCount() {
+            return from.length;
+        }
+    }
+
+    public static void main(String[] args) {
+        int cases = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int maxNodes = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        DuanSolver.profile = false;
+
+        System.out.println("=== VERIFICAÇÃO DIFERENCIAL: " + cases + " casos (seed " + seed + ") ===");
+        Map<String, WorkCounters> work = new LinkedHashMap<>();
+        Map<String, Integer> failuresByEngine = new LinkedHashMap<>();
+        int failures = 0;
+        long start = System.currentTimeMillis();
+
+        for (int i = 0; i < cases; i++) {
+            Random random = new Random(seed * 1_000_003L + i);
+            // 1 em cada 10 casos é médio (10x maior)
+            Case c = generate(FAMILIES[i % FAMILIES.length], i % 10 == 9 ? maxNodes * 10 : maxNodes, random);
+            long targetSeed = random.nextLong();
+            String failure = check(c, null, work, targetSeed);
+            if (failure != null) {
+                failures++;
+                String engine = engineOf(failure);
+                failuresByEngine.merge(engine, 1, Integer::sum);
+                System.out.println("\nFALHA no caso " + i + " (" + c.family + ", " + c.n + " nós, " + c.edgeCount()
+                        + " arestas): " + failure);
+                // Mesmos destinos sorteados da falha, para o encolhimento reproduzi-la
+                Case minimal = shrink(c, engine, targetSeed);
+                System.out.println("Caso mínimo (" + minimal.n + " nós, " + minimal.edgeCount() + " arestas): "
+                        + check(minimal, engine, null, targetSeed));
+                printDimacs(minimal, seed, i);
+            }
+            if ((i + 1) % 100 == 0) {
+                System.out.println("   " + (i + 1) + " casos, " + failures + " falhas ("
+                        + (System.currentTimeMillis() - start) + "ms)");
+            }
+        }
+
+        System.out.println("\n--- TRABALHO POR MOTOR (somado em todos os casos) ---");
+        System.out.printf("%-16s %14s %14s %14s %14s %14s %12s%n", "Motor", "Relaxamentos", "Melhoras", "Inserções",
+                "Retiradas", "Finalizados", "bmssp");
+        for (Map.Entry<String, WorkCounters> entry : work.entrySet()) {
+            WorkCounters w = entry.getValue();
+            System.out.printf("%-16s %14d %14d %14d %14d %14d %12d%n", entry.getKey(), w.relaxations, w.improvements,
+                    w.heapPushes, w.heapPops, w.settled, w.recursionCalls);
+        }
+
+        if (failures == 0) {
+            System.out.println("\nSUCESSO: " + cases + " casos sem divergência.");
+        } else {
+            System.err.println("\nFALHA: " + failures + " casos com divergência " + failuresByEngine);
+            System.exit(1);
+        }
+    }
+
+    // ---------------------------------------------------------------- Geração
+
+    private static Case generate(String family, int maxNodes, Random random) {
+        int n = 2 + random.nextInt(Math.max(1, maxNodes - 1));
+        IntArrayList from = new IntArrayList();
+        IntArrayList to = new IntArrayList();
+        IntArrayList weight = new IntArrayList();
+
+        switch (family) {
+            case "sparse":
+                randomEdges(n, n * (1 + random.nextInt(3)), 1, 100, 0, random, from, to, weight);
+                break;
+            case "ties":
+                // Pesos 1 e 2: muitos caminhos com o mesmo custo
+                randomEdges(n, n * (2 + random.nextInt(3)), 1, 2, 0, random, from, to, weight);
+                break;
+            case "zero-weights":
+                randomEdges(n, n * 2, 0, 3, 0.4, random, from, to, weight);
+                // Ciclos de peso 0, como os do grafo transformado
+                for (int cycles = 1 + random.nextInt(3); cycles > 0; cycles--) {
+                    int length = 2 + random.nextInt(Math.min(6, n - 1));
+                    int first = 1 + random.nextInt(n);
+                    int previous = first;
+                    for (int k = 1; k < length; k++) {
+                        int next = 1 + random.nextInt(n);
+                        add(from, to, weight, previous, next, 0);
+                        previous = next;
+                    }
+                    add(from, to, weight, previous, first, 0);
+                }
+                break;
+            case "disconnected":
+                // Arestas só dentro de cada componente (IDs intercalados)
+                int components = 2 + random.nextInt(3);
+                for (int e = n * 2; e > 0; e--) {
+                    int u = 1 + random.nextInt(n);
+                    int v = 1 + random.nextInt(n);
+                    if (u % components == v % components) add(from, to, weight, u, v, 1 + random.nextInt(20));
+                }
+                break;
+            case "grid":
+                int side = Math.max(2, (int) Math.sqrt(n));
+                return fromSnapshot(family, new GraphGenerator(random.nextLong()).grid(side, side), random);
+            default: // power-law
+                return fromSnapshot(family, new GraphGenerator(random.nextLong()).powerLaw(n, 4, 2.5), random);
+        }
+        return new Case(family, n, from.toIntArray(), to.toIntArray(), weight.toIntArray(), 1 + random.nextInt(n));
+    }
+
+    private static void randomEdges(int n, int count, int minWeight, int maxWeight, double zeroChance, Random random,
+            IntArrayList from, IntArrayList to, IntArrayList weight) {
+        for (int e = 0; e < count; e++) {
+            int w = random.nextDouble() < zeroChance ? 0 : minWeight + random.nextInt(maxWeight - minWeight + 1);
+            add(from, to, weight, 1 + random.nextInt(n), 1 + random.nextInt(n), w);
+        }
+    }
+
+    private static void add(IntArrayList from, IntArrayList to, IntArrayList weight, int u, int v, int w) {
+        from.add(u);
+        to.add(v);
+        weight.add(w);
+    }
+
+    private static Case fromSnapshot(String family, GraphSnapshot snapshot, Random random) {
+        IntArrayList from = new IntArrayList();
+        IntArrayList to = new IntArrayList();
+        IntArrayList weight = new IntArrayList();
+        for (int u = 1; u <= snapshot.n; u++) {
+            for (int e = snapshot.first[u]; e < snapshot.first[u + 1]; e++) {
+                add(from, to, weight, u, snapshot.head[e], snapshot.weight[e]);
+            }
+        }
+        return new Case(family, snapshot.n, from.toIntArray(), to.toIntArray(), weight.toIntArray(),
+                1 + random.nextInt(snapshot.n));
+    }
+
+    // ------------------------------------------------------------ Verificação
+
+    /**
+     * Confere todos os motores (ou só onlyEngine, ao encolher) no caso.
+     * Devolve a primeira divergência ("motor: descrição") ou null. Com work
+     * != null, soma o trabalho de cada motor. Uma exceção vira divergência do
+     * motor que a lançou (inclusive no pré-processamento), para o encolhimento
+     * seguir o mesmo motor.
+     */
+    private static String check(Case c, String onlyEngine, Map<String, WorkCounters> work, long targetSeed) {
+        Graph graph;
+        VirtualIdMap idMap;
+        try {
+            Graph original = new Graph();
+            for (int u = 1; u <= c.n; u++) original.addNode(new Node(u, u * 1000L, 0));
+            for (int e = 0; e < c.edgeCount(); e++) original.addEdge(c.from[e], c.to[e], c.weight[e]);
+
+            GraphTransformer transformer = new GraphTransformer();
+            graph = transformer.toConstantDegree(original);
+            idMap = transformer.getIdMap();
+        } catch (Throwable e) {
+            return TRANSFORMER + ": " + e;
+        }
+        int s = idMap.toVirtual(c.source);
+
+        WorkCounters referenceWork = counters(work, REFERENCE);
+        StandardDijkstra reference = new StandardDijkstra(referenceWork == null ? new WorkCounters() : referenceWork);
+        double[] expected;
+        try {
+            expected = reference.compute(graph, s);
+        } catch (Throwable e) {
+            return REFERENCE + ": " + e;
+        }
+        String failure = attributed(REFERENCE,
+                () -> checkTree(REFERENCE, graph, idMap, s, expected, reference::getPath, c.n));
+        if (failure != null) return failure;
+
+        // Construídos só quando conferidos: o pré-processamento do ALT e da CH
+        // também pode falhar, e a falha é do motor
+        Map<String, Supplier<ShortestPathEngine>> engines = new LinkedHashMap<>();
+        engines.put(DijkstraEngine.NAME, () -> new DijkstraEngine(graph));
+        engines.put(DuanEngine.NAME, () -> new DuanEngine(graph));
+        engines.put(DeltaSteppingEngine.NAME, () -> new DeltaSteppingEngine(graph, new DeltaSteppingSolver()));
+        engines.put(AltEngine.NAME, () -> new AltEngine(graph,
+                new AltPreprocessor(4, AltPreprocessor.Strategy.FARTHEST, 42L, 1).build(graph)));
+        engines.put(ChEngine.NAME, () -> new ChEngine(new ChPreprocessor(1).build(graph)));
+
+        // Árvore de pais do Duan (o DuanEngine só expõe distâncias/rotas)
+        if (onlyEngine == null || onlyEngine.equals(DUAN_TREE)) {
+            failure = attributed(DUAN_TREE, () -> {
+                DuanSolver duan = new DuanSolver();
+                double[] dist = duan.compute(graph, s);
+                String treeFailure = compareAll(DUAN_TREE, graph, idMap, expected, dist);
+                return treeFailure != null ? treeFailure
+                        : checkTree(DUAN_TREE, graph, idMap, s, dist, duan::getPath, c.n);
+            });
+            if (failure != null) return failure;
+        }
+
+        Random random = new Random(targetSeed);
+        int[] targets = new int[SAMPLED_TARGETS];
+        for (int i = 0; i < targets.length; i++) targets[i] = idMap.toVirtual(1 + random.nextInt(c.n));
+
+        for (Map.Entry<String, Supplier<ShortestPathEngine>> entry : engines.entrySet()) {
+            String name = entry.getKey();
+            if (onlyEngine != null && !onlyEngine.equals(name)) continue;
+            WorkCounters engineWork = counters(work, name);
+            WorkCounters counters = engineWork == null ? new WorkCounters() : engineWork;
+            failure = attributed(name, () -> checkEngine(name, entry.getValue().get(), graph, idMap, s, c.source,
+                    expected, targets, counters));
+            if (failure != null) return failure;
+        }
+        return null;
+    }
+
+    private static String checkEngine(String name, ShortestPathEngine engine, Graph graph, VirtualIdMap idMap, int s,
+            int source, double[] expected, int[] targets, WorkCounters counters) {
+        if (engine.supportsOneToAll()) {
+            String failure = compareAll(name, graph, idMap, expected, engine.oneToAll(s, counters));
+            if (failure != null) return failure;
+        }
+        for (int t : targets) {
+            double distance = engine.supportsOneToAll() ? engine.distance(s, t) : engine.distance(s, t, counters);
+            if (distance != expected[t]) {
+                return name + ": distance(" + source + ", " + idMap.toOriginal(t) + ") = " + distance + ", esperado "
+                        + expected[t];
+            }
+            if (engine.supportsPath()) {
+                PathResult route = engine.route(s, t);
+                String failure = checkPath(name + " route", graph, idMap, s, t, expected[t], route.distance,
+                        route.path);
+                if (failure != null) return failure;
+            }
+        }
+        return null;
+    }
+
+    /** Roda uma conferência; uma exceção nela vira divergência de name. */
+    private static String attributed(String name, Supplier<String> conference) {
+        try {
+            return conference.get();
+        } catch (Throwable e) {
+            return name + ": " + e;
+        }
+    }
+
+    private static WorkCounters counters(Map<String, WorkCounters> work, String engine) {
+        return work == null ? null : work.computeIfAbsent(engine, k -> new WorkCounters());
+    }
+
+    private static String compareAll(String name, Graph graph, VirtualIdMap idMap, double[] expected, double[] dist) {
+        for (int v = 1; v <= graph.getNodeCount(); v++) {
+            if (dist[v] != expected[v]) {
+                return name + ": dist[" + v + "] (original " + idMap.toOriginal(v) + ") = " + dist[v] + ", esperado "
+                        + expected[v];
+            }
+        }
+        return null;
+    }
+
+    private interface PathSource {
+        List<Integer> getPath(int target);
+    }
+
+    /** Caminho de cada nó alcançado (todos, ou uma amostra em grafos grandes) pela árvore de pais. */
+    private static String checkTree(String name, Graph graph, VirtualIdMap idMap, int s, double[] dist,
+            PathSource tree, int originalCount) {
+        int n = graph.getNodeCount();
+        int step = Math.max(1, n / FULL_TREE_LIMIT);
+        for (int v = 1; v <= n; v += step) {
+            if (dist[v] == Double.MAX_VALUE) continue;
+            List<Integer> path = tree.getPath(v);
+            int[] nodes = new int[path.size()];
+            for (int i = 0; i < nodes.length; i++) nodes[i] = path.get(i);
+            String failure = checkPath(name, graph, idMap, s, v, dist[v], dist[v], nodes);
+            if (failure != null) return failure;
+        }
+        return null;
+    }
+
+    /** path vai de s a t por arestas existentes e soma expected; inalcançável = caminho vazio. */
+    private static String checkPath(String name, Graph graph, VirtualIdMap idMap, int s, int t, double expected,
+            double reported, int[] path) {
+        String pair = "(" + idMap.toOriginal(s) + " -> " + idMap.toOriginal(t) + ")";
+        if (reported != expected) return name + ": distância " + reported + " " + pair + ", esperado " + expected;
+        if (expected == Double.MAX_VALUE) {
+            return path.length == 0 ? null : name + ": caminho " + pair + " para destino inalcançável";
+        }
+        if (path.length == 0 || path[0] != s || path[path.length - 1] != t) {
+            return name + ": caminho " + pair + " não liga origem e destino: " + Arrays.toString(path);
+        }
+        long sum = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            long w = cheapestEdge(graph, path[i], path[i + 1]);
+            if (w < 0) return name + ": caminho " + pair + " usa aresta inexistente " + path[i] + " -> " + path[i + 1];
+            sum += w;
+        }
+        return sum == expected ? null : name + ": caminho " + pair + " custa " + sum + ", esperado " + expected;
+    }
+
+    private static long cheapestEdge(Graph graph, int u, int v) {
+        long best = -1;
+        for (Edge e : graph.getAdjacencyList().get(u)) {
+            if (e.target == v && (best < 0 || e.weight < best)) best = e.weight;
+        }
+        return best;
+    }
+
+    private static String engineOf(String failure) {
+        String engine = failure.substring(0, failure.indexOf(':'));
+        return engine.endsWith(" route") ? engine.substring(0, engine.length() - " route".length()) : engine;
+    }
+
+    // ------------------------------------------------------------ Encolhimento
+
+    /**
+     * Menor caso em que engine ainda falha: tira blocos de arestas (metade,
+     * quarto, ... até uma), troca pesos por 1 e remove nós sem arestas,
+     * repetindo enquanto algo mudar.
+     */
+    private static Case shrink(Case c, String engine, long targetSeed) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int chunk = Math.max(1, c.edgeCount() / 2); chunk >= 1; chunk /= 2) {
+                for (int start = 0; start < c.edgeCount();) {
+                    Case candidate = withoutEdges(c, start, Math.min(c.edgeCount(), start + chunk));
+                    if (fails(candidate, engine, targetSeed)) {
+                        c = candidate;
+                        changed = true;
+                    } else {
+                        start += chunk;
+                    }
+                }
+            }
+            for (int e = 0; e < c.edgeCount(); e++) {
+                if (c.weight[e] <= 1) continue;
+                int[] weight = c.weight.clone();
+                weight[e] = 1;
+                Case candidate = new Case(c.family, c.n, c.from, c.to, weight, c.source);
+                if (fails(candidate, engine, targetSeed)) {
+                    c = candidate;
+                    changed = true;
+                }
+            }
+            Case compact = compact(c);
+            if (compact.n < c.n && fails(compact, engine, targetSeed)) {
+                c = compact;
+                changed = true;
+            }
+        }
+        return c;
+    }
+
+    private static boolean fails(Case c, String engine, long targetSeed) {
+        String failure = check(c, engine, null, targetSeed);
+        return failure != null && engineOf(failure).equals(engine);
+    }
+
+    private static Case withoutEdges(Case c, int start, int end) {
+        int m = c.edgeCount() - (end - start);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] weight = new int[m];
+        for (int e = 0, k = 0; e < c.edgeCount(); e++) {
+            if (e >= start && e < end) continue;
+            from[k] = c.from[e];
+            to[k] = c.to[e];
+            weight[k++] = c.weight[e];
+        }
+        return new Case(c.family, c.n, from, to, weight, c.source);
+    }
+
+    /** Renumera só os nós com arestas (e a origem), na ordem dos IDs. */
+    private static Case compact(Case c) {
+        int[] newId = new int[c.n + 1];
+        newId[c.source] = 1;
+        for (int e = 0; e < c.edgeCount(); e++) {
+            newId[c.from[e]] = 1;
+            newId[c.to[e]] = 1;
+        }
+        int n = 0;
+        for (int u = 1; u <= c.n; u++) {
+            if (newId[u] != 0) newId[u] = ++n;
+        }
+        int[] from = new int[c.edgeCount()];
+        int[] to = new int[c.edgeCount()];
+        for (int e = 0; e < c.edgeCount(); e++) {
+            from[e] = newId[c.from[e]];
+            to[e] = newId[c.to[e]];
+        }
+        return new Case(c.family, Math.max(n, 1), from, to, c.weight, newId[c.source]);
+    }
+
+    private static void printDimacs(Case c, long seed, int index) {
+        System.out.println("c DifferentialCheck seed " + seed + ", caso " + index + " (" + c.family + "), origem "
+                + c.source);
+        System.out.println("p sp " + c.n + " " + c.edgeCount());
+        for (int e = 0; e < c.edgeCount(); e++) {
+            System.out.println("a " + c.from[e] + " " + c.to[e] + " " + c.weight[e]);
+        }
+    }
+}
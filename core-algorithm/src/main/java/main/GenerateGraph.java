@@ -0,0 +1,54 @@
+package main;
+
+import java.io.IOException;
+
+import gen.GraphGenerator;
+import io.GraphSnapshot;
+
+/**
+ * Gera um grafo sintético e grava como snapshot binário (.grs). Gravado como
+ * C:/dados/USA-road-t.<NOME>.grs, a API já serve a região em /api/<NOME>/route.
+ *
+ * Uso: GenerateGraph <grid|geometric|power-law> <nós> <saída.grs> [seed] [grau médio] [expoente]
+ * Ex:  GenerateGraph grid 10000000 C:/dados/USA-road-t.GRID10M.grs 42
+ */
+public class GenerateGraph {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: GenerateGraph <grid|geometric|power-law> <nós> <saída.grs> [seed] [grau médio] [expoente]");
+            System.exit(1);
+        }
+        String type = args[0];
+        int n = Integer.parseInt(args[1]);
+        String output = args[2];
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        double avgDegree = args.length > 4 ? Double.parseDouble(args[4]) : 6;
+        double exponent = args.length > 5 ? Double.parseDouble(args[5]) : 2.5;
+
+        GraphGenerator generator = new GraphGenerator(seed);
+        System.out.print("Gerando grafo " + type + " com " + n + " nós (seed " + seed + ")... ");
+        long start = System.currentTimeMillis();
+        GraphSnapshot graph;
+        switch (type) {
+            case "grid":
+                int side = (int) Math.round(Math.sqrt(n));
+                graph = generator.grid(side, side);
+                break;
+            case "geometric":
+                graph = generator.geometric(n, avgDegree);
+                break;
+            case "power-law":
+                graph = generator.powerLaw(n, avgDegree, exponent);
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo desconhecido: " + type);
+        }
+        System.out.println("OK (" + (System.currentTimeMillis() - start) + "ms)");
+        System.out.println("   " + graph.n + " nós, " + graph.head.length + " arestas.");
+
+        start = System.currentTimeMillis();
+        graph.save(output);
+        System.out.println("Snapshot gravado em " + output + " (" + (System.currentTimeMillis() - start) + "ms)");
+    }
+}
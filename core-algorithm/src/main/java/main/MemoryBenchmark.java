@@ -0,0 +1,182 @@
+package main;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import algos.DeltaSteppingSolver;
+import algos.StandardDijkstra;
+import algos.alt.AltPreprocessor;
+import algos.alt.LandmarkTable;
+import algos.ch.ChPreprocessor;
+import algos.ch.ContractionHierarchy;
+import algos.duan.DuanContext;
+import algos.duan.DuanSolver;
+import gen.GraphGenerator;
+import graph.CompactGraph;
+import graph.DynamicGraph;
+import graph.Graph;
+import graph.GraphTransformer;
+import graph.MemoryFootprint;
+import graph.VirtualIdMap;
+import io.GraphSnapshot;
+
+/**
+ * Memória de cada representação do mesmo grafo, lado a lado: a estimativa
+ * (getMemoryBytes, a mesma do /api/admin/memory) contra o heap medido (uso
+ * depois de GC, antes e depois de criar a estrutura), em bytes por nó e por
+ * aresta. Mede também o pico transitório da carga (snapshot -> Graph) e da
+ * transformação, e o pico de uma consulta do Duan e do Dijkstra.
+ *
+ * Uso: MemoryBenchmark [grid|geometric|power-law] [nós=200000] [seed=42] [ch=true]
+ * Rode com heap fixo (ex: -Xms4g -Xmx4g) para o GC não redimensionar no meio.
+ */
+public class MemoryBenchmark {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    // Segura as estruturas até o fim, para o GC não levar entre as medições
+    private static final Object[] keep = new Object[16];
+
+    public static void main(String[] args) {
+        String type = args.length > 0 ? args[0] : "grid";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        boolean withCh = args.length <= 3 || Boolean.parseBoolean(args[3]);
+        DuanSolver.profile = false;
+
+        System.out.println("=== MEMÓRIA POR REPRESENTAÇÃO: " + type + ", " + n + " nós (seed " + seed + ") ===");
+        System.out.printf("%-28s %14s %14s %7s %10s %12s%n", "Representação", "Estimado", "Medido", "Erro",
+                "B/nó", "B/aresta");
+
+        usedAfterGc(); // A primeira coleta ainda libera o lixo da inicialização
+        long before = usedAfterGc();
+        GraphSnapshot snapshot = generate(type, n, seed);
+        long m = snapshot.head.length;
+        report("GraphSnapshot (arrays)", snapshot.getMemoryBytes(), usedAfterGc() - before, snapshot.n, m, 0);
+
+        before = usedAfterGc();
+        MemoryFootprint.HeapPeak peak = new MemoryFootprint.HeapPeak();
+        Graph raw = snapshot.toGraph();
+        long loadPeak = peak.peak();
+        report("Graph original (objetos)", raw.getMemoryBytes(), usedAfterGc() - before, snapshot.n, m, loadPeak);
+        keep[0] = snapshot;
+        keep[1] = raw;
+
+        before = usedAfterGc();
+        peak = new MemoryFootprint.HeapPeak();
+        GraphTransformer transformer = new GraphTransformer();
+        Graph graph = transformer.toConstantDegree(raw);
+        long transformPeak = peak.peak();
+        VirtualIdMap idMap = transformer.getIdMap();
+        long virtualNodes = graph.getNodeCount();
+        long virtualEdges = graph.getEdgeCount();
+        long measured = usedAfterGc() - before;
+        long graphBytes = graph.getMemoryBytes();
+        report("Graph transformado", graphBytes, measured - idMap.getMemoryBytes(), virtualNodes, virtualEdges,
+                transformPeak);
+        report("VirtualIdMap", idMap.getMemoryBytes(), -1, virtualNodes, 0, 0);
+        keep[2] = graph;
+        keep[3] = idMap;
+
+        before = usedAfterGc();
+        CompactGraph compact = CompactGraph.from(graph);
+        report("CompactGraph (CSR)", compact.getMemoryBytes(), usedAfterGc() - before, virtualNodes, virtualEdges, 0);
+        keep[4] = compact;
+
+        before = usedAfterGc();
+        DynamicGraph dynamic = new DynamicGraph(graph);
+        report("DynamicGraph (CSR + reverso)", dynamic.getMemoryBytes(), usedAfterGc() - before, virtualNodes,
+                virtualEdges, 0);
+        keep[5] = dynamic;
+
+        before = usedAfterGc();
+        DeltaSteppingSolver delta = new DeltaSteppingSolver();
+        delta.compute(graph, 1);
+        report("Delta-Stepping (CSR + dist)", delta.getMemoryBytes(), usedAfterGc() - before, virtualNodes,
+                virtualEdges, 0);
+        keep[6] = delta;
+
+        before = usedAfterGc();
+        LandmarkTable landmarks = new AltPreprocessor().build(graph);
+        report("ALT (" + landmarks.getLandmarkCount() + " landmarks)", landmarks.getMemoryBytes(),
+                usedAfterGc() - before, virtualNodes, virtualEdges, 0);
+        keep[7] = landmarks;
+
+        if (withCh) {
+            before = usedAfterGc();
+            ContractionHierarchy ch = new ChPreprocessor().build(graph);
+            report("CH (" + ch.getShortcutCount() + " atalhos)", ch.getMemoryBytes(), usedAfterGc() - before,
+                    virtualNodes, virtualEdges, 0);
+            keep[8] = ch;
+        }
+
+        // Por consulta: só o pico (o contexto vira lixo no fim)
+        DuanSolver duan = new DuanSolver();
+        duan.compute(graph, 1);
+        usedAfterGc();
+        peak = new MemoryFootprint.HeapPeak();
+        duan.compute(graph, 1);
+        report("Consulta Duan (por thread)", DuanContext.estimateBytes((int) virtualNodes, false), -1, virtualNodes,
+                virtualEdges, peak.peak());
+        keep[9] = duan;
+
+        usedAfterGc();
+        peak = new MemoryFootprint.HeapPeak();
+        new StandardDijkstra().compute(graph, 1);
+        report("Consulta Dijkstra", -1, -1, virtualNodes, virtualEdges, peak.peak());
+
+        long resident = graphBytes + idMap.getMemoryBytes() + dynamic.getMemoryBytes() + delta.getMemoryBytes()
+                + landmarks.getMemoryBytes() + (withCh ? ((ContractionHierarchy) keep[8]).getMemoryBytes() : 0)
+                + MemoryFootprint.array(2L * (snapshot.n + 1), 8);
+        System.out.println();
+        System.out.printf("Residente na API (transformado, IDs, coordenadas, CSRs, ALT%s): %,d bytes = %.1f B/nó original%n",
+                withCh ? ", CH" : "", resident, (double) resident / snapshot.n);
+        System.out.printf("Pico da carga + transformação (original + transformado juntos): >= %,d bytes%n",
+                raw.getMemoryBytes() + graphBytes + idMap.getMemoryBytes());
+        System.out.println("(Medido = heap depois de GC; Pico = maior uso dos pools durante a fase, inclui lixo)");
+        System.out.println("(O Delta-Stepping medido inclui os buffers de cada thread do pool, fora da estimativa)");
+    }
+
+    private static GraphSnapshot generate(String type, int n, long seed) {
+        GraphGenerator generator = new GraphGenerator(seed);
+        switch (type) {
+            case "grid":
+                int side = (int) Math.round(Math.sqrt(n));
+                return generator.grid(side, side);
+            case "geometric":
+                return generator.geometric(n, 6);
+            case "power-law":
+                return generator.powerLaw(n, 6, 2.5);
+            default:
+                throw new IllegalArgumentException("Tipo desconhecido: " + type);
+        }
+    }
+
+    /** Uma linha: -1 = não se aplica. peak > 0 sai numa linha a mais. */
+    private static void report(String name, long estimated, long measured, long nodes, long edges, long peak) {
+        long basis = estimated >= 0 ? estimated : measured;
+        String error = estimated > 0 && measured > 0
+                ? String.format("%+.0f%%", 100.0 * (estimated - measured) / measured) : "";
+        System.out.printf("%-28s %14s %14s %7s %10s %12s%n", name, bytes(estimated), bytes(measured), error,
+                basis >= 0 ? String.format("%.1f", (double) basis / nodes) : "",
+                basis >= 0 && edges > 0 ? String.format("%.1f", (double) basis / edges) : "");
+        if (peak > 0) {
+            System.out.printf("%-28s %14s %14s %7s %10.1f %12s%n", "   pico transitório", "", bytes(peak), "",
+                    (double) peak / nodes, edges > 0 ? String.format("%.1f", (double) peak / edges) : "");
+        }
+    }
+
+    private static String bytes(long value) {
+        return value < 0 ? "-" : String.format("%,d", value);
+    }
+
+    /**
+     * Várias coletas seguidas: logo depois do build da CH, três ainda deixavam
+     * o estado da contração vivo (+66 MB no grid de 200 mil nós), preso em
+     * referências fracas (ThreadLocal das threads do pool) que caem em etapas.
+     */
+    private static long usedAfterGc() {
+        for (int i = 0; i < 8; i++) System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
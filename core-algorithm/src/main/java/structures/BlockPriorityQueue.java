@@ -180,6 +180,20 @@ public class BlockPriorityQueue implements DuanHeap {
     @Override
     public void batchPrepend(List<HeapItem> items) {
         if (items.isEmpty()) return;
+        HeapEvents.BatchPrepend event = new HeapEvents.BatchPrepend();
+        event.begin();
+        int sizeBefore = size;
+        prepend(items);
+        event.end();
+        if (event.shouldCommit()) {
+            event.m = M;
+            event.items = items.size();
+            event.accepted = size - sizeBefore;
+            event.commit();
+        }
+    }
+
+    private void prepend(List<HeapItem> items) {
 
         Block current = new Block((int)Math.min(items.size(), M));
         
@@ -204,88 +218,101 @@ public class BlockPriorityQueue implements DuanHeap {
 
     @Override
     public PullResult pull() {
+        HeapEvents.Pull event = new HeapEvents.Pull();
+        event.begin();
+        int sizeBefore = currentBest.size();
+        PullResult result = pullItems();
+        event.end();
+        if (event.shouldCommit()) {
+            event.m = M;
+            event.queueSize = sizeBefore;
+            event.items = result.items.size();
+            event.newBound = result.newBound;
+            event.commit();
+        }
+        return result;
+    }
+
+    private PullResult pullItems() {
         if (isEmpty()) return new PullResult(new ArrayList<>(), globalBound);
 
+        // Só entram entradas válidas (chave == melhor valor atual do nó), uma por nó:
+        // entradas velhas de decrease-key não ocupam as M vagas nem definem o limite
         List<HeapItem> candidates = new ArrayList<>();
+        IntSet seen = new IntOpenHashSet();
         
         // 1. Drenar D0 (Buffer não ordenado)
         while (!D0.isEmpty()) {
-            Block b = D0.pollFirst();
-            for(int i=0; i<b.size(); i++) {
-                candidates.add(new HeapItem(b.nodes.getInt(i), b.costs.getDouble(i)));
-            }
+            collectValid(D0.pollFirst(), candidates, seen);
         }
 
         // 2. Drenar D1 (Blocos ordenados)
         // Agora que as chaves são "Tight", a ordem do TreeMap reflete a realidade.
+        // Precisa de mais de M itens válidos vindos de D1: assim o (M+1)-ésimo
+        // candidato é <= tudo que fica nos blocos seguintes.
         int takenFromD1 = 0;
         Iterator<Map.Entry<Double, Block>> it = D1.entrySet().iterator();
-        while (it.hasNext() && takenFromD1 < M) {
+        while (it.hasNext() && takenFromD1 <= M) {
             Map.Entry<Double, Block> entry = it.next();
-            Block b = entry.getValue();
-            for(int i=0; i<b.size(); i++) {
-                candidates.add(new HeapItem(b.nodes.getInt(i), b.costs.getDouble(i)));
-            }
-            takenFromD1 += b.size();
+            takenFromD1 += collectValid(entry.getValue(), candidates, seen);
             it.remove(); 
         }
 
         if (candidates.size() <= M) {
-            List<HeapItem> validItems = filterValid(candidates);
-            
-            // Reset total
+            // D1 acabou: tudo que restava sai neste pull
             size = 0;
             D0.clear();
             D1.clear();
+            currentBest.clear();
             Block sentinel = new Block(10); 
             sentinel.maxVal = globalBound;
             D1.put(globalBound, sentinel);
             
-            return new PullResult(validItems, globalBound);
+            return new PullResult(candidates, globalBound);
         }
 
         candidates.sort(Comparator.comparingDouble(item -> item.distance));
 
-        List<HeapItem> returnSet = new ArrayList<>();
-        List<HeapItem> leftOvers = new ArrayList<>();
-        double newBound = globalBound;
-        
-        for (int i = 0; i < candidates.size(); i++) {
-            HeapItem item = candidates.get(i);
-            if (i < M) {
-                returnSet.add(item);
-            } else {
-                if (i == M) newBound = item.distance;
-                leftOvers.add(item);
-            }
-        }
-        
-        returnSet = filterValid(returnSet);
-        size -= returnSet.size();
+        List<HeapItem> returnSet = new ArrayList<>(candidates.subList(0, (int) M));
+        double newBound = candidates.get((int) M).distance;
+
+        // Quem saiu da fila deixa de ter "melhor valor": o bmssp pode devolvê-lo
+        // (S_i incompleto no BatchPrepend, fronteira dos filhos) com a mesma chave
+        for (HeapItem item : returnSet) currentBest.remove(item.nodeId);
 
         // Reinsere sobras (vão encontrar seu lugar correto no TreeMap devido ao insert Tight)
-        for (HeapItem item : leftOvers) {
+        for (int i = (int) M; i < candidates.size(); i++) {
+            HeapItem item = candidates.get(i);
+            currentBest.remove(item.nodeId);
             insert(item.nodeId, item.distance);
         }
+        size = currentBest.size();
 
         return new PullResult(returnSet, newBound);
     }
 
-    private List<HeapItem> filterValid(List<HeapItem> items) {
-        List<HeapItem> valid = new ArrayList<>(items.size());
-        for (HeapItem item : items) {
-            if (item.distance <= currentBest.get(item.nodeId)) {
-                valid.add(item);
+    private int collectValid(Block b, List<HeapItem> out, IntSet seen) {
+        int added = 0;
+        for (int i = 0; i < b.size(); i++) {
+            int u = b.nodes.getInt(i);
+            double w = b.costs.getDouble(i);
+            if (w == currentBest.get(u) && seen.add(u)) {
+                out.add(new HeapItem(u, w));
+                added++;
             }
         }
-        return valid;
+        return added;
+    }
+
+    @Override
+    public int size() {
+        return currentBest.size();
     }
 
     @Override
     public boolean isEmpty() {
-        if (!D0.isEmpty()) return false;
-        if (D1.isEmpty()) return true;
-        return size == 0;
+        // currentBest guarda exatamente os nós vivos (entradas velhas não contam)
+        return currentBest.isEmpty();
     }
     
     @Override
@@ -305,6 +332,7 @@ public class BlockPriorityQueue implements DuanHeap {
         // Limpa a estrutura
         D0.clear();
         D1.clear();
+        currentBest.clear();
         size = 0;
         
         return leftovers;
@@ -20,6 +20,7 @@ public interface DuanHeap {
     void batchPrepend(List<HeapItem> items);
     PullResult pull();
     boolean isEmpty();
+    int size(); // Itens vivos na fila
     
     // NOVO MÉTODO
     IntSet drain(); 
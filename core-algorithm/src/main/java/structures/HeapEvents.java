@@ -0,0 +1,61 @@
+package structures;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Eventos do Java Flight Recorder da BlockPriorityQueue. Sem gravação ativa
+ * (ou abaixo do threshold) o custo é um objeto que o JIT elimina e um
+ * shouldCommit(); os campos só são preenchidos quando o evento vai ser gravado.
+ */
+public final class HeapEvents {
+
+    private HeapEvents() {
+    }
+
+    @Name(Pull.NAME)
+    @Label("BlockPriorityQueue.pull")
+    @Category({ "Duan SSSP", "Fila" })
+    @Description("Um pull: até M itens de menor chave e o novo limite")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class Pull extends Event {
+        public static final String NAME = "duan.Pull";
+
+        @Label("M")
+        public long m;
+
+        @Label("Itens na fila")
+        public int queueSize;
+
+        @Label("Itens devolvidos")
+        public int items;
+
+        @Label("Novo limite")
+        public double newBound;
+    }
+
+    @Name(BatchPrepend.NAME)
+    @Label("BlockPriorityQueue.batchPrepend")
+    @Category({ "Duan SSSP", "Fila" })
+    @Description("Um batchPrepend: itens menores que tudo na fila entrando em D0")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class BatchPrepend extends Event {
+        public static final String NAME = "duan.BatchPrepend";
+
+        @Label("M")
+        public long m;
+
+        @Label("Itens recebidos")
+        public int items;
+
+        @Label("Itens aceitos")
+        public int accepted;
+    }
+}
@@ -0,0 +1,44 @@
+package structures;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
+
+/**
+ * Lista livre de áreas de trabalho (arrays de tamanho n) de uma estrutura
+ * ligada a um grafo: cada consulta pega uma com borrow (ou ganha uma nova),
+ * usa só na própria thread e devolve com giveBack. Fica no máximo uma por
+ * consulta simultânea.
+ *
+ * No lugar de um ThreadLocal porque as threads são as dos pools do serviço,
+ * que vivem mais que o grafo: o valor de um ThreadLocal só sai do mapa da
+ * thread quando a entrada velha é varrida. Aqui clear() solta todas de uma
+ * vez quando o grafo sai de uso, e o que for devolvido depois é descartado.
+ */
+public final class WorkspacePool<T> {
+
+    private final Supplier<T> factory;
+    private final ConcurrentLinkedDeque<T> free = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    public WorkspacePool(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    public T borrow() {
+        T workspace = free.pollFirst();
+        return workspace != null ? workspace : factory.get();
+    }
+
+    /** Devolve uma área de uma consulta que terminou bem (estado consistente para a próxima). */
+    public void giveBack(T workspace) {
+        if (closed) return;
+        free.push(workspace);
+        if (closed) free.clear(); // clear() correu entre o teste e o push
+    }
+
+    /** Solta as áreas livres; daqui em diante borrow cria e giveBack descarta. */
+    public void clear() {
+        closed = true;
+        free.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Random;
+
+import gen.GraphGenerator;
+import graph.Graph;
+import graph.Node;
+
+/**
+ * Grafos e consultas fixos para os benchmarks: tudo sai de uma semente, então
+ * duas rodadas (ou duas versões do código) medem exatamente o mesmo trabalho.
+ */
+public class BenchGraphs {
+
+    public static final long SEED = 42;
+
+    /** Malha viária side x side (ver GraphGenerator.grid), no Graph de objetos que os solvers usam. */
+    public static Graph roadGrid(int side, long seed) {
+        return new GraphGenerator(seed).grid(side, side).toGraph();
+    }
+
+    /** count nós aleatórios (com arestas de saída) entre 1 e n. */
+    public static int[] queryNodes(Graph graph, int count, long seed) {
+        Random random = new Random(seed);
+        int n = graph.getNodeCount();
+        int[] nodes = new int[count];
+        for (int i = 0; i < count; i++) {
+            int u;
+            do {
+                u = 1 + random.nextInt(n);
+            } while (graph.getAdjacencyList().get(u).isEmpty());
+            nodes[i] = u;
+        }
+        return nodes;
+    }
+
+    /** Grava o grafo em .gr/.co (DIMACS) temporários: [0] = .gr, [1] = .co. */
+    public static File[] writeDimacs(Graph graph) throws IOException {
+        File gr = File.createTempFile("bench", ".gr");
+        File co = File.createTempFile("bench", ".co");
+        gr.deleteOnExit();
+        co.deleteOnExit();
+        int n = graph.getNodeCount();
+
+        try (PrintWriter out = new PrintWriter(co)) {
+            out.println("p aux sp co " + n);
+            for (int u = 1; u <= n; u++) {
+                Node node = graph.getNodes().get(u);
+                out.println("v " + u + " " + Math.round(node.longitude * 1_000_000) + " "
+                        + Math.round(node.latitude * 1_000_000));
+            }
+        }
+        try (PrintWriter out = new PrintWriter(gr)) {
+            out.println("p sp " + n + " " + graph.getEdgeCount());
+            for (int u = 1; u <= n; u++) {
+                List<Graph.Edge> edges = graph.getAdjacencyList().get(u);
+                for (Graph.Edge e : edges) {
+                    out.println("a " + u + " " + e.target + " " + e.weight);
+                }
+            }
+        }
+        return new File[] { gr, co };
+    }
+}
@@ -0,0 +1,114 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import structures.BlockPriorityQueue;
+import structures.DuanHeap.PullResult;
+import structures.HeapItem;
+
+/**
+ * BlockPriorityQueue (o D do Lema 3.3) com blocos de tamanho M diferentes.
+ * Cada invocação trabalha com KEYS chaves (nós distintos, distâncias
+ * aleatórias com semente fixa); o tempo sai por chave.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HeapBenchmark {
+
+    static final int KEYS = 100_000;
+    static final double BOUND = 1e12;
+
+    @State(Scope.Thread)
+    public static class Keys {
+        @Param({ "16", "256", "4096" })
+        public int m;
+
+        int[] nodes;
+        double[] distances;
+        List<List<HeapItem>> batches; // KEYS itens em lotes de M; cada lote menor que os anteriores
+        final BlockPriorityQueue queue = new BlockPriorityQueue();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(BenchGraphs.SEED);
+            nodes = new int[KEYS];
+            distances = new double[KEYS];
+            for (int i = 0; i < KEYS; i++) {
+                nodes[i] = i + 1;
+                distances[i] = random.nextDouble() * BOUND;
+            }
+
+            // batchPrepend exige lotes menores que tudo que já está na fila: o último lote tem as menores chaves
+            double[] sorted = distances.clone();
+            Arrays.sort(sorted);
+            batches = new ArrayList<>();
+            for (int end = KEYS; end > 0; end -= m) {
+                List<HeapItem> batch = new ArrayList<>(m);
+                for (int i = Math.max(0, end - m); i < end; i++) batch.add(new HeapItem(i + 1, sorted[i]));
+                batches.add(batch);
+            }
+        }
+    }
+
+    /** A fila é enchida (fora da medição) antes de cada invocação de pull. */
+    @State(Scope.Thread)
+    public static class FilledQueue {
+        final BlockPriorityQueue queue = new BlockPriorityQueue();
+
+        @Setup(Level.Invocation)
+        public void fill(Keys keys) {
+            queue.initialize(keys.m, BOUND);
+            for (int i = 0; i < KEYS; i++) queue.insert(keys.nodes[i], keys.distances[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public BlockPriorityQueue insert(Keys keys) {
+        BlockPriorityQueue queue = keys.queue;
+        queue.initialize(keys.m, BOUND);
+        for (int i = 0; i < KEYS; i++) queue.insert(keys.nodes[i], keys.distances[i]);
+        return queue;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public BlockPriorityQueue batchPrepend(Keys keys) {
+        BlockPriorityQueue queue = keys.queue;
+        queue.initialize(keys.m, BOUND);
+        for (List<HeapItem> batch : keys.batches) queue.batchPrepend(batch);
+        return queue;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void pull(FilledQueue filled, Blackhole bh) {
+        while (!filled.queue.isEmpty()) {
+            PullResult result = filled.queue.pull();
+            bh.consume(result.items);
+            bh.consume(result.newBound);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graph.Graph;
+import graph.GraphTransformer;
+import io.DimacsLoader;
+
+/**
+ * Carga (DimacsLoader, .gr + .co em texto) e GraphTransformer. A carga
+ * também conta os bytes lidos: o JMH mostra a vazão em bytes/s ao lado do
+ * tempo por arquivo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Benchmark)
+public class LoaderBenchmark {
+
+    @Param({ "100", "300" })
+    public int side;
+
+    private Graph raw;
+    private File gr;
+    private File co;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        raw = BenchGraphs.roadGrid(side, BenchGraphs.SEED);
+        File[] files = BenchGraphs.writeDimacs(raw);
+        gr = files[0];
+        co = files[1];
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+    }
+
+    @Benchmark
+    public Graph dimacsLoad(Bytes counter) throws IOException {
+        Graph graph = new DimacsLoader().load(gr.getPath(), co.getPath());
+        counter.bytes += gr.length() + co.length();
+        return graph;
+    }
+
+    @Benchmark
+    public Graph transform() {
+        return new GraphTransformer().toConstantDegree(raw);
+    }
+}
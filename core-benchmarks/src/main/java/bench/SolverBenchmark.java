@@ -0,0 +1,84 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import algos.DijkstraSolver;
+import algos.StandardDijkstra;
+import algos.duan.DuanSolver;
+import graph.Graph;
+import graph.GraphTransformer;
+
+/**
+ * Solvers sobre o mesmo grafo transformado (o DuanSolver só roda nele) e o
+ * mesmo conjunto fixo de consultas. One-to-all é comparado com one-to-all
+ * (Duan x StandardDijkstra) e ponto-a-ponto fica à parte (DijkstraSolver,
+ * que para no destino). O tempo sai por consulta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    static final int QUERIES = 8;
+
+    @Param({ "100", "300" }) // Lado da grade: 10^4 e 9 * 10^4 nós originais
+    public int side;
+
+    private Graph graph;
+    private int[] sources;
+    private int[] targets;
+
+    // Reaproveitados entre consultas, como no GraphService
+    private final DuanSolver duan = new DuanSolver();
+    private final StandardDijkstra dijkstra = new StandardDijkstra();
+    private final DijkstraSolver pointToPoint = new DijkstraSolver();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Sem o resumo de profiling no stdout: senão o Duan mede também os println
+        DuanSolver.profile = false;
+        Graph raw = BenchGraphs.roadGrid(side, BenchGraphs.SEED);
+        GraphTransformer transformer = new GraphTransformer();
+        graph = transformer.toConstantDegree(raw);
+        int[] rawSources = BenchGraphs.queryNodes(raw, QUERIES, BenchGraphs.SEED);
+        int[] rawTargets = BenchGraphs.queryNodes(raw, QUERIES, BenchGraphs.SEED + 1);
+        sources = transformer.getIdMap().toVirtual(rawSources);
+        targets = transformer.getIdMap().toVirtual(rawTargets);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void duanOneToAll(Blackhole bh) {
+        for (int s : sources) bh.consume(duan.compute(graph, s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void standardDijkstraOneToAll(Blackhole bh) {
+        for (int s : sources) bh.consume(dijkstra.compute(graph, s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void dijkstraSolverPointToPoint(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) bh.consume(pointToPoint.compute(graph, sources[i], targets[i]));
+    }
+}
@@ -1,5 +1,141 @@
 package br.udesc.tcc.api.controller;
 
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.udesc.tcc.api.dto.AdminLoadRequest;
+import br.udesc.tcc.api.dto.AdminSnapshotRequest;
+import br.udesc.tcc.api.dto.GraphStatusResponse;
+import br.udesc.tcc.api.dto.MemoryReportResponse;
+import br.udesc.tcc.api.dto.RecordingRequest;
+import br.udesc.tcc.api.dto.RecordingStatusResponse;
+import br.udesc.tcc.api.dto.RegionsResponse;
+import br.udesc.tcc.api.service.GraphService;
+import br.udesc.tcc.api.service.RecordingService;
+
+// Sem @CrossOrigin: os endpoints leem e gravam arquivos do servidor, então não ficam abertos a
+// qualquer página aberta num navegador que alcance a API
+@RestController
+@RequestMapping("/api/admin")
 public class AdminController {
 
+	@Autowired
+	private GraphService graphService;
+
+	@Autowired
+	private RecordingService recordingService;
+
+	@GetMapping("/graph")
+	public GraphStatusResponse getGraph(@RequestParam(value = "region", required = false) String region) {
+		// Exemplo: GET /api/admin/graph?region=BAY (sem region: a padrão)
+		return graphService.getStatus(region);
+	}
+
+	/**
+	 * Memória estimada de cada estrutura da região (grafo, IDs, coordenadas,
+	 * CSRs, CH, ALT, cache de árvores), em bytes por nó e por aresta, e o pico
+	 * da última carga.
+	 */
+	@GetMapping("/memory")
+	public MemoryReportResponse getMemory(@RequestParam(value = "region", required = false) String region) {
+		// Exemplo: GET /api/admin/memory?region=BAY
+		return graphService.getMemoryReport(region);
+	}
+
+	@GetMapping("/regions")
+	public RegionsResponse getRegions() {
+		// Exemplo: GET /api/admin/regions
+		return graphService.getRegions();
+	}
+
+	/**
+	 * Troca o conjunto de dados sem derrubar a API: carrega em segundo plano
+	 * e responde 202 na hora. Acompanhe por GET /api/admin/graph (a versão
+	 * muda quando a nova entra no ar).
+	 */
+	@PostMapping("/graph")
+	public ResponseEntity<GraphStatusResponse> loadGraph(@RequestBody AdminLoadRequest request) {
+		// Exemplo: POST /api/admin/graph {"region":"BAY","gr":"USA-road-t.BAY.gr","co":"USA-road-d.BAY.co"}
+		// (caminhos relativos ao routing.data-dir; fora dele, 400)
+		boolean started;
+		try {
+			started = graphService.reloadAsync(request.region, request.gr, request.co, request.snapshot);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		if (!started)
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Já há uma carga de grafo em andamento");
+		return ResponseEntity.status(HttpStatus.ACCEPTED).body(graphService.getStatus(request.region));
+	}
+
+	@PostMapping("/snapshot")
+	public GraphStatusResponse saveSnapshot(@RequestBody AdminSnapshotRequest request) throws IOException {
+		// Exemplo: POST /api/admin/snapshot {"path":"NY.grs"} (no routing.data-dir)
+		if (request.path == null)
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe path");
+		try {
+			graphService.saveSnapshot(request.region, request.path);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		return graphService.getStatus(request.region);
+	}
+
+	@GetMapping("/recording")
+	public RecordingStatusResponse getRecording() {
+		// Exemplo: GET /api/admin/recording
+		return recordingService.getStatus();
+	}
+
+	/**
+	 * Inicia a gravação JFR dos eventos do Duan (bmssp, pivots, base case,
+	 * pull, batchPrepend) acima de thresholdMillis, junto com os eventos da
+	 * JVM de settings. Depois, POST /recording/dump grava o arquivo .jfr.
+	 */
+	@PostMapping("/recording")
+	public RecordingStatusResponse startRecording(@RequestBody(required = false) RecordingRequest request) throws IOException {
+		// Exemplo: POST /api/admin/recording {"thresholdMillis":5,"maxAgeMinutes":30,"settings":"profile"}
+		try {
+			return recordingService.start(request != null ? request : new RecordingRequest());
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		} catch (IllegalStateException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+		}
+	}
+
+	@PostMapping("/recording/dump")
+	public RecordingStatusResponse dumpRecording(@RequestBody(required = false) RecordingRequest request) throws IOException {
+		// Exemplo: POST /api/admin/recording/dump {"path":"lento.jfr"} (no routing.data-dir; sem path: duan-<data>.jfr)
+		try {
+			return recordingService.dump(request != null ? request.path : null);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		} catch (IllegalStateException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+		}
+	}
+
+	@DeleteMapping("/recording")
+	public RecordingStatusResponse stopRecording(@RequestParam(value = "path", required = false) String path) throws IOException {
+		// Exemplo: DELETE /api/admin/recording?path=final.jfr (despeja no routing.data-dir antes de parar)
+		try {
+			return recordingService.stop(path);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		} catch (IllegalStateException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+		}
+	}
 }
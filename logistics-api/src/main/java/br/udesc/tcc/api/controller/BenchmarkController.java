@@ -1,12 +1,20 @@
 package br.udesc.tcc.api.controller;
 
+import java.io.IOException;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+
+import br.udesc.tcc.api.dto.BenchmarkRequest;
 import br.udesc.tcc.api.service.BenchmarkService;
+import br.udesc.tcc.api.service.SolverExecutor;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 public class BenchmarkController {
@@ -14,13 +22,43 @@ public class BenchmarkController {
     @Autowired
     private BenchmarkService benchmarkService;
 
-    @GetMapping("/api/benchmark")
-    public ResponseEntity<String> runBenchmark(@RequestParam(value = "iterations", defaultValue = "50") int iterations) {
-        String csvContent = benchmarkService.runBenchmark(iterations);
+    @Autowired
+    private SolverExecutor solverExecutor;
+
+    // Exemplo: GET /api/benchmark?iterations=200&mode=p2p&ranks=true&threads=1,2,4&format=json
+    @GetMapping({ "/api/benchmark", "/api/{region}/benchmark" })
+    public void runBenchmark(@PathVariable(value = "region", required = false) String region,
+            @RequestParam(value = "iterations", defaultValue = "50") int iterations,
+            @RequestParam(value = "warmup", defaultValue = "10") int warmup,
+            @RequestParam(value = "seed", defaultValue = "42") long seed,
+            @RequestParam(value = "mode", defaultValue = BenchmarkService.MODE_ONE_TO_ALL) String mode,
+            @RequestParam(value = "engines", required = false) List<String> engines,
+            @RequestParam(value = "ranks", defaultValue = "false") boolean ranks,
+            @RequestParam(value = "threads", required = false) List<Integer> threads,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "queries", required = false) String queries,
+            HttpServletResponse response) throws IOException {
+        BenchmarkRequest request = new BenchmarkRequest();
+        request.region = region;
+        request.iterations = iterations;
+        request.warmup = warmup;
+        request.seed = seed;
+        request.mode = mode;
+        request.engines = engines;
+        request.ranks = ranks;
+        request.threads = threads;
+        request.format = format;
+        request.queries = queries;
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"benchmark_results.csv\"")
-                .header(HttpHeaders.CONTENT_TYPE, "text/csv")
-                .body(csvContent);
+        if ("json".equals(format)) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        } else {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"benchmark_results.csv\"");
+            response.setContentType("text/csv");
+        }
+        // Job bulk admitido (ou 429) antes de qualquer byte ir para o cliente; o resultado sai aos poucos
+        try (SolverExecutor.BulkJob job = solverExecutor.openBulkJob()) {
+            benchmarkService.runBenchmark(request, job, response.getOutputStream());
+        }
     }
-}
\ No newline at end of file
+}
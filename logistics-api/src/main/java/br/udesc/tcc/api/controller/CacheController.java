@@ -0,0 +1,26 @@
+package br.udesc.tcc.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.udesc.tcc.api.dto.CacheStatsResponse;
+import br.udesc.tcc.api.service.GraphService;
+
+@RestController
+@RequestMapping({ "/api/cache", "/api/{region}/cache" })
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+	@Autowired
+	private GraphService graphService;
+
+	@GetMapping
+	public CacheStatsResponse getStats(@PathVariable(value = "region", required = false) String region) {
+		// Exemplo: GET /api/cache
+		return graphService.getCacheStats(region);
+	}
+}
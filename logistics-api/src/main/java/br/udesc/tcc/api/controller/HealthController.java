@@ -0,0 +1,45 @@
+package br.udesc.tcc.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.udesc.tcc.api.dto.HealthResponse;
+import br.udesc.tcc.api.service.GraphService;
+
+/**
+ * Sondas para o orquestrador (ex: httpGet do Kubernetes): 200 quando ok,
+ * 503 quando não, sempre com o andamento da carga no corpo.
+ */
+@RestController
+@RequestMapping("/api/health")
+@CrossOrigin(origins = "*")
+public class HealthController {
+
+	@Autowired
+	private GraphService graphService;
+
+	@GetMapping
+	public HealthResponse getHealth() {
+		// Exemplo: GET /api/health
+		return graphService.getHealth();
+	}
+
+	/** Readiness: só recebe tráfego com o grafo e os índices prontos. */
+	@GetMapping("/ready")
+	public ResponseEntity<HealthResponse> getReady() {
+		HealthResponse health = graphService.getHealth();
+		return ResponseEntity.status(health.ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(health);
+	}
+
+	/** Liveness: continua ok durante uma carga longa, desde que ela avance ou a região padrão já atenda. */
+	@GetMapping("/live")
+	public ResponseEntity<HealthResponse> getLive() {
+		HealthResponse health = graphService.getHealth();
+		return ResponseEntity.status(health.live ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(health);
+	}
+}
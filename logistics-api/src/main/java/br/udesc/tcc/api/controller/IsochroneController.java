@@ -0,0 +1,42 @@
+package br.udesc.tcc.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.udesc.tcc.api.dto.IsochroneResponse;
+import br.udesc.tcc.api.service.GraphService;
+import br.udesc.tcc.api.service.SolverExecutor;
+
+@RestController
+@RequestMapping({ "/api/isochrone", "/api/{region}/isochrone" })
+@CrossOrigin(origins = "*")
+public class IsochroneController {
+
+	@Autowired
+	private GraphService graphService;
+
+	@Autowired
+	private SolverExecutor solverExecutor;
+
+	@GetMapping
+	public IsochroneResponse getIsochrone(@PathVariable(value = "region", required = false) String region,
+			@RequestParam("from") int from, @RequestParam("budget") double budget,
+			@RequestParam(value = "shape", defaultValue = "none") String shape) {
+		// Exemplo: GET /api/isochrone?from=1&budget=36000&shape=concave
+		System.out.println("Calculando isócrona de " + from + " com limite " + budget);
+		// budget ou shape inválidos (antes de ocupar um solver) e from inexistente viram 400
+		try {
+			graphService.validateIsochrone(budget, shape);
+			return solverExecutor.call(() -> graphService.calculateIsochrone(region, from, budget, shape));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package br.udesc.tcc.api.controller;
+
+import java.nio.ByteBuffer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.udesc.tcc.api.dto.MatrixRequest;
+import br.udesc.tcc.api.dto.MatrixResponse;
+import br.udesc.tcc.api.service.GraphService;
+import br.udesc.tcc.api.service.SolverExecutor;
+import br.udesc.tcc.api.service.SolverExecutor.Lane;
+
+@RestController
+@RequestMapping({ "/api/matrix", "/api/{region}/matrix" })
+@CrossOrigin(origins = "*")
+public class MatrixController {
+
+	@Autowired
+	private GraphService graphService;
+
+	@Autowired
+	private SolverExecutor solverExecutor;
+
+	@PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+	public MatrixResponse getMatrix(@PathVariable(value = "region", required = false) String region,
+			@RequestBody MatrixRequest request) {
+		// Exemplo: POST /api/matrix {"sources":[1,2],"targets":[500,900,1200]}
+		long start = System.nanoTime();
+		MatrixResponse response = solveMatrix(region, request);
+		response.computationTime = System.nanoTime() - start;
+		return response;
+	}
+
+	/**
+	 * Mesma matriz em binário (Accept: application/octet-stream): int32 big-endian
+	 * com linhas, colunas e depois as distâncias linha a linha. A versão do
+	 * grafo vai no cabeçalho X-Graph-Version.
+	 */
+	@PostMapping(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public ResponseEntity<byte[]> getMatrixBinary(@PathVariable(value = "region", required = false) String region,
+			@RequestBody MatrixRequest request) {
+		MatrixResponse matrix = solveMatrix(region, request);
+
+		ByteBuffer buffer = ByteBuffer.allocate(4 * (2 + matrix.distances.length));
+		buffer.putInt(matrix.rows);
+		buffer.putInt(matrix.cols);
+		buffer.asIntBuffer().put(matrix.distances);
+		return ResponseEntity.ok()
+				.header("X-Graph-Version", String.valueOf(matrix.graphVersion))
+				.body(buffer.array());
+	}
+
+	/** sources/targets ausentes, matriz acima do limite ou nó inexistente viram 400, como nas rotas. */
+	private MatrixResponse solveMatrix(String region, MatrixRequest request) {
+		try {
+			graphService.validateMatrix(request.sources, request.targets); // Antes de ocupar um job bulk
+			return solverExecutor.call(Lane.BULK,
+					() -> graphService.calculateMatrix(region, request.sources, request.targets));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+	}
+}
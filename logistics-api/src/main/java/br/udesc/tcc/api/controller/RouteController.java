@@ -1,28 +1,143 @@
 package br.udesc.tcc.api.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
 
+import br.udesc.tcc.api.dto.RouteBatchItem;
+import br.udesc.tcc.api.dto.RouteBatchRequest;
 import br.udesc.tcc.api.dto.RouteResponse;
 import br.udesc.tcc.api.service.GraphService;
+import br.udesc.tcc.api.service.SolverExecutor;
 
 @RestController
-@RequestMapping("/api/route")
+@RequestMapping({ "/api/route", "/api/{region}/route" }) // Sem {region}: a região padrão
 @CrossOrigin(origins = "*") // Permite que o Angular acesse sem bloqueio
 public class RouteController {
 
 	@Autowired
 	private GraphService graphService;
 
-	@GetMapping
+	@Autowired
+	private SolverExecutor solverExecutor;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Rota em JSON. Opcionais: tolerance (metros) ou zoom (do mapa) para
+	 * simplificar o caminho, format=polyline/polyline6 para receber o
+	 * caminho codificado (campo polyline) em vez da lista de pontos, e
+	 * debug=true para o trabalho da busca (campo debug).
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
 	// Adicione o nome do parâmetro explicitamente entre aspas
-	public RouteResponse getRoute(@RequestParam("from") int from, @RequestParam("to") int to) {
-		// Exemplo de chamada: GET /api/route?from=1&to=5000
-		System.out.println("Calculando rota de " + from + " para " + to);
-		return graphService.calculateRoute(from, to);
+	public RouteResponse getRoute(@PathVariable(value = "region", required = false) String region,
+			@RequestParam("from") int from, @RequestParam("to") int to,
+			@RequestParam(value = "engine", defaultValue = "auto") String engine,
+			@RequestParam(value = "format", defaultValue = "json") String format,
+			@RequestParam(value = "tolerance", required = false) Double tolerance,
+			@RequestParam(value = "zoom", required = false) Integer zoom,
+			@RequestParam(value = "debug", defaultValue = "false") boolean debug) {
+		// Exemplo de chamada: GET /api/route?from=1&to=5000&engine=ch (ou /api/BAY/route?...)
+		// Compacto: GET /api/route?from=1&to=5000&format=polyline&zoom=12
+		// Trabalho da busca: GET /api/route?from=1&to=5000&engine=duan&debug=true
+		validateFormat(format, tolerance, zoom);
+		System.out.println("Calculando rota de " + from + " para " + to + " (engine: " + engine + ")");
+		RouteResponse route = solveRoute(() -> graphService.calculateRoute(region, from, to, engine, debug));
+		return graphService.formatRoute(route, format, tolerance, zoom);
+	}
+
+	/**
+	 * Mesma rota em binário (Accept: application/octet-stream): o caminho em
+	 * varint delta (ver PathEncoding), com distância, motor e versão do grafo
+	 * nos cabeçalhos X-Route-Distance, X-Route-Engine e X-Graph-Version.
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public ResponseEntity<byte[]> getRouteBinary(@PathVariable(value = "region", required = false) String region,
+			@RequestParam("from") int from, @RequestParam("to") int to,
+			@RequestParam(value = "engine", defaultValue = "auto") String engine,
+			@RequestParam(value = "tolerance", required = false) Double tolerance,
+			@RequestParam(value = "zoom", required = false) Integer zoom) {
+		validateFormat(null, tolerance, zoom);
+		RouteResponse route = solveRoute(() -> graphService.calculateRoute(region, from, to, engine));
+		return ResponseEntity.ok()
+				.header("X-Route-Distance", String.valueOf(route.distance))
+				.header("X-Route-Engine", route.engine)
+				.header("X-Graph-Version", String.valueOf(route.graphVersion))
+				.body(graphService.encodeRoute(route, tolerance, zoom));
+	}
+
+	/**
+	 * Lote de rotas em NDJSON: uma linha (RouteBatchItem) por par, escrita
+	 * assim que o grupo da origem termina, sem esperar o lote inteiro. A
+	 * ordem das linhas é a de término; o campo index diz a qual par cada uma
+	 * pertence.
+	 */
+	@PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void getRouteBatch(@PathVariable(value = "region", required = false) String region,
+			@RequestBody RouteBatchRequest request, HttpServletResponse response) throws IOException {
+		// Exemplo: POST /api/route/batch {"pairs":[{"from":1,"to":500},{"from":1,"to":900}]}
+		if (request.pairs == null || request.pairs.isEmpty() || request.pairs.contains(null))
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe pairs (ao menos um par from/to)");
+		System.out.println("Calculando lote de " + request.pairs.size() + " rotas");
+		// Job bulk admitido (ou 429) antes de qualquer byte ir para o cliente
+		try (SolverExecutor.BulkJob job = solverExecutor.openBulkJob()) {
+			response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+			OutputStream out = response.getOutputStream();
+			graphService.calculateRouteBatch(region, request, job, items -> writeLines(out, items));
+		}
+	}
+
+	/** format, tolerance ou zoom inválidos: 400 antes de ocupar um solver. */
+	private void validateFormat(String format, Double tolerance, Integer zoom) {
+		try {
+			graphService.validateRouteFormat(format, tolerance, zoom);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+	}
+
+	/** Engine desconhecida ou sem rota ponto-a-ponto (ex: delta-stepping) vira 400. */
+	private RouteResponse solveRoute(Callable<RouteResponse> task) {
+		try {
+			return solverExecutor.call(task);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+	}
+
+	private void writeLines(OutputStream out, List<RouteBatchItem> items) {
+		try {
+			synchronized (out) {
+				for (RouteBatchItem item : items) {
+					out.write(objectMapper.writeValueAsBytes(item));
+					out.write('\n');
+				}
+				out.flush();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // cliente desconectou: interrompe o lote
+		}
 	}
-}
\ No newline at end of file
+}
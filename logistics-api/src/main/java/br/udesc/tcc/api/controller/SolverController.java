@@ -0,0 +1,25 @@
+package br.udesc.tcc.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.udesc.tcc.api.dto.SolverStatsResponse;
+import br.udesc.tcc.api.service.SolverExecutor;
+
+@RestController
+@RequestMapping("/api/solver")
+@CrossOrigin(origins = "*")
+public class SolverController {
+
+	@Autowired
+	private SolverExecutor solverExecutor;
+
+	@GetMapping
+	public SolverStatsResponse getStats() {
+		// Exemplo: GET /api/solver (fila, espera e recusas do executor de cálculos)
+		return solverExecutor.getStats();
+	}
+}
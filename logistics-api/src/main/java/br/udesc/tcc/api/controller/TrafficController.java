@@ -0,0 +1,39 @@
+package br.udesc.tcc.api.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.udesc.tcc.api.dto.TrafficUpdateRequest;
+import br.udesc.tcc.api.dto.TrafficUpdateResponse;
+import br.udesc.tcc.api.service.GraphService;
+
+@RestController
+@RequestMapping({ "/api/traffic", "/api/{region}/traffic" })
+@CrossOrigin(origins = "*")
+public class TrafficController {
+
+	@Autowired
+	private GraphService graphService;
+
+	@PostMapping
+	public TrafficUpdateResponse updateWeights(@PathVariable(value = "region", required = false) String region,
+			@RequestBody TrafficUpdateRequest request) {
+		// Exemplo: POST /api/traffic {"updates":[{"from":1,"to":2,"weight":900}]}
+		if (request.updates == null || request.updates.contains(null))
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe updates (from, to, weight)");
+		System.out.println("Atualizando " + request.updates.size() + " arestas (trânsito)");
+		try {
+			return graphService.updateEdgeWeights(region, request.updates);
+		} catch (IllegalArgumentException e) {
+			// Peso negativo
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+	}
+}
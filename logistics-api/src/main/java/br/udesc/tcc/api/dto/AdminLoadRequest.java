@@ -0,0 +1,8 @@
+package br.udesc.tcc.api.dto;
+
+public class AdminLoadRequest {
+    public String region;   // Região a trocar (ou criar); null = a padrão
+    public String gr;       // Arestas DIMACS (.gr)
+    public String co;       // Coordenadas DIMACS (.co)
+    public String snapshot; // Ou um snapshot binário (no lugar de gr + co)
+}
@@ -0,0 +1,6 @@
+package br.udesc.tcc.api.dto;
+
+public class AdminSnapshotRequest {
+    public String region; // null = a padrão
+    public String path; // Arquivo de saída
+}
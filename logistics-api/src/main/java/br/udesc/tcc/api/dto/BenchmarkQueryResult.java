@@ -0,0 +1,15 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/** Uma consulta medida do benchmark (sai assim que todos os motores a respondem). */
+public class BenchmarkQueryResult {
+    public int index;                 // 1..n, na ordem do conjunto de consultas
+    public int source;                // IDs originais
+    public int target;
+    public int rank;                  // Rank de Dijkstra do destino (-1 = sorteio uniforme)
+    public double distance;           // Do primeiro motor (referência)
+    public Map<String, Double> millis; // Tempo de cada motor
+    public List<String> mismatches;   // Motores que discordaram da referência
+}
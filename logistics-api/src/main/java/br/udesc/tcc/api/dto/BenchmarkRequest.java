@@ -0,0 +1,17 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+/** Parâmetros do /api/benchmark (ver BenchmarkService). */
+public class BenchmarkRequest {
+    public String region;        // null = região padrão
+    public int iterations;       // Consultas medidas (com ranks: origens, cada uma com todos os ranks)
+    public int warmup;           // Consultas de aquecimento por motor (não entram nos números)
+    public long seed;            // Mesma seed + mesmo grafo = mesmas consultas
+    public String mode;          // "one-to-all" ou "p2p"
+    public List<String> engines; // null = todos os que fazem o modo
+    public boolean ranks;        // Destinos estratificados por rank de Dijkstra (2^1, 2^2, ...)
+    public List<Integer> threads; // Fase paralela (ex: 1,2,4); vazio = sem
+    public String format;        // "csv" ou "json"
+    public String queries;       // Arquivo do conjunto de consultas (null = C:/dados/benchmark-...)
+}
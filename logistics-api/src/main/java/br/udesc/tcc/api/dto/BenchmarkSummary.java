@@ -0,0 +1,18 @@
+package br.udesc.tcc.api.dto;
+
+/** Resumo de um motor numa fase do benchmark (sequencial ou paralela). */
+public class BenchmarkSummary {
+    public String engine;
+    public String mode;            // "one-to-all" ou "p2p"
+    public int threads;            // Pedaços simultâneos pedidos (1 = fase sequencial)
+    public int effectiveThreads;   // Limitado por routing.solver.bulk.max-concurrent
+    public long count;
+    public double p50Millis;
+    public double p90Millis;
+    public double p99Millis;
+    public double maxMillis;
+    public double meanMillis;
+    public double throughput;      // Consultas por segundo (tempo de parede da fase)
+    public double speedup;         // p50 da referência / p50 deste motor
+    public long mismatches;        // Distâncias diferentes da referência (só na fase sequencial)
+}
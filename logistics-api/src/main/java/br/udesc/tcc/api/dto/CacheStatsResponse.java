@@ -0,0 +1,21 @@
+package br.udesc.tcc.api.dto;
+
+public class CacheStatsResponse {
+    public long graphVersion;    // Os caches são da versão atual do grafo
+
+    // Árvores de caminhos mínimos por origem (SptCache)
+    public int sptTrees;         // Árvores em memória
+    public long sptBytes;        // Bytes ocupados por elas
+    public long sptMaxBytes;     // Orçamento (routing.spt-cache.max-bytes)
+    public long sptHits;         // Rotas respondidas só subindo pelos pais
+    public long sptMisses;       // Rotas de origens sem árvore
+    public long sptBuilds;       // Árvores construídas
+    public long sptEvictions;    // Árvores despejadas para caber no orçamento
+
+    // Rotas prontas por par (RouteCache)
+    public int routeEntries;     // Pares em cache
+    public long routeHits;       // Respondidas pelo cache
+    public long routeMisses;     // Calculadas (uma por par, mesmo com pedidos simultâneos)
+    public long routeCoalesced;  // Pedidos que esperaram um cálculo igual em andamento
+    public long routeExpired;    // Entradas vencidas (TTL) encontradas numa consulta
+}
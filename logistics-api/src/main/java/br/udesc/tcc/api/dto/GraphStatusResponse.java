@@ -0,0 +1,22 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+public class GraphStatusResponse {
+    public String region;        // Ex: "NY"
+    public long version;         // Versão em uso (0 = nenhuma ainda)
+    public String source;        // Arquivos de onde ela veio
+    public long loadedAt;        // Epoch em ms
+    public int nodes;            // Nós originais (IDs DIMACS)
+    public int virtualNodes;     // Nós do grafo transformado
+    public List<String> engines; // Motores disponíveis nesta versão
+    public long memoryBytes;     // Memória estimada (grafo, índices e caches)
+
+    public boolean loading;      // Há uma carga em segundo plano
+    public String loadingSource; // O que está sendo carregado
+    public String loadPhase;     // Fase da carga desta região (null se não está carregando)
+    public long loadBytesRead;   // Bytes dos arquivos já lidos
+    public long loadTotalBytes;  // Tamanho total dos arquivos
+    public String lastError;     // Erro da última carga (null se deu certo)
+    public List<Long> draining;  // Versões antigas ainda terminando consultas
+}
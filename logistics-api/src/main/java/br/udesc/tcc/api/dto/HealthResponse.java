@@ -0,0 +1,18 @@
+package br.udesc.tcc.api.dto;
+
+public class HealthResponse {
+    public String status;        // UP, STARTING (carga inicial em andamento) ou DOWN
+    public boolean ready;        // Região padrão no ar: pode receber tráfego
+    public boolean live;         // Processo respondendo e, sem a região padrão no ar, carga avançando
+    public String region;        // Região padrão
+
+    // Carga em andamento (null/0 se nenhuma)
+    public String loadingRegion;
+    public String phase;         // Ex: "lendo .gr e .co", "transformando"
+    public long bytesRead;
+    public long totalBytes;
+    public long elapsedMillis;
+    public boolean loadStalled;  // Carga sem progresso há routing.load.stall-timeout-ms
+
+    public String lastError;     // Erro da última carga que falhou
+}
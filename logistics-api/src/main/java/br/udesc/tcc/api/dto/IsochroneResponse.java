@@ -0,0 +1,12 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+public class IsochroneResponse {
+    public double budget;            // Limite de tempo/distância pedido
+    public int[] nodes;              // Nós alcançados (dist < budget)
+    public double[] distances;       // distances[i] = distância até nodes[i]
+    public List<RouteResponse.NodeDto> polygon; // Contorno (null com shape=none)
+    public long computationTime;     // Nanosegundos
+    public long graphVersion;        // Versão do grafo usada
+}
@@ -0,0 +1,6 @@
+package br.udesc.tcc.api.dto;
+
+public class MatrixRequest {
+    public int[] sources; // Origens (linhas da matriz)
+    public int[] targets; // Destinos (colunas da matriz)
+}
@@ -0,0 +1,9 @@
+package br.udesc.tcc.api.dto;
+
+public class MatrixResponse {
+    public int rows;
+    public int cols;
+    public int[] distances;      // Linha a linha: distances[i * cols + j], -1 se inalcançável
+    public long computationTime; // Nanosegundos
+    public long graphVersion;    // Versão do grafo usada
+}
@@ -0,0 +1,30 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+public class MemoryReportResponse {
+    public String region;
+    public long graphVersion;
+    public int nodes;                    // Nós do grafo original
+    public long edges;                   // Arestas do grafo original
+    public int virtualNodes;             // Nós do grafo transformado (grau constante)
+    public long virtualEdges;            // Arestas do grafo transformado
+    public List<Item> items;             // Estruturas residentes da versão
+    public long residentBytes;           // Soma dos itens (a mesma conta do orçamento das regiões)
+    public double residentBytesPerNode;  // Por nó original
+
+    // Carga: o grafo original e o transformado convivem até o fim da transformação
+    public long rawGraphBytes;           // Estimativa do Graph original (já descartado)
+    public long loadPeakEstimateBytes;   // Original + transformado + IDs
+    public long loadPeakMeasuredBytes;   // Pico de heap medido na leitura + transformação (inclui lixo)
+
+    // Por consulta (por thread): só os arrays do contexto; filas e lixo das chamadas vêm por cima
+    public long duanContextBytes;
+
+    public static class Item {
+        public String name;
+        public long bytes;
+        public double bytesPerNode;      // Por nó do grafo transformado
+        public double bytesPerEdge;      // Por aresta (da própria estrutura, no caso da CH)
+    }
+}
@@ -0,0 +1,8 @@
+package br.udesc.tcc.api.dto;
+
+public class RecordingRequest {
+    public Double thresholdMillis; // Eventos do Duan mais curtos que isso não são gravados (null = padrão)
+    public Integer maxAgeMinutes;  // Janela mantida em disco (null = padrão)
+    public String settings;        // Eventos da JVM junto: "default", "profile" ou "none"
+    public String path;            // Arquivo do dump, no routing.data-dir (null = duan-<data>.jfr)
+}
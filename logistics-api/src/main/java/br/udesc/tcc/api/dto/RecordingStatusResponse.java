@@ -0,0 +1,14 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+public class RecordingStatusResponse {
+    public boolean running;        // Há uma gravação ativa
+    public String settings;        // Configuração da JVM usada ("none" = só os eventos do Duan)
+    public double thresholdMillis; // Duração mínima dos eventos do Duan gravados
+    public int maxAgeMinutes;      // Janela mantida em disco
+    public long startedAt;         // Epoch em ms (0 = nenhuma)
+    public long sizeBytes;         // Tamanho atual da gravação em disco
+    public List<String> events;    // Eventos habilitados (duan.Bmssp, duan.Pull, ...)
+    public String lastDump;        // Último arquivo gravado (abra no JDK Mission Control)
+}
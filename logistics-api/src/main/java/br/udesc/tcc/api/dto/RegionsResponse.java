@@ -0,0 +1,11 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+public class RegionsResponse {
+    public String defaultRegion;             // Região de /api/route (sem {region})
+    public long maxBytes;                    // Orçamento (routing.regions.max-bytes, 0 = sem limite)
+    public long usedBytes;                   // Soma da memória estimada das regiões carregadas
+    public List<GraphStatusResponse> regions; // Da mais para a menos usada
+    public List<String> loading;             // Regiões carregando no primeiro pedido
+}
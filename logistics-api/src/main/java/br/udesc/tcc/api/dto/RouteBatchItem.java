@@ -0,0 +1,14 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+/** Uma linha do NDJSON do lote: chega assim que o grupo da origem termina. */
+public class RouteBatchItem {
+    public int index;                         // Posição do par no pedido
+    public int from;
+    public int to;
+    public double distance;                   // Double.MAX_VALUE = inalcançável (como no /api/route)
+    public List<RouteResponse.NodeDto> path;  // null com includePath=false
+    public String error;                      // Preenchido se o par for inválido
+    public long graphVersion;                 // Versão do grafo (igual para o lote inteiro)
+}
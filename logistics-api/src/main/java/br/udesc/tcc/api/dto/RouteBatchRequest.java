@@ -0,0 +1,13 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+public class RouteBatchRequest {
+    public List<Pair> pairs;           // Pares (origem, destino), IDs originais
+    public boolean includePath = true; // false = só distâncias (linhas bem menores)
+
+    public static class Pair {
+        public int from;
+        public int to;
+    }
+}
@@ -5,7 +5,12 @@ import java.util.List;
 public class RouteResponse {
     public double distance;      // Tempo total ou distância
     public long computationTime; // Tempo de CPU (para o benchmark do TCC)
-    public List<NodeDto> path;   // A linha para desenhar no mapa
+    public List<NodeDto> path;   // A linha para desenhar no mapa (null com format=polyline)
+    public String polyline;      // Mesma linha no Encoded Polyline do Google (format=polyline/polyline6)
+    public String engine;        // Motor que respondeu (útil com engine=auto)
+    public boolean cached;       // Veio do cache de rotas (ou de um pedido igual em andamento)
+    public long graphVersion;    // Versão do grafo que respondeu (muda a cada troca pelo admin)
+    public Debug debug;          // Trabalho da busca (só com debug=true; null nos outros casos)
 
     public static class NodeDto {
         public double lat;
@@ -16,4 +21,16 @@ public class RouteResponse {
             this.lon = lon;
         }
     }
+
+    public static class Debug {
+        public long settled;        // Vértices finalizados
+        public long relaxedEdges;   // Arestas examinadas
+        public long improvements;   // Relaxamentos que baixaram a distância
+        public long heapInserts;    // Inserções nas filas de prioridade (e itens de batchPrepend)
+        public long heapPulls;      // Itens retirados das filas
+        public long recursionCalls; // Chamadas do bmssp (só Duan)
+        public int maxDepth;        // Profundidade máxima da recursão (só Duan)
+        public long baseCaseCalls;  // Chamadas do BaseCase (só Duan)
+        public long peakWorkspace;  // Maior fila de prioridade durante a busca (itens)
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package br.udesc.tcc.api.dto;
+
+public class SolverStatsResponse {
+    public int threads;              // Threads de cálculo (núcleos)
+    public LaneStats interactive;    // Rotas e isócronas do mapa
+    public LaneStats bulk;           // Lotes, matrizes e benchmark
+
+    public static class LaneStats {
+        public int maxConcurrent;    // Teto de threads da faixa
+        public int active;           // Calculando agora
+        public int queued;           // Tarefas (ou pedaços de jobs) esperando
+        public int queueCapacity;    // Interativa: fila máxima (acima disso: 429)
+        public int openJobs;         // Bulk: jobs abertos
+        public int maxJobs;          // Bulk: máximo de jobs abertos (acima disso: 429)
+        public long completed;       // Tarefas/pedaços concluídos
+        public long rejected;        // Pedidos recusados com 429
+        public long avgWaitNanos;    // Espera média na fila
+        public long maxWaitNanos;    // Maior espera na fila
+        public long avgLatencyNanos; // Fila + cálculo, média
+        public long maxLatencyNanos; // Fila + cálculo, máximo
+    }
+}
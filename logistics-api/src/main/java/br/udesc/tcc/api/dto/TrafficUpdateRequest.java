@@ -0,0 +1,13 @@
+package br.udesc.tcc.api.dto;
+
+import java.util.List;
+
+public class TrafficUpdateRequest {
+    public List<EdgeUpdate> updates;
+
+    public static class EdgeUpdate {
+        public int from;
+        public int to;
+        public int weight; // Novo tempo de travessia (mesma unidade do .gr)
+    }
+}
@@ -0,0 +1,10 @@
+package br.udesc.tcc.api.dto;
+
+public class TrafficUpdateResponse {
+    public int applied;          // Arestas alteradas
+    public int notFound;         // Pares (from, to) sem aresta no grafo
+    public int repairedTrees;    // Árvores de origens "quentes" consertadas
+    public long repairedNodes;   // Nós reprocessados somando todas as árvores
+    public long computationTime; // Nanosegundos
+    public long graphVersion;    // Versão do grafo que recebeu os pesos
+}
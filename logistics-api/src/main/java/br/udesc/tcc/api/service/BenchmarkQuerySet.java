@@ -0,0 +1,80 @@
+package br.udesc.tcc.api.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consultas de um benchmark (IDs originais, 1..n), gravadas em texto para
+ * que a mesma carga possa ser repetida depois: em outra versão do código,
+ * em outra máquina ou com outros motores. A primeira linha identifica como
+ * foram geradas; se não bater com o pedido (ou com o número de nós do grafo),
+ * o arquivo é ignorado e gerado de novo.
+ */
+public class BenchmarkQuerySet {
+
+	final String description; // region;seed;count;ranks;nodes
+	final int[] source;
+	final int[] target;
+	final int[] rank; // Rank de Dijkstra do destino (-1 = par sorteado uniformemente)
+
+	BenchmarkQuerySet(String description, int[] source, int[] target, int[] rank) {
+		this.description = description;
+		this.source = source;
+		this.target = target;
+		this.rank = rank;
+	}
+
+	int size() {
+		return source.length;
+	}
+
+	static String describe(String region, long seed, int count, boolean ranks, int nodes) {
+		return region + ";" + seed + ";" + count + ";" + ranks + ";" + nodes;
+	}
+
+	void save(String path) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+			out.write(description);
+			out.newLine();
+			for (int i = 0; i < source.length; i++) {
+				out.write(source[i] + ";" + target[i] + ";" + rank[i]);
+				out.newLine();
+			}
+		}
+	}
+
+	/** Conjunto gravado em path, ou null se não existir ou tiver sido gerado de outro jeito. */
+	static BenchmarkQuerySet load(String path, String description) throws IOException {
+		Path file = Paths.get(path);
+		if (!Files.exists(file))
+			return null;
+		try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			if (!description.equals(in.readLine()))
+				return null;
+			List<int[]> rows = new ArrayList<>();
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.isEmpty())
+					continue;
+				String[] parts = line.split(";");
+				rows.add(new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]) });
+			}
+			int[] source = new int[rows.size()];
+			int[] target = new int[rows.size()];
+			int[] rank = new int[rows.size()];
+			for (int i = 0; i < rows.size(); i++) {
+				source[i] = rows.get(i)[0];
+				target[i] = rows.get(i)[1];
+				rank[i] = rows.get(i)[2];
+			}
+			return new BenchmarkQuerySet(description, source, target, rank);
+		}
+	}
+}
@@ -1,92 +1,498 @@
 package br.udesc.tcc.api.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import algos.DijkstraSolver;
-import algos.duan.DuanSolver;
-import graph.Graph;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import algos.engine.DeltaSteppingEngine;
+import algos.engine.DijkstraEngine;
+import algos.engine.DuanEngine;
+import algos.engine.ShortestPathEngine;
+import br.udesc.tcc.api.dto.BenchmarkQueryResult;
+import br.udesc.tcc.api.dto.BenchmarkRequest;
+import br.udesc.tcc.api.dto.BenchmarkSummary;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+/**
+ * Benchmark dos motores no grafo carregado. Os números servem para escolher
+ * motor, então:
+ *
+ * - As consultas são reproduzíveis: sorteadas com seed (IDs 1..n, só pares
+ *   alcançáveis) ou, com ranks, estratificadas por rank de Dijkstra (para
+ *   cada origem, o 2º, 4º, 8º... nó que o Dijkstra finaliza). O conjunto é
+ *   gravado em arquivo e reaproveitado enquanto o pedido e o grafo forem os
+ *   mesmos.
+ * - A comparação é justa: no modo one-to-all todos os motores calculam a
+ *   árvore inteira; no p2p todos respondem só distance(s, t). A ordem dos
+ *   motores gira a cada consulta e as distâncias são conferidas contra o
+ *   primeiro motor (referência).
+ * - O aquecimento é separado da medição, e as latências vão para um
+ *   histograma (p50/p90/p99/max).
+ * - Com threads, a mesma carga roda de novo com 1, 2, 4... pedaços bulk ao
+ *   mesmo tempo, para ver como a vazão escala.
+ *
+ * O resultado sai em CSV ou JSON à medida que as consultas terminam.
+ */
 @Service
 public class BenchmarkService {
 
+    public static final String MODE_ONE_TO_ALL = "one-to-all";
+    public static final String MODE_P2P = "p2p";
+
+    private static final String QUERIES_PATH = "C:/dados/benchmark-%s-%d-%d%s.queries";
+    private static final int MAX_DRAWS_PER_QUERY = 20; // Pares inalcançáveis seguidos antes de desistir
+
+    // Só respondem distance(s, t) calculando a árvore inteira: ficam fora do p2p, a não ser que pedidos
+    private static final Set<String> ONE_TO_ALL_ONLY = Set.of(DuanEngine.NAME, DeltaSteppingEngine.NAME);
+
     @Autowired
     private GraphService graphService; // Para pegar o grafo já carregado
 
-    public String runBenchmark(int iterations) {
-        Graph graph = graphService.getGraph(); 
-        if (graph == null) return "Erro: Grafo não carregado.";
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("Run ID;Source;Target;Distance;Dijkstra Time (ms);Duan Time (ms);Speedup (x)\n");
-
-        Random rand = new Random();
-        int maxNode = graph.getNodeCount();
-        
-        // Warmup (Aquecimento da JVM) - Importante para benchmarks Java
-        System.out.println("Aquecendo JVM...");
-        runSingleComparison(graph, 1, 500); 
-        runSingleComparison(graph, 100, 2000);
-
-        System.out.println("Iniciando Benchmark de " + iterations + " rodadas...");
-        
-        for (int i = 1; i <= iterations; i++) {
-            // Sorteia nós válidos
-            int source = rand.nextInt(maxNode);
-            int target = rand.nextInt(maxNode);
-
-            // Evita nós isolados ou inválidos (loop simples)
-            while (graph.getAdjacencyList().get(source) == null || graph.getAdjacencyList().get(source).isEmpty()) {
-                source = rand.nextInt(maxNode);
+    @Autowired
+    private SolverExecutor solverExecutor; // Cada consulta é um pedaço bulk: não trava as rotas do mapa
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void runBenchmark(BenchmarkRequest request, SolverExecutor.BulkJob job, OutputStream out) throws IOException {
+        GraphVersion g = graphService.acquire(request.region); // Tudo na mesma versão do grafo
+        try {
+            runBenchmark(g, request, job, out);
+        } finally {
+            graphService.release(g);
+        }
+    }
+
+    private void runBenchmark(GraphVersion g, BenchmarkRequest request, SolverExecutor.BulkJob job, OutputStream out)
+            throws IOException {
+        // Tudo validado antes do primeiro byte: erro aqui ainda vira 400
+        boolean oneToAll = MODE_ONE_TO_ALL.equals(request.mode);
+        if (!oneToAll && !MODE_P2P.equals(request.mode))
+            throw badRequest("mode deve ser " + MODE_ONE_TO_ALL + " ou " + MODE_P2P);
+        if (request.iterations < 1 || request.warmup < 0)
+            throw badRequest("iterations deve ser >= 1 e warmup >= 0");
+        List<Integer> threads = request.threads == null ? List.of() : request.threads;
+        for (int t : threads) {
+            if (t < 1)
+                throw badRequest("threads deve ser >= 1");
+        }
+        List<ShortestPathEngine> engines = resolveEngines(g, oneToAll, request.engines);
+        Report report;
+        if ("json".equals(request.format))
+            report = new JsonReport(out);
+        else if ("csv".equals(request.format))
+            report = new CsvReport(out);
+        else
+            throw badRequest("format deve ser csv ou json");
+
+        BenchmarkQuerySet queries = loadOrGenerate(g, request, job);
+        report.begin(g, request, engines, queries);
+
+        System.out.println("Aquecendo JVM (" + request.warmup + " consultas)...");
+        Random warmupRandom = new Random(request.seed + 1); // Outras consultas, para não aquecer só as medidas
+        int n = g.idMap.getOriginalCount();
+        for (int i = 0; i < request.warmup; i++) {
+            int s = g.idMap.toVirtual(1 + warmupRandom.nextInt(n));
+            int t = g.idMap.toVirtual(1 + warmupRandom.nextInt(n));
+            job.call(() -> {
+                for (ShortestPathEngine engine : engines)
+                    run(engine, oneToAll, s, t);
+                return null;
+            });
+        }
+
+        System.out.println("Iniciando Benchmark de " + queries.size() + " consultas (" + request.mode + ")...");
+        int e = engines.size();
+        LatencyHistogram[] histograms = new LatencyHistogram[e];
+        long[] mismatches = new long[e];
+        for (int j = 0; j < e; j++)
+            histograms[j] = new LatencyHistogram();
+        long start = System.nanoTime();
+        for (int q = 0; q < queries.size(); q++) {
+            final int index = q;
+            long[] nanos = new long[e];
+            double[] distances = new double[e];
+            job.call(() -> measure(g, engines, oneToAll, queries, index, nanos, distances));
+
+            BenchmarkQueryResult row = new BenchmarkQueryResult();
+            row.index = q + 1;
+            row.source = queries.source[q];
+            row.target = queries.target[q];
+            row.rank = queries.rank[q];
+            row.distance = distances[0];
+            row.millis = new LinkedHashMap<>();
+            row.mismatches = new ArrayList<>();
+            for (int j = 0; j < e; j++) {
+                histograms[j].record(nanos[j]);
+                row.millis.put(engines.get(j).getName(), nanos[j] / 1_000_000.0);
+                if (!sameDistance(distances[0], distances[j])) {
+                    mismatches[j]++;
+                    row.mismatches.add(engines.get(j).getName());
+                }
+            }
+            report.query(row);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (int j = 0; j < e; j++) {
+            BenchmarkSummary summary = summarize(engines.get(j), request.mode, 1, 1, histograms[j], histograms[0]);
+            summary.throughput = 1e9 / Math.max(1, histograms[j].getMean()); // Sequencial: 1 / tempo médio
+            summary.mismatches = mismatches[j];
+            report.summary(summary);
+        }
+        System.out.println("Fase sequencial em " + elapsed / 1_000_000 + " ms");
+
+        int bulkMaxConcurrent = solverExecutor.getStats().bulk.maxConcurrent;
+        for (int t : threads) {
+            System.out.println("Fase paralela: " + t + " pedaços simultâneos");
+            LatencyHistogram reference = null;
+            for (ShortestPathEngine engine : engines) {
+                long phaseStart = System.nanoTime();
+                LatencyHistogram histogram = runParallel(g, engine, oneToAll, queries, t, job);
+                long wall = System.nanoTime() - phaseStart;
+                if (reference == null)
+                    reference = histogram;
+
+                BenchmarkSummary summary = summarize(engine, request.mode, t, Math.min(t, bulkMaxConcurrent), histogram,
+                        reference);
+                summary.throughput = histogram.getCount() / (wall / 1e9);
+                report.summary(summary);
             }
+        }
+        report.end();
+    }
 
-            BenchmarkResult res = runSingleComparison(graph, source, target);
-            
-            // Só registra se encontrou caminho (para não poluir com INFINITY)
-            if (res.distance < Double.MAX_VALUE) {
-                double speedup = res.dijkstraTime / res.duanTime;
-                
-                String line = String.format("%d;%d;%d;%.2f;%.4f;%.4f;%.2f", 
-                        i, source, target, res.distance, res.dijkstraTime, res.duanTime, speedup);
-                
-                csv.append(line).append("\n");
-                System.out.println("Run " + i + ": Speedup " + String.format("%.2fx", speedup));
-            } else {
-                i--; // Tenta de novo se caiu em caminho impossível
+    private List<ShortestPathEngine> resolveEngines(GraphVersion g, boolean oneToAll, List<String> names) {
+        List<ShortestPathEngine> engines = new ArrayList<>();
+        if (names == null || names.isEmpty()) {
+            // Padrão: Dijkstra primeiro (referência), depois os outros que fazem o modo
+            names = new ArrayList<>(g.getEngines().getNames());
+            names.remove(DijkstraEngine.NAME);
+            names.add(0, DijkstraEngine.NAME);
+            for (String name : names) {
+                ShortestPathEngine engine = g.getEngines().get(name);
+                if (oneToAll ? engine.supportsOneToAll() : !ONE_TO_ALL_ONLY.contains(name))
+                    engines.add(engine);
+            }
+            return engines;
+        }
+        for (String name : names) {
+            ShortestPathEngine engine;
+            try {
+                engine = g.getEngines().get(name);
+            } catch (IllegalArgumentException e) {
+                throw badRequest(e.getMessage());
             }
+            if (oneToAll && !engine.supportsOneToAll())
+                throw badRequest("Engine " + name + " não calcula um-para-todos");
+            engines.add(engine);
+        }
+        return engines;
+    }
+
+    /** Conjunto gravado, se foi gerado com os mesmos parâmetros e grafo; senão gera e grava. */
+    private BenchmarkQuerySet loadOrGenerate(GraphVersion g, BenchmarkRequest request, SolverExecutor.BulkJob job) {
+        String path = request.queries != null ? request.queries
+                : String.format(QUERIES_PATH, g.getRegion(), request.seed, request.iterations, request.ranks ? "-ranks" : "");
+        String description = BenchmarkQuerySet.describe(g.getRegion(), request.seed, request.iterations, request.ranks,
+                g.idMap.getOriginalCount());
+        try {
+            BenchmarkQuerySet saved = BenchmarkQuerySet.load(path, description);
+            if (saved != null) {
+                System.out.println("Consultas do benchmark lidas de " + path);
+                return saved;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Conjunto de consultas inválido em " + path + ", gerando de novo: " + e.getMessage());
+        }
+
+        BenchmarkQuerySet queries = request.ranks ? generateRanked(g, request.seed, request.iterations, description, job)
+                : generateUniform(g, request.seed, request.iterations, description, job);
+        try {
+            queries.save(path);
+            System.out.println("Consultas do benchmark gravadas em " + path);
+        } catch (IOException e) {
+            System.out.println("Não foi possível gravar as consultas em " + path + ": " + e.getMessage());
+        }
+        return queries;
+    }
+
+    /** count pares (s, t) sorteados em 1..n, descartando os inalcançáveis. */
+    private BenchmarkQuerySet generateUniform(GraphVersion g, long seed, int count, String description,
+            SolverExecutor.BulkJob job) {
+        Random random = new Random(seed);
+        int n = g.idMap.getOriginalCount();
+        ShortestPathEngine dijkstra = g.getEngines().get(DijkstraEngine.NAME);
+        int[] source = new int[count];
+        int[] target = new int[count];
+        int[] rank = new int[count];
+        for (int i = 0; i < count; i++) {
+            for (int draws = 1;; draws++) {
+                int s = 1 + random.nextInt(n);
+                int t = 1 + random.nextInt(n);
+                double distance = job.call(() -> dijkstra.distance(g.idMap.toVirtual(s), g.idMap.toVirtual(t)));
+                if (distance < Double.MAX_VALUE) {
+                    source[i] = s;
+                    target[i] = t;
+                    rank[i] = -1;
+                    break;
+                }
+                if (draws == MAX_DRAWS_PER_QUERY)
+                    throw new IllegalStateException("Grafo pouco conectado: " + draws + " pares inalcançáveis seguidos");
+            }
+        }
+        return new BenchmarkQuerySet(description, source, target, rank);
+    }
+
+    /**
+     * Para cada uma das count origens sorteadas, um destino por potência de
+     * 2: o nó que o Dijkstra finaliza na posição 2^k (rank de Dijkstra). Rank
+     * alto = consulta longa; é o que separa motores de busca local (Dijkstra,
+     * ALT) dos de pré-processamento (CH).
+     */
+    private BenchmarkQuerySet generateRanked(GraphVersion g, long seed, int count, String description,
+            SolverExecutor.BulkJob job) {
+        Random random = new Random(seed);
+        int n = g.idMap.getOriginalCount();
+        ShortestPathEngine dijkstra = g.getEngines().get(DijkstraEngine.NAME);
+        IntArrayList source = new IntArrayList();
+        IntArrayList target = new IntArrayList();
+        IntArrayList rank = new IntArrayList();
+        for (int i = 0; i < count; i++) {
+            int s = 1 + random.nextInt(n);
+            int[] bySettleOrder = job.call(() -> settleOrder(g, dijkstra, s));
+            for (int r = 2; r < bySettleOrder.length; r <<= 1) {
+                source.add(s);
+                target.add(bySettleOrder[r]);
+                rank.add(r);
+            }
+        }
+        return new BenchmarkQuerySet(description, source.toIntArray(), target.toIntArray(), rank.toIntArray());
+    }
+
+    /** Nós originais alcançáveis de s, na ordem em que o Dijkstra os finaliza (s primeiro). */
+    private static int[] settleOrder(GraphVersion g, ShortestPathEngine dijkstra, int s) {
+        double[] virtualDist = dijkstra.oneToAll(g.idMap.toVirtual(s));
+        int n = g.idMap.getOriginalCount();
+        double[] dist = new double[n + 1];
+        int[] nodes = new int[n];
+        int reachable = 0;
+        for (int u = 1; u <= n; u++) {
+            dist[u] = virtualDist[g.idMap.toVirtual(u)];
+            if (dist[u] < Double.MAX_VALUE)
+                nodes[reachable++] = u;
+        }
+        IntArrays.quickSort(nodes, 0, reachable, (a, b) -> a == b ? 0
+                : dist[a] != dist[b] ? Double.compare(dist[a], dist[b]) : Integer.compare(a, b));
+        return Arrays.copyOf(nodes, reachable);
+    }
+
+    /** Roda a consulta index em todos os motores, começando por um diferente a cada consulta. */
+    private static Void measure(GraphVersion g, List<ShortestPathEngine> engines, boolean oneToAll,
+            BenchmarkQuerySet queries, int index, long[] nanos, double[] distances) {
+        int s = g.idMap.toVirtual(queries.source[index]);
+        int t = g.idMap.toVirtual(queries.target[index]);
+        for (int k = 0; k < engines.size(); k++) {
+            int j = (index + k) % engines.size();
+            long start = System.nanoTime();
+            distances[j] = run(engines.get(j), oneToAll, s, t);
+            nanos[j] = System.nanoTime() - start;
         }
-        
-        return csv.toString();
+        return null;
+    }
+
+    /** As consultas divididas em threads pedaços bulk simultâneos (pedaço k: consultas k, k + threads, ...). */
+    private static LatencyHistogram runParallel(GraphVersion g, ShortestPathEngine engine, boolean oneToAll,
+            BenchmarkQuerySet queries, int threads, SolverExecutor.BulkJob job) {
+        List<Future<LatencyHistogram>> chunks = new ArrayList<>();
+        for (int k = 0; k < threads; k++) {
+            final int first = k;
+            chunks.add(job.submit(() -> {
+                LatencyHistogram histogram = new LatencyHistogram();
+                for (int q = first; q < queries.size(); q += threads) {
+                    int s = g.idMap.toVirtual(queries.source[q]);
+                    int t = g.idMap.toVirtual(queries.target[q]);
+                    long start = System.nanoTime();
+                    run(engine, oneToAll, s, t);
+                    histogram.record(System.nanoTime() - start);
+                }
+                return histogram;
+            }));
+        }
+        LatencyHistogram total = new LatencyHistogram();
+        for (Future<LatencyHistogram> chunk : chunks)
+            total.add(SolverExecutor.await(chunk));
+        return total;
+    }
+
+    private static double run(ShortestPathEngine engine, boolean oneToAll, int s, int t) {
+        return oneToAll ? engine.oneToAll(s)[t] : engine.distance(s, t);
+    }
+
+    private static boolean sameDistance(double a, double b) {
+        return a == b || Math.abs(a - b) <= 1e-9 * Math.max(1, Math.abs(a));
+    }
+
+    private static BenchmarkSummary summarize(ShortestPathEngine engine, String mode, int threads, int effectiveThreads,
+            LatencyHistogram histogram, LatencyHistogram reference) {
+        BenchmarkSummary summary = new BenchmarkSummary();
+        summary.engine = engine.getName();
+        summary.mode = mode;
+        summary.threads = threads;
+        summary.effectiveThreads = effectiveThreads;
+        summary.count = histogram.getCount();
+        summary.p50Millis = histogram.percentile(50) / 1_000_000.0;
+        summary.p90Millis = histogram.percentile(90) / 1_000_000.0;
+        summary.p99Millis = histogram.percentile(99) / 1_000_000.0;
+        summary.maxMillis = histogram.getMax() / 1_000_000.0;
+        summary.meanMillis = histogram.getMean() / 1_000_000.0;
+        summary.speedup = (double) reference.percentile(50) / Math.max(1, histogram.percentile(50));
+        return summary;
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    /** Saída do benchmark, escrita aos poucos (uma linha por consulta assim que ela termina). */
+    private interface Report {
+        void begin(GraphVersion g, BenchmarkRequest request, List<ShortestPathEngine> engines, BenchmarkQuerySet queries)
+                throws IOException;
+
+        void query(BenchmarkQueryResult row) throws IOException;
+
+        void summary(BenchmarkSummary summary) throws IOException;
+
+        void end() throws IOException;
     }
 
-    private BenchmarkResult runSingleComparison(Graph graph, int s, int t) {
-        // 1. Dijkstra
-        DijkstraSolver dijkstra = new DijkstraSolver();
-        long startD = System.nanoTime();
-        double distD = dijkstra.compute(graph, s, t);
-        long endD = System.nanoTime();
+    /**
+     * CSV em três tabelas separadas por linha em branco: parâmetros, uma
+     * linha por consulta (um tempo por motor) e o resumo por motor e fase.
+     */
+    private static class CsvReport implements Report {
+        private final BufferedWriter out;
+        private boolean summaryStarted;
 
-        // 2. Duan
-        DuanSolver duan = new DuanSolver();
-        long startDu = System.nanoTime();
-        // Duan calcula 1-para-todos, pegamos o destino específico
-        double[] distsDu = duan.compute(graph, s); 
-        long endDu = System.nanoTime();
+        CsvReport(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin(GraphVersion g, BenchmarkRequest request, List<ShortestPathEngine> engines,
+                BenchmarkQuerySet queries) throws IOException {
+            line("Region;Graph Version;Mode;Seed;Queries;Warmup;Dijkstra Ranks");
+            line(g.getRegion() + ";" + g.getVersion() + ";" + request.mode + ";" + request.seed + ";" + queries.size()
+                    + ";" + request.warmup + ";" + request.ranks);
+            line("");
+            StringBuilder header = new StringBuilder("Query;Source;Target;Dijkstra Rank;Distance");
+            for (ShortestPathEngine engine : engines)
+                header.append(';').append(engine.getName()).append(" (ms)");
+            line(header.append(";Mismatch").toString());
+        }
 
-        double timeD = (endD - startD) / 1_000_000.0; // ms
-        double timeDu = (endDu - startDu) / 1_000_000.0; // ms
-        
-        return new BenchmarkResult(distD, timeD, timeDu);
+        @Override
+        public void query(BenchmarkQueryResult row) throws IOException {
+            StringBuilder line = new StringBuilder(String.format("%d;%d;%d;%d;%.2f", row.index, row.source, row.target,
+                    row.rank, row.distance));
+            for (double millis : row.millis.values())
+                line.append(String.format(";%.4f", millis));
+            line(line.append(';').append(String.join(",", row.mismatches)).toString());
+        }
+
+        @Override
+        public void summary(BenchmarkSummary s) throws IOException {
+            if (!summaryStarted) {
+                summaryStarted = true;
+                line("");
+                line("Engine;Mode;Threads;Effective Threads;Count;p50 (ms);p90 (ms);p99 (ms);Max (ms);Mean (ms);"
+                        + "Throughput (q/s);Speedup p50 (x);Mismatches");
+            }
+            line(String.format("%s;%s;%d;%d;%d;%.4f;%.4f;%.4f;%.4f;%.4f;%.2f;%.2f;%d", s.engine, s.mode, s.threads,
+                    s.effectiveThreads, s.count, s.p50Millis, s.p90Millis, s.p99Millis, s.maxMillis, s.meanMillis,
+                    s.throughput, s.speedup, s.mismatches));
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.flush();
+        }
+
+        private void line(String text) throws IOException {
+            out.write(text);
+            out.write('\n');
+            out.flush();
+        }
     }
 
-    private static class BenchmarkResult {
-        double distance;
-        double dijkstraTime;
-        double duanTime;
-        public BenchmarkResult(double d, double dt, double dut) {
-            this.distance = d; this.dijkstraTime = dt; this.duanTime = dut;
+    /** {"region", "graphVersion", ..., "queries": [...], "summary": [...]}, escrito com o gerador do Jackson. */
+    private class JsonReport implements Report {
+        private final JsonGenerator json;
+        private boolean summaryStarted;
+
+        JsonReport(OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out);
+        }
+
+        @Override
+        public void begin(GraphVersion g, BenchmarkRequest request, List<ShortestPathEngine> engines,
+                BenchmarkQuerySet queries) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("region", g.getRegion());
+            json.writeNumberField("graphVersion", g.getVersion());
+            json.writeStringField("mode", request.mode);
+            json.writeNumberField("seed", request.seed);
+            json.writeNumberField("queryCount", queries.size());
+            json.writeNumberField("warmup", request.warmup);
+            json.writeBooleanField("ranks", request.ranks);
+            json.writeArrayFieldStart("engines");
+            for (ShortestPathEngine engine : engines)
+                json.writeString(engine.getName());
+            json.writeEndArray();
+            json.writeArrayFieldStart("queries");
+            json.flush();
+        }
+
+        @Override
+        public void query(BenchmarkQueryResult row) throws IOException {
+            json.writeObject(row);
+            json.flush();
+        }
+
+        @Override
+        public void summary(BenchmarkSummary summary) throws IOException {
+            if (!summaryStarted) {
+                summaryStarted = true;
+                json.writeEndArray();
+                json.writeArrayFieldStart("summary");
+            }
+            json.writeObject(summary);
+            json.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.flush();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package br.udesc.tcc.api.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Diretório de dados (routing.data-dir): grafos, snapshots, CH/ALT e dumps
+ * JFR. Todo caminho que chega pela API (admin) é resolvido aqui dentro; um caminho
+ * que, normalizado (.. e links), sai do diretório é recusado, para o admin
+ * não ler nem gravar arquivos arbitrários do servidor.
+ */
+@Component
+public class DataDirectory {
+
+	@Value("${routing.data-dir:C:/dados}")
+	private String dir;
+
+	/**
+	 * Caminho relativo ao diretório de dados (ou absoluto, desde que dentro
+	 * dele). IllegalArgumentException se vazio ou se sair do diretório.
+	 */
+	public Path resolve(String path) {
+		if (path == null || path.isBlank())
+			throw new IllegalArgumentException("Caminho vazio");
+		Path root = root();
+		Path resolved = root.resolve(path).normalize();
+		if (!resolved.startsWith(root) || resolved.equals(root)
+				|| Files.exists(root) && !realParent(resolved).startsWith(realPath(root)))
+			throw new IllegalArgumentException("Caminho fora do diretório de dados (" + root + "): " + path);
+		return resolved;
+	}
+
+	/** Arquivo de nome fixo (ex: USA-road-t.NY.gr) no diretório de dados. */
+	public String file(String name) {
+		return root().resolve(name).toString();
+	}
+
+	private Path root() {
+		return Paths.get(dir).toAbsolutePath().normalize();
+	}
+
+	// Links simbólicos: o diretório real mais próximo que existe (o arquivo pode ainda não existir)
+	private static Path realParent(Path file) {
+		Path parent = file.getParent();
+		while (!Files.exists(parent))
+			parent = parent.getParent(); // Para no mais tardar na raiz, que existe
+		return realPath(parent);
+	}
+
+	private static Path realPath(Path path) {
+		try {
+			return path.toRealPath();
+		} catch (IOException e) {
+			return path;
+		}
+	}
+}
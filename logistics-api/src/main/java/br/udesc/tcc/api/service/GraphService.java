@@ -1,88 +1,1240 @@
 package br.udesc.tcc.api.service;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import algos.DeltaSteppingSolver;
+import algos.DistanceMatrix;
+import algos.OneToManyRouter;
+import algos.WorkCounters;
+import algos.alt.AltPreprocessor;
+import algos.alt.LandmarkTable;
+import algos.ch.ChManyToMany;
+import algos.ch.ChPreprocessor;
+import algos.ch.ContractionHierarchy;
+import algos.duan.DuanContext;
+import algos.duan.DuanResults.BoundedResult;
 import algos.duan.DuanSolver;
+import algos.dynamic.DynamicSsspTree;
+import algos.dynamic.SptCache;
+import algos.engine.AdaptiveEnginePolicy;
+import algos.engine.AltEngine;
+import algos.engine.ChEngine;
+import algos.engine.DeltaSteppingEngine;
+import algos.engine.DijkstraEngine;
+import algos.engine.DuanEngine;
+import algos.engine.EngineRegistry;
+import algos.engine.PathResult;
+import algos.engine.ShortestPathEngine;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import br.udesc.tcc.api.dto.CacheStatsResponse;
+import br.udesc.tcc.api.dto.GraphStatusResponse;
+import br.udesc.tcc.api.dto.HealthResponse;
+import br.udesc.tcc.api.dto.IsochroneResponse;
+import br.udesc.tcc.api.dto.MatrixResponse;
+import br.udesc.tcc.api.dto.MemoryReportResponse;
+import br.udesc.tcc.api.dto.RegionsResponse;
+import br.udesc.tcc.api.dto.RouteBatchItem;
+import br.udesc.tcc.api.dto.RouteBatchRequest;
 import br.udesc.tcc.api.dto.RouteResponse;
+import br.udesc.tcc.api.dto.TrafficUpdateRequest;
+import br.udesc.tcc.api.dto.TrafficUpdateResponse;
+import geo.Hull;
+import geo.PathEncoding;
+import geo.Simplify;
+import graph.DynamicGraph;
 import graph.Graph;
 import graph.GraphTransformer;
+import graph.MemoryFootprint;
 import graph.Node;
+import graph.VirtualIdMap;
 import io.DimacsLoader;
+import io.GraphSnapshot;
+import io.LoadProgress;
 import jakarta.annotation.PostConstruct; // Se usar Java 17+, senão javax.annotation
 
 @Service
 public class GraphService {
 
-	private Graph graph; // O grafo carregado na RAM
+	// Onde ficam os arquivos das regiões e os caminhos que o admin pode ler/gravar
+	@Autowired
+	private DataDirectory dataDirectory;
 
-	// Caminhos fixos para o TCC (pode mover para application.properties depois)
-	private static final String PATH_GR = "C:/dados/USA-road-t.NY.gr";
-	private static final String PATH_CO = "C:/dados/USA-road-d.NY.co";
+	// Regiões carregadas (nome -> versão em uso). Cada uma é trocada de uma vez pelo admin
+	private final Map<String, GraphVersion> regions = new ConcurrentHashMap<>();
+	private final AtomicLong versionCounter = new AtomicLong();
+	private final Set<GraphVersion> retired = ConcurrentHashMap.newKeySet(); // ainda com consultas em andamento
 
+	// Região das rotas sem {region} (/api/route); carregada no início e nunca despejada
+	@Value("${routing.regions.default:NY}")
+	private String defaultRegion;
+	// Orçamento de memória estimada das regiões (0 = sem limite); acima dele sai a menos usada
+	@Value("${routing.regions.max-bytes:0}")
+	private long regionsMaxBytes;
+	@Value("${routing.regions.retry-after-seconds:10}")
+	private int regionRetryAfterSeconds;
+
+	// Cargas em segundo plano (admin e primeiro pedido de uma região): uma por vez
+	private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "graph-loader");
+		t.setDaemon(true);
+		return t;
+	});
+	private final Map<String, CompletableFuture<GraphVersion>> pendingRegions = new ConcurrentHashMap<>();
+	private final AtomicBoolean loading = new AtomicBoolean();
+	private volatile String loadingSource;
+	private volatile String lastLoadError;
+	// Carga rodando no loader (uma por vez): região e andamento, para o status e o health check
+	private volatile String progressRegion;
+	private volatile LoadProgress progress;
+	// Fases independentes da carga (CH, ALT, pesos dinâmicos) rodam juntas aqui
+	private final ExecutorService loadTasks = Executors.newFixedThreadPool(2, r -> {
+		Thread t = new Thread(r, "graph-load-task");
+		t.setDaemon(true);
+		return t;
+	});
+	// Sem progresso (fase nova, bytes lidos, rodada da CH ou landmark) por tanto tempo, a carga é dada como travada
+	@Value("${routing.load.stall-timeout-ms:900000}")
+	private long loadStallTimeoutMillis;
+
+	// Orçamento das árvores em cache (8 bytes por nó virtual cada) e consultas até a origem ganhar árvore
+	@Value("${routing.spt-cache.max-bytes:268435456}")
+	private long sptCacheMaxBytes;
+	@Value("${routing.spt-cache.admit-after:3}")
+	private int sptCacheAdmitAfter;
+
+	// Rotas prontas por par (engine=auto), com validade e single-flight para pedidos iguais simultâneos
+	@Value("${routing.route-cache.ttl-ms:60000}")
+	private long routeCacheTtlMillis;
+	@Value("${routing.route-cache.max-entries:100000}")
+	private int routeCacheMaxEntries;
+
+	// Teto da matriz (origens x destinos): o resultado é um int[] só, no heap que atende todas as regiões
+	@Value("${routing.matrix.max-cells:1000000}")
+	private long matrixMaxCells;
+
+	// Pool dos algoritmos paralelos (matriz, Delta-Stepping)
+	private final ForkJoinPool computePool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	// Lote de rotas: origens com pelo menos tantos destinos ganham uma busca one-to-many
+	private static final int BATCH_TREE_MIN_TARGETS = 4;
+
+	// Pontos do contorno agrupados numa grade (~50 m) antes do fecho
+	private static final double HULL_CELL = 0.0005;
+	private static final double CONCAVE_THRESHOLD = 2.0;
+	// O côncavo custa O(n²) nos pontos: acima disso a célula da grade dobra até caber
+	private static final int CONCAVE_MAX_POINTS = 2000;
+
+	// Arquivos fixos para o TCC, por região (%s = nome, ex: NY), no diretório de dados. O snapshot
+	// binário é preferido quando existe e é gravado depois da primeira carga em texto. CH e
+	// landmarks ficam ao lado do .gr (ou do snapshot): mesmo nome, extensão .ch/.alt
+	private static final String PATH_GR = "USA-road-t.%s.gr";
+	private static final String PATH_CO = "USA-road-d.%s.co";
+	private static final String PATH_SNAPSHOT = "USA-road-t.%s.grs";
+
+	/**
+	 * A carga da região padrão vai para o loader: o Spring sobe na hora e,
+	 * até ela terminar, as rotas respondem 503 e /api/health/ready fica
+	 * fora do ar. Uma falha não derruba a aplicação; o próximo pedido tenta
+	 * de novo.
+	 */
 	@PostConstruct
 	public void init() {
+		System.out.println("--- [GraphService] Iniciando carga de dados em segundo plano ---");
+		startRegionLoad(defaultRegion);
+	}
+
+	/** Região nas convenções de arquivo (snapshot, ou .gr + .co): do disco, ou grava o snapshot para a próxima vez. */
+	private GraphVersion loadRegion(String region, LoadProgress progress) throws IOException {
+		String snapshot = regionFile(PATH_SNAPSHOT, region);
+		if (new File(snapshot).exists())
+			return loadVersion(region, null, null, snapshot, progress);
+
+		GraphVersion g = loadVersion(region, regionFile(PATH_GR, region), regionFile(PATH_CO, region), null,
+				progress);
 		try {
-			System.out.println("--- [GraphService] Iniciando carga de dados ---");
-			long start = System.currentTimeMillis();
+			progress.setPhase("gravando snapshot");
+			GraphSnapshot.from(g.dynamicGraph, g.idMap, g.latitude, g.longitude).save(snapshot);
+			System.out.println("--- [GraphService] Snapshot de " + region + " salvo em " + snapshot + " ---");
+		} catch (IOException e) {
+			System.out.println("--- [GraphService] Não foi possível salvar o snapshot de " + region + ": " + e + " ---");
+		}
+		return g;
+	}
 
-			// 1. Carrega do disco
+	private boolean regionExists(String region) {
+		// Só letras, dígitos, _ e -: o nome vira parte de um caminho
+		return region.matches("[A-Za-z0-9_-]+") && (new File(regionFile(PATH_SNAPSHOT, region)).exists()
+				|| new File(regionFile(PATH_GR, region)).exists() && new File(regionFile(PATH_CO, region)).exists());
+	}
+
+	private String regionFile(String pattern, String region) {
+		return dataDirectory.file(String.format(pattern, region));
+	}
+
+	/**
+	 * Carrega um conjunto de dados completo: .gr + .co em texto (DIMACS) ou um
+	 * snapshot binário (GraphSnapshot), e monta tudo que deriva dele.
+	 */
+	private GraphVersion loadVersion(String region, String pathGr, String pathCo, String pathSnapshot,
+			LoadProgress progress) throws IOException {
+		long start = System.currentTimeMillis();
+		// Pico de heap da leitura + transformação (original e transformado juntos); com outras
+		// consultas ou cargas rodando, inclui o lixo delas
+		MemoryFootprint.HeapPeak loadPeak = new MemoryFootprint.HeapPeak();
+		// 1. Carrega do disco
+		Graph rawGraph;
+		String base;
+		GraphVersion g;
+		if (pathSnapshot != null) {
+			System.out.println("--- [GraphService] Carregando snapshot de " + pathSnapshot + " ---");
+			progress.setPhase("lendo snapshot");
+			long size = new File(pathSnapshot).length();
+			progress.addTotalBytes(size);
+			rawGraph = GraphSnapshot.load(pathSnapshot).toGraph();
+			progress.addBytesRead(size);
+			base = stripExtension(pathSnapshot);
+			g = new GraphVersion(region, versionCounter.incrementAndGet(), pathSnapshot);
+		} else {
+			progress.setPhase("lendo .gr e .co");
 			DimacsLoader loader = new DimacsLoader();
-			Graph rawGraph = loader.load(PATH_GR, PATH_CO);
+			rawGraph = loader.load(pathGr, pathCo, progress);
+			base = stripExtension(pathGr);
+			g = new GraphVersion(region, versionCounter.incrementAndGet(), pathGr + " + " + pathCo);
+		}
 
-			// 2. Transforma (Grau Constante)
-			// Isso é CRUCIAL: O DuanSolver só funciona no grafo transformado
-			GraphTransformer transformer = new GraphTransformer();
-			this.graph = transformer.toConstantDegree(rawGraph);
+		// 2. Transforma (Grau Constante)
+		// Isso é CRUCIAL: O DuanSolver só funciona no grafo transformado
+		progress.setPhase("transformando");
+		GraphTransformer transformer = new GraphTransformer();
+		g.graph = transformer.toConstantDegree(rawGraph);
+		g.idMap = transformer.getIdMap();
+		loadCoordinates(g, rawGraph);
+		g.loadPeakBytes = loadPeak.peak();
+		g.rawGraphBytes = rawGraph.getMemoryBytes();
+		g.rawEdges = rawGraph.getEdgeCount();
+		g.graphBytes = g.graph.getMemoryBytes();
 
-			long end = System.currentTimeMillis();
-			System.out.println("--- [GraphService] Grafo carregado em " + (end - start) + "ms. Pronto para rotas! ---");
+		// 3. CH e landmarks do ALT (carrega do disco ou constrói e salva) e pesos atualizáveis para o
+		// trânsito: só leem o grafo transformado, então rodam ao mesmo tempo
+		progress.setPhase("CH, landmarks e pesos dinâmicos");
+		Graph graph = g.graph;
+		CompletableFuture<ContractionHierarchy> hierarchy = runLoadTask(() -> loadOrBuildHierarchy(graph, base + ".ch", progress));
+		CompletableFuture<LandmarkTable> landmarks = runLoadTask(() -> loadOrBuildLandmarks(graph, base + ".alt", progress));
+		g.dynamicGraph = new DynamicGraph(graph);
+		g.hierarchy = joinLoadTask(hierarchy);
+		if (g.hierarchy != null)
+			g.chMatrix = new ChManyToMany(g.hierarchy, computePool);
+		g.landmarks = joinLoadTask(landmarks);
 
-		} catch (IOException e) {
-			throw new RuntimeException("Falha fatal ao carregar grafo do TCC", e);
+		// 4. Registro dos motores e caches
+		progress.setPhase("motores e caches");
+		registerEngines(g);
+		g.sptCache = new SptCache(sptCacheMaxBytes, sptCacheAdmitAfter);
+		g.batchRouter = new OneToManyRouter(g.dynamicGraph);
+		g.routeCache = new RouteCache(routeCacheTtlMillis, routeCacheMaxEntries);
+		g.distanceMatrix = new DistanceMatrix(computePool);
+		System.out.println("--- [GraphService] Versão " + g.version + " de " + region + " pronta em "
+				+ (System.currentTimeMillis() - start) + "ms ---");
+		return g;
+	}
+
+	private interface LoadTask<T> {
+		T call() throws IOException;
+	}
+
+	private <T> CompletableFuture<T> runLoadTask(LoadTask<T> task) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return task.call();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, loadTasks);
+	}
+
+	private static <T> T joinLoadTask(CompletableFuture<T> future) throws IOException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException)
+				throw ((UncheckedIOException) cause).getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw e;
+		}
+	}
+
+	private static String stripExtension(String path) {
+		int dot = path.lastIndexOf('.');
+		int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+		return dot > slash ? path.substring(0, dot) : path;
+	}
+
+	private void loadCoordinates(GraphVersion g, Graph rawGraph) {
+		int n = rawGraph.getNodeCount();
+		g.latitude = new double[n + 1];
+		g.longitude = new double[n + 1];
+		for (Node node : rawGraph.getNodes().values()) {
+			g.latitude[node.id] = node.latitude;
+			g.longitude[node.id] = node.longitude;
+		}
+	}
+
+	private ContractionHierarchy loadOrBuildHierarchy(Graph graph, String path, LoadProgress progress) throws IOException {
+		if (new File(path).exists()) {
+			System.out.println("--- [GraphService] Carregando CH de " + path + " ---");
+			return ContractionHierarchy.load(path);
+		}
+
+		System.out.println("--- [GraphService] Contraindo grafo (CH), pode demorar na primeira vez ---");
+		long start = System.currentTimeMillis();
+		ContractionHierarchy ch = new ChPreprocessor().build(graph, progress);
+		System.out.println("--- [GraphService] CH pronta em " + (System.currentTimeMillis() - start) + "ms ("
+				+ ch.getShortcutCount() + " atalhos) ---");
+		ch.save(path);
+		return ch;
+	}
+
+	private LandmarkTable loadOrBuildLandmarks(Graph graph, String path, LoadProgress progress) throws IOException {
+		if (new File(path).exists()) {
+			System.out.println("--- [GraphService] Carregando landmarks de " + path + " ---");
+			return LandmarkTable.load(path);
+		}
+
+		System.out.println("--- [GraphService] Escolhendo landmarks (ALT) ---");
+		long start = System.currentTimeMillis();
+		LandmarkTable table = new AltPreprocessor().build(graph, progress);
+		System.out.println("--- [GraphService] Landmarks prontos em " + (System.currentTimeMillis() - start) + "ms ---");
+		table.save(path);
+		return table;
+	}
+
+	private void registerEngines(GraphVersion g) {
+		EngineRegistry registry = new EngineRegistry();
+		registry.register(new DijkstraEngine(g.graph));
+		registry.register(new DuanEngine(g.graph));
+		g.deltaStepping = new DeltaSteppingSolver(computePool, 0);
+		registry.register(new DeltaSteppingEngine(g.graph, g.deltaStepping));
+		if (g.landmarks != null)
+			registry.register(new AltEngine(g.graph, g.landmarks));
+		if (g.hierarchy != null)
+			registry.register(new ChEngine(g.hierarchy));
+
+		g.engines = registry;
+		g.enginePolicy = new AdaptiveEnginePolicy(registry, g.graph);
+		System.out.println("--- [GraphService] Engines: " + registry.getNames() + " ---");
+	}
+
+	/**
+	 * Versão em uso da região (null = a padrão), marcada como em uso: toda
+	 * consulta chama acquire no início e release (finally) no fim, e trabalha
+	 * só com ela, mesmo que o admin troque o grafo ou a região seja despejada
+	 * no meio. Região ainda não carregada: a carga começa em segundo plano e o
+	 * pedido volta com 503 e Retry-After.
+	 */
+	public GraphVersion acquire(String region) {
+		String name = region != null ? region : defaultRegion;
+		while (true) {
+			GraphVersion g = regions.get(name);
+			if (g == null)
+				g = awaitRegion(name);
+			g.inFlight.incrementAndGet();
+			if (g == regions.get(name)) {
+				g.lastUsed = System.nanoTime();
+				return g;
+			}
+			release(g); // trocou (ou saiu) entre a leitura e o incremento
+		}
+	}
+
+	public GraphVersion acquire() {
+		return acquire(null);
+	}
+
+	public void release(GraphVersion g) {
+		g.release();
+		if (g != regions.get(g.region) && !g.isDraining())
+			retired.remove(g);
+	}
+
+	/** Versão já carregada pelo loader, ou dispara a carga (uma por região) e responde 503. */
+	private GraphVersion awaitRegion(String region) {
+		CompletableFuture<GraphVersion> pending = pendingRegions.get(region);
+		if (pending == null) {
+			if (!regionExists(region))
+				throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Região desconhecida: " + region);
+			System.out.println("--- [GraphService] Primeiro pedido de " + region + ": carregando ---");
+			pending = startRegionLoad(region);
+		}
+
+		if (!pending.isDone())
+			throw new RegionLoadingException(region, regionRetryAfterSeconds);
+		if (pending.isCompletedExceptionally()) {
+			pendingRegions.remove(region, pending);
+			Throwable cause = pending.handle((v, e) -> e).join();
+			throw new IllegalStateException("Falha ao carregar a região " + region, cause);
 		}
+		return pending.join();
+	}
+
+	private CompletableFuture<GraphVersion> startRegionLoad(String region) {
+		CompletableFuture<GraphVersion> mine = new CompletableFuture<>();
+		CompletableFuture<GraphVersion> running = pendingRegions.putIfAbsent(region, mine);
+		if (running != null)
+			return running;
+
+		loader.submit(() -> {
+			LoadProgress p = beginProgress(region);
+			try {
+				mine.complete(install(loadRegion(region, p)));
+				pendingRegions.remove(region, mine);
+				System.out.println("--- [GraphService] " + region + " carregada em "
+						+ (System.currentTimeMillis() - p.getStartedAt()) + "ms. Pronto para rotas! ---");
+			} catch (Exception | OutOfMemoryError e) {
+				lastLoadError = region + ": " + e;
+				System.out.println("--- [GraphService] Falha ao carregar " + region + ": " + e + " ---");
+				mine.completeExceptionally(e); // fica até o próximo pedido ver o erro
+			} finally {
+				endProgress();
+			}
+		});
+		return mine;
+	}
+
+	private LoadProgress beginProgress(String region) {
+		LoadProgress p = new LoadProgress();
+		progress = p;
+		progressRegion = region;
+		return p;
+	}
+
+	private void endProgress() {
+		progress = null;
+		progressRegion = null;
+	}
+
+	/** Coloca a versão no ar (a anterior da região termina as consultas e sai) e respeita o orçamento. */
+	private GraphVersion install(GraphVersion next) {
+		GraphVersion old = regions.put(next.region, next);
+		if (old != null)
+			retire(old);
+		evictOverBudget(next.region);
+		return next;
+	}
+
+	private void retire(GraphVersion old) {
+		retired.add(old);
+		old.retire();
+		if (!old.isDraining())
+			retired.remove(old);
+	}
+
+	/** Despeja as regiões menos usadas até a memória estimada caber em routing.regions.max-bytes. */
+	private synchronized void evictOverBudget(String keep) {
+		if (regionsMaxBytes <= 0)
+			return;
+		long total = 0;
+		for (GraphVersion g : regions.values())
+			total += g.getMemoryBytes();
+
+		while (total > regionsMaxBytes) {
+			GraphVersion lru = null;
+			for (GraphVersion g : regions.values()) {
+				if (g.region.equals(keep) || g.region.equals(defaultRegion))
+					continue;
+				if (lru == null || g.lastUsed < lru.lastUsed)
+					lru = g;
+			}
+			if (lru == null)
+				break; // só sobrou o que não pode sair
+			long bytes = lru.getMemoryBytes();
+			if (regions.remove(lru.region, lru)) {
+				retire(lru);
+				System.out.println("--- [GraphService] Região " + lru.region + " despejada (~" + (bytes >> 20)
+						+ " MB) para caber no orçamento ---");
+			}
+			total -= bytes;
+		}
+	}
+
+	/**
+	 * Começa a carregar outro conjunto de dados para a região (null = a
+	 * padrão) em segundo plano (texto .gr + .co ou snapshot) e, pronto, troca
+	 * a versão da região de uma vez. As consultas em andamento terminam na
+	 * versão antiga. Devolve false se já há uma carga do admin rodando. Os
+	 * caminhos ficam no diretório de dados (senão IllegalArgumentException).
+	 */
+	public boolean reloadAsync(String region, String pathGr, String pathCo, String pathSnapshot) {
+		if (pathSnapshot == null && (pathGr == null || pathCo == null))
+			throw new IllegalArgumentException("Informe gr e co, ou snapshot");
+		String name = region != null ? region : defaultRegion;
+		if (!name.matches("[A-Za-z0-9_-]+"))
+			throw new IllegalArgumentException("Nome de região inválido: " + name);
+		// Só dentro do diretório de dados (a carga também grava .ch/.alt ao lado)
+		String gr = pathSnapshot == null ? dataDirectory.resolve(pathGr).toString() : null;
+		String co = pathSnapshot == null ? dataDirectory.resolve(pathCo).toString() : null;
+		String snapshot = pathSnapshot != null ? dataDirectory.resolve(pathSnapshot).toString() : null;
+		if (!loading.compareAndSet(false, true))
+			return false;
+
+		loadingSource = name + ": " + (snapshot != null ? snapshot : gr + " + " + co);
+		loader.submit(() -> {
+			LoadProgress p = beginProgress(name);
+			try {
+				long start = System.currentTimeMillis();
+				GraphVersion next = install(loadVersion(name, gr, co, snapshot, p));
+				lastLoadError = null;
+				System.out.println("--- [GraphService] Versão " + next.version + " de " + name + " no ar (troca em "
+						+ (System.currentTimeMillis() - start) + "ms de carga) ---");
+			} catch (Exception | OutOfMemoryError e) {
+				lastLoadError = e.toString();
+				System.out.println("--- [GraphService] Falha ao carregar " + loadingSource + ": " + e + " ---");
+			} finally {
+				endProgress();
+				loadingSource = null;
+				loading.set(false);
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Grava o grafo da versão atual da região (com os pesos do trânsito) como
+	 * snapshot binário. path fica no diretório de dados (senão
+	 * IllegalArgumentException).
+	 */
+	public void saveSnapshot(String region, String path) throws IOException {
+		String file = dataDirectory.resolve(path).toString();
+		GraphVersion g = acquire(region);
+		try {
+			GraphSnapshot.from(g.dynamicGraph, g.idMap, g.latitude, g.longitude).save(file);
+			System.out.println("--- [GraphService] Snapshot da versão " + g.version + " salvo em " + file + " ---");
+		} finally {
+			release(g);
+		}
+	}
+
+	/** Status de uma região (null = a padrão); não dispara carga. */
+	public GraphStatusResponse getStatus(String region) {
+		String name = region != null ? region : defaultRegion;
+		GraphStatusResponse status = toStatus(regions.get(name));
+		status.region = name;
+		status.loading = loading.get() || pendingRegions.containsKey(name);
+		status.loadingSource = loadingSource;
+		status.lastError = lastLoadError;
+		LoadProgress p = progress;
+		if (p != null && name.equals(progressRegion)) {
+			status.loadPhase = p.getPhase();
+			status.loadBytesRead = p.getBytesRead();
+			status.loadTotalBytes = p.getTotalBytes();
+		}
+		status.draining = new ArrayList<>();
+		for (GraphVersion old : retired) {
+			if (old.region.equals(name) && old.isDraining())
+				status.draining.add(old.version);
+		}
+		return status;
+	}
+
+	private static GraphStatusResponse toStatus(GraphVersion g) {
+		GraphStatusResponse status = new GraphStatusResponse();
+		if (g != null) {
+			status.region = g.region;
+			status.version = g.version;
+			status.source = g.source;
+			status.loadedAt = g.loadedAt;
+			status.nodes = g.idMap.getOriginalCount();
+			status.virtualNodes = g.graph.getNodeCount();
+			status.engines = new ArrayList<>(g.engines.getNames());
+			status.memoryBytes = g.getMemoryBytes();
+		}
+		return status;
+	}
+
+	/**
+	 * Health check: pronto (readiness) quando a região padrão está no ar;
+	 * vivo (liveness) enquanto a carga em andamento, se houver, avança (fase
+	 * nova, bytes lidos, rodada da CH ou landmark) dentro de
+	 * routing.load.stall-timeout-ms. Com a região padrão no ar, uma carga
+	 * travada em segundo plano (admin, outra região) só aparece em loadStalled:
+	 * reiniciar o processo derrubaria o que já está atendendo.
+	 */
+	public HealthResponse getHealth() {
+		HealthResponse health = new HealthResponse();
+		health.region = defaultRegion;
+		health.ready = regions.containsKey(defaultRegion);
+		LoadProgress p = progress;
+		long now = System.currentTimeMillis();
+		health.loadStalled = p != null && now - p.getLastUpdate() >= loadStallTimeoutMillis;
+		health.live = !health.loadStalled || health.ready;
+		if (p != null) {
+			health.loadingRegion = progressRegion;
+			health.phase = p.getPhase();
+			health.bytesRead = p.getBytesRead();
+			health.totalBytes = p.getTotalBytes();
+			health.elapsedMillis = now - p.getStartedAt();
+		}
+		health.lastError = lastLoadError;
+		if (!health.live)
+			health.status = "DOWN";
+		else if (health.ready)
+			health.status = "UP";
+		else {
+			CompletableFuture<GraphVersion> startup = pendingRegions.get(defaultRegion);
+			health.status = startup != null && !startup.isDone() ? "STARTING" : "DOWN";
+		}
+		return health;
+	}
+
+	/** Regiões carregadas, da mais para a menos usada, com a memória estimada de cada uma. */
+	public RegionsResponse getRegions() {
+		RegionsResponse response = new RegionsResponse();
+		response.defaultRegion = defaultRegion;
+		response.maxBytes = regionsMaxBytes;
+		response.regions = new ArrayList<>();
+		List<GraphVersion> loaded = new ArrayList<>(regions.values());
+		loaded.sort((a, b) -> Long.compare(b.lastUsed, a.lastUsed));
+		for (GraphVersion g : loaded) {
+			GraphStatusResponse status = toStatus(g);
+			response.usedBytes += status.memoryBytes;
+			response.regions.add(status);
+		}
+		response.loading = new ArrayList<>(pendingRegions.keySet());
+		return response;
 	}
 
 	public RouteResponse calculateRoute(int startNodeId, int endNodeId) {
-		// Validação básica
-		if (graph == null)
-			throw new IllegalStateException("Grafo ainda não carregou!");
+		return calculateRoute((String) null, startNodeId, endNodeId, AdaptiveEnginePolicy.AUTO);
+	}
+
+	/**
+	 * Rota ponto-a-ponto pelo motor pedido ("dijkstra", "duan", "alt", "ch")
+	 * ou, com "auto", pelo que a AdaptiveEnginePolicy estimar como mais barato.
+	 * Origem e destino são IDs DIMACS originais da região (null = a padrão).
+	 * Com "auto" a resposta passa pelo RouteCache (os motores explícitos
+	 * servem para comparação e sempre calculam).
+	 */
+	public RouteResponse calculateRoute(String region, int originalFrom, int originalTo, String engineName) {
+		return calculateRoute(region, originalFrom, originalTo, engineName, false);
+	}
+
+	/**
+	 * Com debug, a resposta traz o trabalho da busca (RouteResponse.debug):
+	 * vértices finalizados, arestas, fila, recursão do Duan. A rota é
+	 * calculada de novo pelo motor que o pedido usaria, sem RouteCache nem
+	 * árvore quente, para os números serem desta consulta. Sem debug, nada é
+	 * coletado além do que o motor já faz.
+	 */
+	public RouteResponse calculateRoute(String region, int originalFrom, int originalTo, String engineName,
+			boolean debug) {
+		GraphVersion g = acquire(region);
+		try {
+			if (debug)
+				return solveRoute(g, originalFrom, originalTo, engineName, new WorkCounters());
+			return calculateRoute(g, originalFrom, originalTo, engineName);
+		} finally {
+			release(g);
+		}
+	}
+
+	private RouteResponse calculateRoute(GraphVersion g, int originalFrom, int originalTo, String engineName) {
+		if (AdaptiveEnginePolicy.AUTO.equals(engineName))
+			return g.routeCache.get(originalFrom, originalTo, () -> solveRoute(g, originalFrom, originalTo, engineName, null));
+		return solveRoute(g, originalFrom, originalTo, engineName, null);
+	}
 
-		// 1. Instancia o Solver
-		DuanSolver solver = new DuanSolver();
+	private RouteResponse solveRoute(GraphVersion g, int originalFrom, int originalTo, String engineName,
+			WorkCounters counters) {
+		int startNodeId = g.idMap.toVirtual(originalFrom);
+		int endNodeId = g.idMap.toVirtual(originalTo);
 
-		// 2. Roda o Algoritmo (Benchmark)
+		String usedEngine;
+		PathResult result;
 		long startTime = System.nanoTime();
-		double[] distances = solver.compute(graph, startNodeId);
+		DynamicSsspTree tree = counters == null && AdaptiveEnginePolicy.AUTO.equals(engineName) ? hotTree(g, startNodeId) : null;
+		if (tree != null) {
+			// Origem quente: a árvore já está pronta (e atualizada com o trânsito)
+			result = new PathResult(tree.distance(endNodeId), tree.path(endNodeId));
+			usedEngine = "spt";
+		} else {
+			ShortestPathEngine engine = g.enginePolicy.forRoute(engineName, startNodeId, endNodeId);
+			result = counters == null ? engine.route(startNodeId, endNodeId) : engine.route(startNodeId, endNodeId, counters);
+			usedEngine = engine.getName();
+		}
 		long endTime = System.nanoTime();
 
-		// 3. Recupera o Caminho (Path Reconstruction)
-		List<Integer> nodeIds = solver.getPath(endNodeId);
+		RouteResponse response = new RouteResponse();
+		response.distance = result.distance;
+		response.computationTime = (endTime - startTime); // Nanosegundos
+		response.path = toCoordinates(g, result.path);
+		response.engine = usedEngine;
+		response.graphVersion = g.version;
+		if (counters != null)
+			response.debug = toDebug(counters);
 
-		// 4. Converte IDs para Lat/Long (para o Frontend)
-		List<RouteResponse.NodeDto> pathCoords = new ArrayList<>();
-		for (int id : nodeIds) {
-			// O grafo transformado preservou os objetos Node com lat/lon corretas
-			Node node = graph.getNodes().get(id);
-			if (node != null) {
-				pathCoords.add(new RouteResponse.NodeDto(node.latitude, node.longitude));
+		return response;
+	}
+
+	private static RouteResponse.Debug toDebug(WorkCounters counters) {
+		RouteResponse.Debug debug = new RouteResponse.Debug();
+		debug.settled = counters.settled;
+		debug.relaxedEdges = counters.relaxations;
+		debug.improvements = counters.improvements;
+		debug.heapInserts = counters.heapPushes;
+		debug.heapPulls = counters.heapPops;
+		debug.recursionCalls = counters.recursionCalls;
+		debug.maxDepth = counters.maxDepth;
+		debug.baseCaseCalls = counters.baseCaseCalls;
+		debug.peakWorkspace = counters.peakWorkspace;
+		return debug;
+	}
+
+	/**
+	 * Caminho da rota no formato pedido: simplificado por Douglas–Peucker
+	 * (tolerance em metros, ou pelo zoom do mapa: ~1 pixel) e, com
+	 * format=polyline/polyline6, codificado no campo polyline no lugar da
+	 * lista. Devolve uma cópia: a resposta original pode estar no RouteCache.
+	 */
+	public RouteResponse formatRoute(RouteResponse route, String format, Double tolerance, Integer zoom) {
+		int precision = polylinePrecision(format);
+		if (precision == 0 && tolerance == null && zoom == null)
+			return route;
+
+		RouteResponse response = new RouteResponse();
+		response.distance = route.distance;
+		response.computationTime = route.computationTime;
+		response.engine = route.engine;
+		response.cached = route.cached;
+		response.graphVersion = route.graphVersion;
+		response.debug = route.debug;
+
+		double[][] path = simplifiedPath(route.path, tolerance, zoom);
+		if (precision > 0) {
+			response.polyline = PathEncoding.polyline(path[0], path[1], precision);
+		} else {
+			response.path = new ArrayList<>(path[0].length);
+			for (int i = 0; i < path[0].length; i++)
+				response.path.add(new RouteResponse.NodeDto(path[0][i], path[1][i]));
+		}
+		return response;
+	}
+
+	/**
+	 * Confere format, tolerance e zoom antes de calcular a rota, para um
+	 * pedido inválido não ocupar um solver (IllegalArgumentException).
+	 */
+	public void validateRouteFormat(String format, Double tolerance, Integer zoom) {
+		polylinePrecision(format);
+		if (tolerance != null && !(tolerance >= 0 && Double.isFinite(tolerance)))
+			throw new IllegalArgumentException("tolerance deve ser um número >= 0 (metros)");
+		if (zoom != null && (zoom < 0 || zoom > 30))
+			throw new IllegalArgumentException("zoom deve estar entre 0 e 30");
+	}
+
+	private static int polylinePrecision(String format) {
+		if (format == null || format.equals("json"))
+			return 0;
+		if (format.equals("polyline"))
+			return 5;
+		if (format.equals("polyline6"))
+			return 6;
+		throw new IllegalArgumentException("format deve ser json, polyline ou polyline6");
+	}
+
+	/** Caminho (simplificado como em formatRoute) em varint delta: ver PathEncoding. */
+	public byte[] encodeRoute(RouteResponse route, Double tolerance, Integer zoom) {
+		double[][] path = simplifiedPath(route.path, tolerance, zoom);
+		return PathEncoding.varintDelta(path[0], path[1]);
+	}
+
+	private static double[][] simplifiedPath(List<RouteResponse.NodeDto> path, Double tolerance, Integer zoom) {
+		int n = path.size();
+		double[] lat = new double[n];
+		double[] lon = new double[n];
+		for (int i = 0; i < n; i++) {
+			lat[i] = path.get(i).lat;
+			lon[i] = path.get(i).lon;
+		}
+
+		double meters = tolerance != null ? tolerance
+				: zoom != null && n > 0 ? Simplify.toleranceForZoom(zoom, lat[0]) : 0;
+		if (meters <= 0 || n <= 2)
+			return new double[][] { lat, lon };
+
+		int[] kept = Simplify.douglasPeucker(lat, lon, meters);
+		double[] keptLat = new double[kept.length];
+		double[] keptLon = new double[kept.length];
+		for (int i = 0; i < kept.length; i++) {
+			keptLat[i] = lat[kept[i]];
+			keptLon[i] = lon[kept[i]];
+		}
+		return new double[][] { keptLat, keptLon };
+	}
+
+	/** Cada ciclo de nós virtuais vira um nó original; depois IDs -> Lat/Long (para o Frontend). */
+	private List<RouteResponse.NodeDto> toCoordinates(GraphVersion g, int[] virtualPath) {
+		int length = g.idMap.collapse(virtualPath, virtualPath.length, virtualPath);
+		List<RouteResponse.NodeDto> pathCoords = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) {
+			int id = virtualPath[i];
+			pathCoords.add(new RouteResponse.NodeDto(g.latitude[id], g.longitude[id]));
+		}
+		return pathCoords;
+	}
+
+	/**
+	 * Lote de rotas: os pares são agrupados por origem e cada grupo é um
+	 * pedaço do job bulk (roda em paralelo com os outros, cedendo a vez aos
+	 * pedidos interativos entre um grupo e outro). Cada grupo resolve a origem
+	 * uma vez só (árvore do SptCache, se houver, ou uma busca one-to-many que
+	 * para no último destino); grupos pequenos vão par a par pelo
+	 * calculateRoute (CH/caches). sink recebe os itens de cada grupo assim que
+	 * ele termina, de várias threads ao mesmo tempo.
+	 */
+	public void calculateRouteBatch(String region, RouteBatchRequest request, SolverExecutor.BulkJob job,
+			Consumer<List<RouteBatchItem>> sink) {
+		GraphVersion g = acquire(region); // o lote inteiro roda na mesma versão
+		try {
+			Map<Integer, IntArrayList> bySource = new LinkedHashMap<>();
+			for (int i = 0; i < request.pairs.size(); i++)
+				bySource.computeIfAbsent(request.pairs.get(i).from, k -> new IntArrayList()).add(i);
+
+			List<Future<Void>> chunks = new ArrayList<>(bySource.size());
+			for (IntArrayList group : bySource.values()) {
+				chunks.add(job.submit(() -> {
+					sink.accept(routeGroup(g, request, group));
+					return null;
+				}));
 			}
+			try {
+				for (Future<Void> chunk : chunks)
+					SolverExecutor.await(chunk);
+			} catch (RuntimeException | Error e) {
+				// A primeira falha (ex: cliente desconectou) sobe, mas só depois que nenhum grupo roda
+				// mais: os que já começaram usam a versão e escrevem no sink (a resposta HTTP)
+				job.cancelPending();
+				for (Future<Void> chunk : chunks)
+					SolverExecutor.awaitQuietly(chunk);
+				throw e;
+			}
+		} finally {
+			release(g);
 		}
+	}
 
-		// 5. Monta a Resposta
-		RouteResponse response = new RouteResponse();
-		response.distance = distances[endNodeId];
-		response.computationTime = (endTime - startTime); // Nanosegundos
-		response.path = pathCoords;
+	private List<RouteBatchItem> routeGroup(GraphVersion g, RouteBatchRequest request, IntArrayList group) {
+		VirtualIdMap idMap = g.idMap;
+		List<RouteBatchItem> items = new ArrayList<>(group.size());
+		IntArrayList valid = new IntArrayList(); // posição em items dos pares com IDs válidos
+		IntArrayList targets = new IntArrayList();
+		int originalFrom = request.pairs.get(group.getInt(0)).from;
+		boolean sourceExists = originalFrom >= 1 && originalFrom <= idMap.getOriginalCount();
+
+		for (int k = 0; k < group.size(); k++) {
+			RouteBatchRequest.Pair pair = request.pairs.get(group.getInt(k));
+			RouteBatchItem item = new RouteBatchItem();
+			item.index = group.getInt(k);
+			item.from = pair.from;
+			item.to = pair.to;
+			item.graphVersion = g.version;
+			if (!sourceExists || pair.to < 1 || pair.to > idMap.getOriginalCount()) {
+				item.error = "Nó inexistente: " + (sourceExists ? pair.to : pair.from);
+			} else {
+				valid.add(k);
+				targets.add(idMap.toVirtual(pair.to));
+			}
+			items.add(item);
+		}
+		if (valid.isEmpty())
+			return items;
+
+		if (valid.size() < BATCH_TREE_MIN_TARGETS && g.sptCache.peek(idMap.toVirtual(originalFrom)) == null) {
+			for (int k : valid) {
+				RouteBatchItem item = items.get(k);
+				RouteResponse route = calculateRoute(g, item.from, item.to, AdaptiveEnginePolicy.AUTO);
+				item.distance = route.distance;
+				item.path = request.includePath ? route.path : null;
+			}
+			return items;
+		}
+
+		int source = idMap.toVirtual(originalFrom);
+		DynamicSsspTree tree = g.sptCache.peek(source);
+		PathResult[] results;
+		if (tree != null) {
+			results = new PathResult[targets.size()];
+			for (int j = 0; j < results.length; j++)
+				results[j] = new PathResult(tree.distance(targets.getInt(j)), tree.path(targets.getInt(j)));
+		} else {
+			results = g.batchRouter.route(source, targets.toIntArray());
+		}
+		for (int j = 0; j < results.length; j++) {
+			RouteBatchItem item = items.get(valid.getInt(j));
+			item.distance = results[j].distance;
+			item.path = request.includePath ? toCoordinates(g, results[j].path) : null;
+		}
+		return items;
+	}
+
+	/**
+	 * Árvore da origem no SptCache. Na falta, é construída quando a origem
+	 * passa de routing.spt-cache.admit-after consultas; as menos usadas saem
+	 * quando o orçamento em bytes estoura.
+	 */
+	private DynamicSsspTree hotTree(GraphVersion g, int source) {
+		DynamicSsspTree tree = g.sptCache.get(source);
+		if (tree != null || !g.sptCache.isHot(source))
+			return tree;
+
+		// Construída sob o lock do trânsito para não perder um lote aplicado no meio
+		synchronized (g.trafficLock) {
+			tree = g.sptCache.peek(source);
+			if (tree != null)
+				return tree;
+			tree = new DynamicSsspTree(g.dynamicGraph, source);
+			if (!g.sptCache.put(source, tree)) {
+				System.out.println("--- [GraphService] Árvore (" + tree.getMemoryBytes() + " bytes) não cabe no orçamento do cache ---");
+				return null;
+			}
+			System.out.println("--- [GraphService] Origem " + source + " virou quente: árvore criada ---");
+			return tree;
+		}
+	}
+
+	/** Memória por estrutura da versão atual da região, com bytes por nó e por aresta. */
+	public MemoryReportResponse getMemoryReport(String region) {
+		GraphVersion g = acquire(region);
+		try {
+			return getMemoryReport(g);
+		} finally {
+			release(g);
+		}
+	}
+
+	private MemoryReportResponse getMemoryReport(GraphVersion g) {
+		MemoryReportResponse report = new MemoryReportResponse();
+		report.region = g.region;
+		report.graphVersion = g.version;
+		report.nodes = g.idMap.getOriginalCount();
+		report.edges = g.rawEdges;
+		report.virtualNodes = g.graph.getNodeCount();
+		report.virtualEdges = g.dynamicGraph.end(report.virtualNodes);
+		report.items = new ArrayList<>();
+		for (MemoryFootprint.Entry entry : g.getMemoryReport()) {
+			MemoryReportResponse.Item item = new MemoryReportResponse.Item();
+			item.name = entry.name;
+			item.bytes = entry.bytes;
+			item.bytesPerNode = entry.bytesPerNode();
+			item.bytesPerEdge = entry.bytesPerEdge();
+			report.items.add(item);
+			report.residentBytes += entry.bytes;
+		}
+		report.residentBytesPerNode = (double) report.residentBytes / report.nodes;
+		report.rawGraphBytes = g.rawGraphBytes;
+		report.loadPeakEstimateBytes = g.rawGraphBytes + g.graphBytes + g.idMap.getMemoryBytes();
+		report.loadPeakMeasuredBytes = g.loadPeakBytes;
+		report.duanContextBytes = DuanContext.estimateBytes(report.virtualNodes, false);
+		return report;
+	}
+
+	/** Contadores dos caches (árvores por origem e rotas por par). */
+	public CacheStatsResponse getCacheStats(String region) {
+		GraphVersion g = acquire(region);
+		try {
+			return getCacheStats(g);
+		} finally {
+			release(g);
+		}
+	}
+
+	private CacheStatsResponse getCacheStats(GraphVersion g) {
+		SptCache sptCache = g.sptCache;
+		RouteCache routeCache = g.routeCache;
+		CacheStatsResponse stats = new CacheStatsResponse();
+		stats.graphVersion = g.version;
+		stats.sptTrees = sptCache.size();
+		stats.sptBytes = sptCache.getBytes();
+		stats.sptMaxBytes = sptCache.getMaxBytes();
+		stats.sptHits = sptCache.getHits();
+		stats.sptMisses = sptCache.getMisses();
+		stats.sptBuilds = sptCache.getBuilds();
+		stats.sptEvictions = sptCache.getEvictions();
+		stats.routeEntries = routeCache.size();
+		stats.routeHits = routeCache.getHits();
+		stats.routeMisses = routeCache.getMisses();
+		stats.routeCoalesced = routeCache.getCoalesced();
+		stats.routeExpired = routeCache.getExpired();
+		return stats;
+	}
 
+	/**
+	 * Lote de pesos novos (trânsito). As árvores das origens quentes são
+	 * consertadas só na parte afetada; a CH deixa de valer (é descartada) e o
+	 * ALT também, se algum peso caiu (os limites inferiores deixariam de ser
+	 * válidos). Os dois voltam no próximo carregamento.
+	 */
+	public TrafficUpdateResponse updateEdgeWeights(String region, List<TrafficUpdateRequest.EdgeUpdate> updates) {
+		for (TrafficUpdateRequest.EdgeUpdate update : updates) {
+			if (update.weight < 0)
+				throw new IllegalArgumentException("Peso negativo na aresta " + update.from + " -> " + update.to);
+		}
+
+		GraphVersion g = acquire(region);
+		try {
+			return updateEdgeWeights(g, updates);
+		} finally {
+			release(g);
+		}
+	}
+
+	private TrafficUpdateResponse updateEdgeWeights(GraphVersion g, List<TrafficUpdateRequest.EdgeUpdate> updates) {
+		TrafficUpdateResponse response = new TrafficUpdateResponse();
+		response.graphVersion = g.version;
+		long startTime = System.nanoTime();
+
+		synchronized (g.trafficLock) {
+			List<int[]> changed = new ArrayList<>(); // {aresta, peso antigo}
+			boolean decreased = false;
+			for (TrafficUpdateRequest.EdgeUpdate update : updates) {
+				int[] edges = findVirtualEdges(g, update.from, update.to);
+				if (edges.length == 0)
+					response.notFound++;
+				for (int e : edges) {
+					int old = g.dynamicGraph.setWeight(e, update.weight);
+					if (old != update.weight) {
+						changed.add(new int[] { e, old });
+						decreased |= update.weight < old;
+					}
+				}
+			}
+			response.applied = changed.size();
+
+			if (!changed.isEmpty()) {
+				invalidatePreprocessing(g, decreased);
+				g.routeCache.invalidate();
+
+				int[] edges = new int[changed.size()];
+				int[] oldWeights = new int[changed.size()];
+				for (int i = 0; i < edges.length; i++) {
+					edges[i] = changed.get(i)[0];
+					oldWeights[i] = changed.get(i)[1];
+				}
+
+				for (DynamicSsspTree tree : g.sptCache.trees()) {
+					response.repairedNodes += tree.update(edges, oldWeights);
+					response.repairedTrees++;
+				}
+			}
+		}
+
+		response.computationTime = System.nanoTime() - startTime;
 		return response;
 	}
 
-	public Graph getGraph() {
-		return graph;
+	/** Arestas virtuais que representam a aresta original from -> to (saem do ciclo de from, entram no de to). */
+	private int[] findVirtualEdges(GraphVersion g, int originalFrom, int originalTo) {
+		VirtualIdMap idMap = g.idMap;
+		DynamicGraph dynamicGraph = g.dynamicGraph;
+		if (originalFrom < 1 || originalFrom > idMap.getOriginalCount() || originalTo < 1
+				|| originalTo > idMap.getOriginalCount())
+			return new int[0];
+
+		// GraphTransformer: cada nó virtual tem primeiro a aresta que fecha o ciclo
+		// (peso 0) e depois a sua aresta original, que entra no 1o nó do ciclo de destino
+		int entry = idMap.toVirtual(originalTo);
+		List<Integer> found = new ArrayList<>();
+		for (int v = idMap.firstVirtual(originalFrom); v < idMap.endVirtual(originalFrom); v++) {
+			int e = dynamicGraph.first(v) + 1;
+			if (e < dynamicGraph.end(v) && dynamicGraph.head(e) == entry)
+				found.add(e);
+		}
+		return found.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private void invalidatePreprocessing(GraphVersion g, boolean decreased) {
+		if (g.hierarchy != null) {
+			System.out.println("--- [GraphService] Pesos mudaram: CH descartada até o próximo carregamento ---");
+			g.engines.unregister(ChEngine.NAME);
+			g.hierarchy = null;
+			g.chMatrix = null;
+		}
+		if (decreased && g.landmarks != null) {
+			System.out.println("--- [GraphService] Pesos caíram: ALT descartado até o próximo carregamento ---");
+			g.engines.unregister(AltEngine.NAME);
+			g.landmarks = null;
+		}
+	}
+
+	/**
+	 * Matriz de distâncias origens x destinos (linha a linha, -1 se
+	 * inalcançável). Usa os baldes da CH quando ela está carregada.
+	 */
+	public MatrixResponse calculateMatrix(String region, int[] originalSources, int[] originalTargets) {
+		validateMatrix(originalSources, originalTargets);
+		GraphVersion g = acquire(region);
+		try {
+			int[] sources = g.idMap.toVirtual(originalSources);
+			int[] targets = g.idMap.toVirtual(originalTargets);
+			ChManyToMany chMatrix = g.chMatrix;
+
+			MatrixResponse response = new MatrixResponse();
+			response.rows = sources.length;
+			response.cols = targets.length;
+			response.distances = chMatrix != null ? g.distanceMatrix.compute(chMatrix, sources, targets)
+					: g.distanceMatrix.compute(g.graph, sources, targets);
+			response.graphVersion = g.version;
+			return response;
+		} finally {
+			release(g);
+		}
+	}
+
+	/**
+	 * sources e targets presentes e no máximo routing.matrix.max-cells
+	 * células; senão IllegalArgumentException. Barato: o controller chama
+	 * antes de ocupar o executor.
+	 */
+	public void validateMatrix(int[] sources, int[] targets) {
+		if (sources == null || targets == null)
+			throw new IllegalArgumentException("Informe sources e targets");
+		long cells = (long) sources.length * targets.length;
+		if (cells > matrixMaxCells)
+			throw new IllegalArgumentException("Matriz " + sources.length + " x " + targets.length + " tem " + cells
+					+ " células (máximo " + matrixMaxCells + ")");
+	}
+
+	/**
+	 * Isócrona: nós alcançáveis a partir de "from" com distância < budget,
+	 * pela recursão de Duan limitada em B = budget. shape: "none", "convex"
+	 * ou "concave" (contorno a partir das coordenadas dos nós).
+	 */
+	public IsochroneResponse calculateIsochrone(String region, int originalFrom, double budget, String shape) {
+		validateIsochrone(budget, shape);
+		GraphVersion g = acquire(region);
+		try {
+			return calculateIsochrone(g, originalFrom, budget, shape);
+		} finally {
+			release(g);
+		}
+	}
+
+	/**
+	 * budget positivo e shape conhecido; senão IllegalArgumentException.
+	 * Barato: o controller chama antes de ocupar um solver, como nas rotas.
+	 */
+	public void validateIsochrone(double budget, String shape) {
+		if (!(budget > 0))
+			throw new IllegalArgumentException("budget deve ser positivo");
+		if (shape != null && !shape.equals("none") && !shape.equals("convex") && !shape.equals("concave"))
+			throw new IllegalArgumentException("shape inválido: " + shape + " (use none, convex ou concave)");
+	}
+
+	private IsochroneResponse calculateIsochrone(GraphVersion g, int originalFrom, double budget, String shape) {
+		VirtualIdMap idMap = g.idMap;
+		int from = idMap.toVirtual(originalFrom);
+
+		long startTime = System.nanoTime();
+		DuanSolver solver = g.borrowIsochroneSolver();
+		BoundedResult reached = solver.computeBounded(g.graph, from, budget);
+		g.returnIsochroneSolver(solver); // Só volta se terminou bem (contexto consistente)
+
+		// Um nó original por ciclo (todo o ciclo tem a mesma distância: arestas internas de peso 0)
+		IntSet seen = new IntOpenHashSet();
+		int[] nodes = new int[reached.nodes.length];
+		double[] distances = new double[reached.nodes.length];
+		int count = 0;
+		for (int i = 0; i < reached.nodes.length; i++) {
+			int original = idMap.toOriginal(reached.nodes[i]);
+			if (seen.add(original)) {
+				nodes[count] = original;
+				distances[count++] = reached.distances[i];
+			}
+		}
+		nodes = Arrays.copyOf(nodes, count);
+		distances = Arrays.copyOf(distances, count);
+
+		List<RouteResponse.NodeDto> polygon = buildPolygon(g, nodes, shape);
+		long endTime = System.nanoTime();
+
+		IsochroneResponse response = new IsochroneResponse();
+		response.budget = budget;
+		response.nodes = nodes;
+		response.distances = distances;
+		response.polygon = polygon;
+		response.computationTime = (endTime - startTime);
+		response.graphVersion = g.version;
+		return response;
+	}
+
+	private List<RouteResponse.NodeDto> buildPolygon(GraphVersion g, int[] nodeIds, String shape) {
+		double[] latitude = g.latitude;
+		double[] longitude = g.longitude;
+		if (shape == null || shape.equals("none"))
+			return null; // shape já validado (validateIsochrone)
+
+		double cell = HULL_CELL;
+		List<Integer> points = snapToGrid(latitude, longitude, nodeIds, cell);
+		while (shape.equals("concave") && points.size() > CONCAVE_MAX_POINTS) {
+			cell *= 2;
+			points = snapToGrid(latitude, longitude, nodeIds, cell);
+		}
+
+		double[] x = new double[points.size()];
+		double[] y = new double[points.size()];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = longitude[points.get(i)];
+			y[i] = latitude[points.get(i)];
+		}
+
+		int[] hull = shape.equals("convex") ? Hull.convex(x, y) : Hull.concave(x, y, CONCAVE_THRESHOLD);
+		List<RouteResponse.NodeDto> polygon = new ArrayList<>(hull.length);
+		for (int i : hull) {
+			polygon.add(new RouteResponse.NodeDto(y[i], x[i]));
+		}
+		return polygon;
+	}
+
+	/** Um ponto por célula da grade (nós originais). */
+	private static List<Integer> snapToGrid(double[] latitude, double[] longitude, int[] nodeIds, double cell) {
+		Set<Long> cells = new HashSet<>();
+		List<Integer> points = new ArrayList<>();
+		for (int id : nodeIds) {
+			long cx = (long) Math.floor(longitude[id] / cell);
+			long cy = (long) Math.floor(latitude[id] / cell);
+			if (cells.add((cx << 32) ^ (cy & 0xffffffffL)))
+				points.add(id);
+		}
+		return points;
 	}
 
-}
\ No newline at end of file
+}
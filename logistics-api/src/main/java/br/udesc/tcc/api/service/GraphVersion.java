@@ -0,0 +1,179 @@
+package br.udesc.tcc.api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import algos.DeltaSteppingSolver;
+import algos.DistanceMatrix;
+import algos.OneToManyRouter;
+import algos.alt.LandmarkTable;
+import algos.ch.ChManyToMany;
+import algos.ch.ContractionHierarchy;
+import algos.duan.DuanSolver;
+import algos.dynamic.SptCache;
+import algos.engine.AdaptiveEnginePolicy;
+import algos.engine.ChEngine;
+import algos.engine.EngineRegistry;
+import algos.engine.ShortestPathEngine;
+import graph.DynamicGraph;
+import graph.Graph;
+import graph.MemoryFootprint;
+import graph.VirtualIdMap;
+import structures.WorkspacePool;
+
+/**
+ * Um conjunto de dados carregado: o grafo e tudo que é derivado dele
+ * (tradução de IDs, coordenadas, CH, ALT, motores, caches). O GraphService
+ * troca a versão atual de uma vez só (referência volatile); cada consulta
+ * pega a versão no início (acquire) e vai até o fim nela, mesmo que uma nova
+ * entre no meio. Quando a versão aposentada não tem mais consultas em
+ * andamento, os caches e as áreas de trabalho livres (CH, matriz, lote,
+ * isócronas) são esvaziados e o resto fica para o GC.
+ */
+public class GraphVersion {
+
+	final String region; // Ex: "NY"
+	final long version;
+	final String source; // Arquivos de onde veio (para o status do admin)
+	final long loadedAt; // System.currentTimeMillis()
+	volatile long lastUsed; // System.nanoTime() do último acquire (LRU das regiões)
+
+	Graph graph; // Grafo transformado (grau constante)
+	long graphBytes; // Estimativa do Graph de objetos (percorre as listas: calculada uma vez na carga)
+	VirtualIdMap idMap;
+	double[] latitude; // Por ID original
+	double[] longitude;
+	volatile ContractionHierarchy hierarchy; // Descartada se o trânsito a invalidar
+	volatile ChManyToMany chMatrix; // Baldes da matriz sobre a CH (áreas de busca reaproveitadas), vai junto com ela
+	volatile LandmarkTable landmarks;
+
+	EngineRegistry engines;
+	DeltaSteppingSolver deltaStepping; // Guarda o CSR dele (entra na memória)
+	AdaptiveEnginePolicy enginePolicy;
+
+	DynamicGraph dynamicGraph;
+	SptCache sptCache;
+	RouteCache routeCache;
+	OneToManyRouter batchRouter;
+	DistanceMatrix distanceMatrix;
+
+	// Da carga: o grafo original (já descartado) e o pico de heap da leitura + transformação
+	long rawGraphBytes;
+	long rawEdges;
+	long loadPeakBytes;
+	final Object trafficLock = new Object();
+
+	// Isócronas: solvers livres desta versão, que reaproveitam o contexto (arrays de tamanho n,
+	// reset só nos nós tocados). No máximo um por consulta simultânea; o drain esvazia
+	private final WorkspacePool<DuanSolver> isochroneSolvers = new WorkspacePool<>(DuanSolver::new);
+
+	final AtomicInteger inFlight = new AtomicInteger();
+	private volatile boolean retired;
+	private final AtomicBoolean drained = new AtomicBoolean();
+
+	GraphVersion(String region, long version, String source) {
+		this.region = region;
+		this.version = version;
+		this.source = source;
+		this.loadedAt = System.currentTimeMillis();
+		this.lastUsed = System.nanoTime();
+	}
+
+	/**
+	 * Memória estimada da versão (JVM 64 bits com compressed oops): a soma das
+	 * estruturas residentes do getMemoryReport. Serve para o orçamento das
+	 * regiões, não é uma medida exata (o main.MemoryBenchmark confere).
+	 */
+	long getMemoryBytes() {
+		long bytes = 0;
+		for (MemoryFootprint.Entry entry : getMemoryReport())
+			bytes += entry.bytes;
+		return bytes;
+	}
+
+	/**
+	 * Uma linha por estrutura residente, com bytes por nó e por aresta do
+	 * grafo transformado (a CH conta as próprias arestas, com os atalhos).
+	 */
+	List<MemoryFootprint.Entry> getMemoryReport() {
+		long n = graph.getNodeCount();
+		long m = dynamicGraph.end((int) n);
+		List<MemoryFootprint.Entry> report = new ArrayList<>();
+		report.add(new MemoryFootprint.Entry("Graph (objetos)", graphBytes, n, m));
+		report.add(new MemoryFootprint.Entry("VirtualIdMap", idMap.getMemoryBytes(), n, m));
+		report.add(new MemoryFootprint.Entry("Coordenadas", MemoryFootprint.of(latitude) + MemoryFootprint.of(longitude),
+				n, m));
+		report.add(new MemoryFootprint.Entry("DynamicGraph (CSR + reverso)", dynamicGraph.getMemoryBytes(), n, m));
+		report.add(new MemoryFootprint.Entry("Delta-Stepping (CSR + dist)", deltaStepping.getMemoryBytes(), n, m));
+		ContractionHierarchy ch = hierarchy;
+		if (ch != null)
+			report.add(new MemoryFootprint.Entry("CH", ch.getMemoryBytes(), n, ch.getEdgeCount()));
+		LandmarkTable alt = landmarks;
+		if (alt != null)
+			report.add(new MemoryFootprint.Entry("ALT (" + alt.getLandmarkCount() + " landmarks)", alt.getMemoryBytes(),
+					n, m));
+		report.add(new MemoryFootprint.Entry("Cache de árvores", sptCache.getBytes(), n, m));
+		return report;
+	}
+
+	DuanSolver borrowIsochroneSolver() {
+		return isochroneSolvers.borrow();
+	}
+
+	void returnIsochroneSolver(DuanSolver solver) {
+		isochroneSolvers.giveBack(solver);
+	}
+
+	/** Saiu de uso: libera assim que a última consulta em andamento terminar. */
+	void retire() {
+		retired = true;
+		if (inFlight.get() == 0)
+			drain();
+	}
+
+	void release() {
+		if (inFlight.decrementAndGet() == 0 && retired)
+			drain();
+	}
+
+	boolean isDraining() {
+		return retired && !drained.get();
+	}
+
+	private void drain() {
+		if (!drained.compareAndSet(false, true))
+			return;
+		sptCache.clear();
+		routeCache.invalidate();
+		// As áreas de trabalho ficam em listas livres (não em ThreadLocal das threads do serviço),
+		// então soltá-las aqui libera os arrays de tamanho n na hora
+		isochroneSolvers.clear();
+		ShortestPathEngine ch = engines.find(ChEngine.NAME);
+		if (ch instanceof ChEngine)
+			((ChEngine) ch).clearWorkspaces();
+		ChManyToMany matrix = chMatrix;
+		if (matrix != null)
+			matrix.clearWorkspaces();
+		batchRouter.clearWorkspaces();
+		distanceMatrix.clearWorkspaces();
+		System.out.println("--- [GraphService] Versão " + version + " do grafo liberada ---");
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public Graph getGraph() {
+		return graph;
+	}
+
+	public EngineRegistry getEngines() {
+		return engines;
+	}
+}
@@ -0,0 +1,84 @@
+package br.udesc.tcc.api.service;
+
+/**
+ * Histograma de latências (nanossegundos) no estilo do HdrHistogram, com
+ * erro relativo de no máximo 1/64 (~1,6%): até 127 ns cada valor tem seu
+ * balde; acima disso, cada potência de 2 é dividida em 64 baldes iguais.
+ * Tamanho fixo (~30 KB) e gravação O(1), então toda consulta é gravada, sem
+ * amostragem. Não é thread-safe: cada thread grava no seu e no fim eles são
+ * somados com add.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKETS = 128; // Baldes exatos (0..127 ns)
+	private static final int HALF = SUB_BUCKETS / 2; // Baldes por potência de 2 acima disso
+	private static final int SUB_BITS = 7; // log2(SUB_BUCKETS)
+
+	private final long[] counts = new long[SUB_BUCKETS + (64 - SUB_BITS) * HALF];
+	private long count;
+	private long sum;
+	private long max;
+
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+		counts[index(nanos)]++;
+		count++;
+		sum += nanos;
+		max = Math.max(max, nanos);
+	}
+
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < counts.length; i++)
+			counts[i] += other.counts[i];
+		count += other.count;
+		sum += other.sum;
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Menor valor v tal que pelo menos percentile% das gravações são <= v
+	 * (arredondado para o topo do balde, como o HdrHistogram; nunca acima do
+	 * máximo real).
+	 */
+	public long percentile(double percentile) {
+		if (count == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(highestEquivalent(i), max);
+		}
+		return max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	private static int index(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1); // >= 1
+		int top = (int) (value >>> shift); // HALF..SUB_BUCKETS-1
+		return SUB_BUCKETS + (shift - 1) * HALF + (top - HALF);
+	}
+
+	private static long highestEquivalent(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+		int shift = (index - SUB_BUCKETS) / HALF + 1;
+		long top = (index - SUB_BUCKETS) % HALF + HALF;
+		return ((top + 1) << shift) - 1;
+	}
+}
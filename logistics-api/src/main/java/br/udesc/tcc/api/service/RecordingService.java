@@ -0,0 +1,151 @@
+package br.udesc.tcc.api.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import algos.duan.DuanEvents;
+import algos.duan.DuanSolver;
+import br.udesc.tcc.api.dto.RecordingRequest;
+import br.udesc.tcc.api.dto.RecordingStatusResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Gravação do Java Flight Recorder com os eventos do Duan (cada bmssp com
+ * nível, |S|, |U|, M e limites, FindPivots, BaseCase, pull e batchPrepend),
+ * para achar a consulta lenta no tráfego real sem anexar profiler. Só os
+ * eventos acima do threshold entram; sem gravação ativa eles quase não
+ * custam nada. Uma gravação por vez, iniciada e despejada pelo admin.
+ */
+@Service
+public class RecordingService {
+
+	private static final String RECORDING_NAME = "duan-routing";
+	private static final String PATH_DUMP = "duan-%s.jfr"; // No diretório de dados
+
+	@Autowired
+	private DataDirectory dataDirectory;
+
+	@Value("${routing.jfr.threshold-ms:1}")
+	private double defaultThresholdMillis;
+	@Value("${routing.jfr.max-age-minutes:30}")
+	private int defaultMaxAgeMinutes;
+	// O resumo "DUAN PROFILING" no stdout a cada execução (a gravação JFR o substitui)
+	@Value("${routing.duan.print-profile:false}")
+	private boolean printDuanProfile;
+
+	private Recording recording;
+	private String settings;
+	private double thresholdMillis;
+	private int maxAgeMinutes;
+	private long startedAt;
+	private String lastDump;
+
+	@PostConstruct
+	public void init() {
+		DuanSolver.profile = printDuanProfile;
+	}
+
+	public synchronized RecordingStatusResponse start(RecordingRequest request) throws IOException {
+		if (isRunning())
+			throw new IllegalStateException("Já há uma gravação ativa; despeje ou pare antes");
+
+		double threshold = request.thresholdMillis != null ? request.thresholdMillis : defaultThresholdMillis;
+		int maxAge = request.maxAgeMinutes != null ? request.maxAgeMinutes : defaultMaxAgeMinutes;
+		String jvmSettings = request.settings != null ? request.settings : "default";
+		if (threshold < 0 || maxAge <= 0)
+			throw new IllegalArgumentException("thresholdMillis deve ser >= 0 e maxAgeMinutes > 0");
+
+		Recording r;
+		if (jvmSettings.equals("none")) {
+			r = new Recording();
+		} else {
+			try {
+				r = new Recording(Configuration.getConfiguration(jvmSettings));
+			} catch (ParseException | IOException e) {
+				throw new IllegalArgumentException("Configuração JFR inválida: " + jvmSettings + " (default, profile ou none)");
+			}
+		}
+		r.setName(RECORDING_NAME);
+		r.setToDisk(true);
+		r.setMaxAge(Duration.ofMinutes(maxAge));
+		Duration eventThreshold = Duration.ofNanos((long) (threshold * 1_000_000));
+		for (String event : DuanEvents.NAMES) {
+			r.enable(event).withThreshold(eventThreshold).withoutStackTrace();
+		}
+		r.start();
+
+		recording = r;
+		settings = jvmSettings;
+		thresholdMillis = threshold;
+		maxAgeMinutes = maxAge;
+		startedAt = System.currentTimeMillis();
+		System.out.println("Gravação JFR iniciada (" + jvmSettings + ", eventos do Duan >= " + threshold + " ms)");
+		return getStatus();
+	}
+
+	/**
+	 * Grava o que a gravação ativa tem até agora (últimos maxAgeMinutes) e
+	 * segue gravando. path fica no diretório de dados (senão
+	 * IllegalArgumentException).
+	 */
+	public synchronized RecordingStatusResponse dump(String path) throws IOException {
+		if (!isRunning())
+			throw new IllegalStateException("Nenhuma gravação ativa");
+		Path file = dataDirectory.resolve(path != null ? path
+				: String.format(PATH_DUMP, new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())));
+		recording.dump(file);
+		lastDump = file.toString();
+		System.out.println("Gravação JFR despejada em " + file);
+		return getStatus();
+	}
+
+	/** Para a gravação; com path, despeja antes. */
+	public synchronized RecordingStatusResponse stop(String path) throws IOException {
+		if (!isRunning())
+			throw new IllegalStateException("Nenhuma gravação ativa");
+		if (path != null) dump(path);
+		recording.stop();
+		recording.close();
+		recording = null;
+		System.out.println("Gravação JFR encerrada");
+		return getStatus();
+	}
+
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (recording != null) recording.close();
+		recording = null;
+	}
+
+	public synchronized RecordingStatusResponse getStatus() {
+		RecordingStatusResponse status = new RecordingStatusResponse();
+		status.running = isRunning();
+		status.events = Arrays.asList(DuanEvents.NAMES);
+		status.lastDump = lastDump;
+		if (status.running) {
+			status.settings = settings;
+			status.thresholdMillis = thresholdMillis;
+			status.maxAgeMinutes = maxAgeMinutes;
+			status.startedAt = startedAt;
+			status.sizeBytes = recording.getSize();
+		}
+		return status;
+	}
+
+	private boolean isRunning() {
+		return recording != null && recording.getState() == RecordingState.RUNNING;
+	}
+}
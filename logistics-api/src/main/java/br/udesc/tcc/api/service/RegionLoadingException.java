@@ -0,0 +1,23 @@
+package br.udesc.tcc.api.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Região ainda carregando (primeiro pedido dela): vira 503 Service Unavailable com Retry-After. */
+public class RegionLoadingException extends ResponseStatusException {
+
+	private final int retryAfterSeconds;
+
+	public RegionLoadingException(String region, int retryAfterSeconds) {
+		super(HttpStatus.SERVICE_UNAVAILABLE, "Região " + region + " carregando, tente de novo em " + retryAfterSeconds + "s");
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		return headers;
+	}
+}
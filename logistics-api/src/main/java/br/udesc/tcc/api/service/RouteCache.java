@@ -0,0 +1,158 @@
+package br.udesc.tcc.api.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import br.udesc.tcc.api.dto.RouteResponse;
+
+/**
+ * Cache de rotas prontas por par (origem, destino), com validade (TTL) e
+ * limite de entradas (LRU). Pedidos iguais que chegam enquanto a rota ainda
+ * está sendo calculada esperam o mesmo cálculo (single-flight), em vez de
+ * cada um rodar o solver.
+ *
+ * invalidate() descarta tudo e impede que cálculos já em andamento (com os
+ * pesos antigos) entrem no cache: usado quando o trânsito muda os pesos.
+ */
+public class RouteCache {
+
+	private static class Entry {
+		final RouteResponse response;
+		final long expiresAt;
+		final long generation;
+
+		Entry(RouteResponse response, long expiresAt, long generation) {
+			this.response = response;
+			this.expiresAt = expiresAt;
+			this.generation = generation;
+		}
+	}
+
+	private final long ttlNanos;
+	private final int maxEntries;
+
+	private final LinkedHashMap<Long, Entry> entries;
+	private final Map<Long, CompletableFuture<RouteResponse>> inFlight = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+	private final AtomicLong expired = new AtomicLong();
+
+	public RouteCache(long ttlMillis, int maxEntries) {
+		this.ttlNanos = ttlMillis * 1_000_000L;
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+				return size() > RouteCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Rota from -> to do cache; na falta, junta-se ao cálculo em andamento
+	 * do mesmo par ou roda solver (uma vez só) e guarda o resultado. Quem é
+	 * atendido pelo cache recebe uma cópia com cached = true e o seu próprio
+	 * computationTime.
+	 */
+	public RouteResponse get(int from, int to, Supplier<RouteResponse> solver) {
+		long start = System.nanoTime();
+		long key = ((long) from << 32) | (to & 0xFFFFFFFFL);
+
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				if (start < entry.expiresAt && entry.generation == generation.get()) {
+					hits.incrementAndGet();
+					return copy(entry.response, System.nanoTime() - start);
+				}
+				entries.remove(key);
+				expired.incrementAndGet();
+			}
+		}
+
+		CompletableFuture<RouteResponse> mine = new CompletableFuture<>();
+		CompletableFuture<RouteResponse> running = inFlight.putIfAbsent(key, mine);
+		if (running != null) {
+			coalesced.incrementAndGet();
+			try {
+				return copy(running.join(), System.nanoTime() - start);
+			} catch (CompletionException e) {
+				// A falha de quem calculou chega como está (inclusive Error: StackOverflowError, OOM)
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw e;
+			}
+		}
+
+		misses.incrementAndGet();
+		long startedGeneration = generation.get();
+		try {
+			RouteResponse response = solver.get();
+			synchronized (entries) {
+				if (startedGeneration == generation.get())
+					entries.put(key, new Entry(response, System.nanoTime() + ttlNanos, startedGeneration));
+			}
+			mine.complete(response);
+			return response;
+		} catch (Throwable e) {
+			// Qualquer falha, Error inclusive, libera quem está esperando em running.join()
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	private static RouteResponse copy(RouteResponse source, long elapsed) {
+		RouteResponse response = new RouteResponse();
+		response.distance = source.distance;
+		response.path = source.path;
+		response.polyline = source.polyline;
+		response.engine = source.engine;
+		response.graphVersion = source.graphVersion;
+		response.computationTime = elapsed;
+		response.cached = true;
+		return response;
+	}
+
+	/** Descarta todas as rotas (pesos mudaram). */
+	public void invalidate() {
+		generation.incrementAndGet();
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getCoalesced() {
+		return coalesced.get();
+	}
+
+	public long getExpired() {
+		return expired.get();
+	}
+}
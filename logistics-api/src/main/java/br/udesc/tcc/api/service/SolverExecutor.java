@@ -0,0 +1,368 @@
+package br.udesc.tcc.api.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.udesc.tcc.api.dto.SolverStatsResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Agendador dos cálculos pesados, com duas faixas:
+ *
+ * - INTERACTIVE (rotas e isócronas do mapa): fila limitada a
+ *   routing.solver.interactive.queue-capacity; cheia = 429 com Retry-After.
+ * - BULK (lotes, matrizes, benchmark): cada job é admitido inteiro
+ *   (até routing.solver.bulk.max-jobs ao mesmo tempo, senão 429) e é
+ *   quebrado em pedaços (ex: um grupo de origem, uma rodada do benchmark).
+ *   Os pedaços dos jobs abertos são atendidos em rodízio.
+ *
+ * As routing.solver.threads threads (padrão = núcleos) pegam sempre a
+ * interativa primeiro, mas, com pedaços bulk esperando, a cada
+ * routing.solver.interactive-weight interativos seguidos um bulk passa (não
+ * morre de fome). Cada faixa tem seu teto de threads simultâneas
+ * (max-concurrent), então um lote nunca ocupa todos os núcleos, e um pedido
+ * do mapa espera no máximo um pedaço bulk terminar.
+ *
+ * As threads HTTP (virtuais no Java 21, com spring.threads.virtual.enabled)
+ * só esperam o resultado aqui.
+ */
+@Service
+public class SolverExecutor {
+
+	public enum Lane {
+		INTERACTIVE, BULK
+	}
+
+	@Value("${routing.solver.threads:0}")
+	private int threads; // 0 = número de núcleos
+	@Value("${routing.solver.interactive.max-concurrent:0}")
+	private int interactiveMaxConcurrent; // 0 = todas as threads
+	@Value("${routing.solver.interactive.queue-capacity:64}")
+	private int interactiveQueueCapacity;
+	@Value("${routing.solver.bulk.max-concurrent:0}")
+	private int bulkMaxConcurrent; // 0 = metade das threads (mínimo 1)
+	@Value("${routing.solver.bulk.max-jobs:4}")
+	private int bulkMaxJobs;
+	@Value("${routing.solver.interactive-weight:8}")
+	private int interactiveWeight;
+	@Value("${routing.solver.retry-after-seconds:1}")
+	private int retryAfterSeconds;
+
+	private final Object lock = new Object();
+	private final ArrayDeque<Task<?>> interactiveQueue = new ArrayDeque<>();
+	private final ArrayDeque<BulkJob> bulkJobs = new ArrayDeque<>(); // jobs com pedaços pendentes (rodízio)
+	private int interactiveActive;
+	private int bulkActive;
+	private int bulkQueued;
+	private int interactiveStreak;
+	private boolean running = true;
+
+	private Semaphore bulkPermits;
+	private final List<Thread> workers = new ArrayList<>();
+
+	private final LaneMetrics interactiveMetrics = new LaneMetrics();
+	private final LaneMetrics bulkMetrics = new LaneMetrics();
+
+	@PostConstruct
+	public void init() {
+		int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.threads = size;
+		this.interactiveMaxConcurrent = interactiveMaxConcurrent > 0 ? Math.min(interactiveMaxConcurrent, size) : size;
+		this.bulkMaxConcurrent = bulkMaxConcurrent > 0 ? Math.min(bulkMaxConcurrent, size) : Math.max(1, size / 2);
+		this.bulkPermits = new Semaphore(bulkMaxJobs);
+
+		for (int i = 1; i <= size; i++) {
+			Thread t = new Thread(this::workerLoop, "solver-" + i);
+			t.setDaemon(true);
+			t.start();
+			workers.add(t);
+		}
+		System.out.println("--- [SolverExecutor] " + size + " threads (interativo até " + interactiveMaxConcurrent
+				+ ", bulk até " + bulkMaxConcurrent + ") ---");
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		synchronized (lock) {
+			running = false;
+			lock.notifyAll();
+		}
+	}
+
+	/** Pedido interativo: roda na faixa INTERACTIVE e espera o resultado. */
+	public <T> T call(Callable<T> task) {
+		return call(Lane.INTERACTIVE, task);
+	}
+
+	/**
+	 * Roda task na faixa pedida e espera o resultado; exceções da task chegam
+	 * como estão. Na BULK vira um job de um pedaço só (ex: uma matriz).
+	 */
+	public <T> T call(Lane lane, Callable<T> task) {
+		if (lane == Lane.BULK) {
+			try (BulkJob job = openBulkJob()) {
+				return job.call(task);
+			}
+		}
+
+		Task<T> t = new Task<>(task, Lane.INTERACTIVE);
+		synchronized (lock) {
+			if (interactiveQueue.size() >= interactiveQueueCapacity) {
+				interactiveMetrics.rejected.incrementAndGet();
+				throw new SolverOverloadedException(retryAfterSeconds);
+			}
+			interactiveQueue.add(t);
+			lock.notifyAll();
+		}
+		return await(t);
+	}
+
+	/** Abre um job bulk (ou 429, se já há max-jobs abertos). Feche com close (try-with-resources). */
+	public BulkJob openBulkJob() {
+		if (!bulkPermits.tryAcquire()) {
+			bulkMetrics.rejected.incrementAndGet();
+			throw new SolverOverloadedException(retryAfterSeconds);
+		}
+		return new BulkJob();
+	}
+
+	/** Job da faixa BULK: os pedaços entram no rodízio e cedem a vez para os interativos entre um e outro. */
+	public class BulkJob implements AutoCloseable {
+
+		private final ArrayDeque<Task<?>> chunks = new ArrayDeque<>();
+		private boolean closed;
+
+		private BulkJob() {
+		}
+
+		public <T> Future<T> submit(Callable<T> chunk) {
+			Task<T> t = new Task<>(chunk, Lane.BULK);
+			synchronized (lock) {
+				if (closed)
+					throw new IllegalStateException("Job bulk já fechado");
+				if (chunks.isEmpty())
+					bulkJobs.add(this);
+				chunks.add(t);
+				bulkQueued++;
+				lock.notifyAll();
+			}
+			return t;
+		}
+
+		public <T> T call(Callable<T> chunk) {
+			return await(submit(chunk));
+		}
+
+		/**
+		 * Cancela os pedaços que ainda não começaram; os que já estão rodando
+		 * vão até o fim (espere por eles com awaitQuietly). O job continua
+		 * aberto.
+		 */
+		public void cancelPending() {
+			synchronized (lock) {
+				for (Task<?> t : chunks) {
+					t.cancel(false);
+					t.finished.countDown(); // Sai da fila sem rodar
+				}
+				bulkQueued -= chunks.size();
+				chunks.clear();
+				bulkJobs.remove(this);
+			}
+		}
+
+		/** Cancela os pedaços que ainda não começaram e libera a vaga do job. */
+		@Override
+		public void close() {
+			synchronized (lock) {
+				if (closed)
+					return;
+				closed = true;
+			}
+			cancelPending();
+			bulkPermits.release();
+		}
+	}
+
+	/** Espera o resultado de um pedaço/tarefa, devolvendo a exceção original. */
+	public static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Pedido interrompido", e);
+		} catch (CancellationException e) {
+			throw new IllegalStateException("Cálculo cancelado", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException("Falha no cálculo", cause);
+		}
+	}
+
+	/**
+	 * Espera um pedaço sair da thread (terminar, ou ser cancelado antes de
+	 * começar) ignorando o resultado e a falha dele. Não sai por interrupção:
+	 * quem chama precisa saber que nada mais roda; a interrupção é restaurada
+	 * no fim.
+	 */
+	public static void awaitQuietly(Future<?> future) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				if (future instanceof Task)
+					((Task<?>) future).finished.await();
+				else
+					future.get();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			} catch (CancellationException | ExecutionException e) {
+				break;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private void workerLoop() {
+		while (true) {
+			Task<?> task;
+			synchronized (lock) {
+				while ((task = next()) == null) {
+					if (!running)
+						return;
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						// Sobra de um cancel(true); só o shutdown (running = false) encerra a thread
+					}
+				}
+			}
+
+			long start = System.nanoTime();
+			task.run();
+			long end = System.nanoTime();
+			// cancel(true) de quem esperava interrompe esta thread e o FutureTask não limpa: sem isso a
+			// próxima tarefa roda interrompida (ex: "Cálculo da matriz interrompido")
+			Thread.interrupted();
+
+			synchronized (lock) {
+				if (task.lane == Lane.INTERACTIVE)
+					interactiveActive--;
+				else
+					bulkActive--;
+				lock.notifyAll(); // vaga de faixa liberada
+			}
+			if (!task.isCancelled())
+				(task.lane == Lane.INTERACTIVE ? interactiveMetrics : bulkMetrics).record(start - task.submitted,
+						end - task.submitted);
+		}
+	}
+
+	/** Próxima tarefa respeitando tetos e prioridade (chamado com o lock). */
+	private Task<?> next() {
+		boolean interactiveReady = !interactiveQueue.isEmpty() && interactiveActive < interactiveMaxConcurrent;
+		boolean bulkReady = !bulkJobs.isEmpty() && bulkActive < bulkMaxConcurrent;
+
+		if (interactiveReady && (!bulkReady || interactiveStreak < interactiveWeight)) {
+			interactiveStreak++;
+			interactiveActive++;
+			return interactiveQueue.poll();
+		}
+		if (bulkReady) {
+			interactiveStreak = 0;
+			bulkActive++;
+			bulkQueued--;
+			BulkJob job = bulkJobs.poll();
+			Task<?> t = job.chunks.poll();
+			if (!job.chunks.isEmpty())
+				bulkJobs.add(job); // rodízio entre jobs
+			return t;
+		}
+		return null;
+	}
+
+	private static class Task<T> extends FutureTask<T> {
+		final Lane lane;
+		final long submitted = System.nanoTime();
+		// Fim de verdade: cancel(true) marca o FutureTask como pronto com a thread ainda rodando
+		final CountDownLatch finished = new CountDownLatch(1);
+
+		Task(Callable<T> callable, Lane lane) {
+			super(callable);
+			this.lane = lane;
+		}
+
+		@Override
+		public void run() {
+			try {
+				super.run();
+			} finally {
+				finished.countDown();
+			}
+		}
+	}
+
+	private static class LaneMetrics {
+		final AtomicLong completed = new AtomicLong();
+		final AtomicLong rejected = new AtomicLong();
+		final AtomicLong totalWaitNanos = new AtomicLong();
+		final AtomicLong maxWaitNanos = new AtomicLong();
+		final AtomicLong totalLatencyNanos = new AtomicLong();
+		final AtomicLong maxLatencyNanos = new AtomicLong();
+
+		void record(long wait, long latency) {
+			completed.incrementAndGet();
+			totalWaitNanos.addAndGet(wait);
+			maxWaitNanos.accumulateAndGet(wait, Math::max);
+			totalLatencyNanos.addAndGet(latency);
+			maxLatencyNanos.accumulateAndGet(latency, Math::max);
+		}
+
+		SolverStatsResponse.LaneStats toStats(int maxConcurrent, int active, int queued) {
+			SolverStatsResponse.LaneStats stats = new SolverStatsResponse.LaneStats();
+			stats.maxConcurrent = maxConcurrent;
+			stats.active = active;
+			stats.queued = queued;
+			stats.completed = completed.get();
+			stats.rejected = rejected.get();
+			long count = stats.completed;
+			stats.avgWaitNanos = count == 0 ? 0 : totalWaitNanos.get() / count;
+			stats.maxWaitNanos = maxWaitNanos.get();
+			stats.avgLatencyNanos = count == 0 ? 0 : totalLatencyNanos.get() / count;
+			stats.maxLatencyNanos = maxLatencyNanos.get();
+			return stats;
+		}
+	}
+
+	public SolverStatsResponse getStats() {
+		SolverStatsResponse stats = new SolverStatsResponse();
+		stats.threads = threads;
+		synchronized (lock) {
+			stats.interactive = interactiveMetrics.toStats(interactiveMaxConcurrent, interactiveActive,
+					interactiveQueue.size());
+			stats.interactive.queueCapacity = interactiveQueueCapacity;
+			stats.bulk = bulkMetrics.toStats(bulkMaxConcurrent, bulkActive, bulkQueued);
+			stats.bulk.openJobs = bulkMaxJobs - bulkPermits.availablePermits();
+			stats.bulk.maxJobs = bulkMaxJobs;
+		}
+		return stats;
+	}
+}
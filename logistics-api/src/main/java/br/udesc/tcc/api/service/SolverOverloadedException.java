@@ -0,0 +1,23 @@
+package br.udesc.tcc.api.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Fila do SolverExecutor cheia: vira 429 Too Many Requests com Retry-After. */
+public class SolverOverloadedException extends ResponseStatusException {
+
+	private final int retryAfterSeconds;
+
+	public SolverOverloadedException(int retryAfterSeconds) {
+		super(HttpStatus.TOO_MANY_REQUESTS, "Servidor ocupado, tente de novo em " + retryAfterSeconds + "s");
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		return headers;
+	}
+}